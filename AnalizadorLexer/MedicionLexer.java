@@ -0,0 +1,118 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mide el analizador de una sola pasada (PseudoLexer) contra la alternancia de expresiones
+ * regulares que reemplazó, sobre inicio-programa.txt repetido hasta unos 5 MB. Antes de
+ * medir comprueba que ambos den la misma lista de tokens.
+ *
+ * Uso: javac *.java && java MedicionLexer [archivo] [repeticiones]
+ */
+public class MedicionLexer {
+
+    private static final int RONDAS = 7;
+
+    public static void main(String[] args) throws IOException, LexicalException {
+        String archivo = args.length > 0 ? args[0] : "inicio-programa.txt";
+        String programa = new String(Files.readAllBytes(Paths.get(archivo)), StandardCharsets.UTF_8);
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000 / programa.length() + 1;
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < repeticiones; i++) {
+            texto.append(programa).append('\n');
+        }
+        String entrada = texto.toString();
+
+        ArrayList<Token> esperado = analizarConRegex(entrada);
+        PseudoLexer lexer = new PseudoLexer();
+        lexer.analizar(entrada);
+        if (!esperado.toString().equals(lexer.getTokens().toString())) {
+            throw new IllegalStateException("Los analizadores no dan los mismos tokens");
+        }
+        System.out.printf("%d caracteres, %d tokens%n", entrada.length(), esperado.size());
+
+        medir("regex (anterior)", entrada, () -> analizarConRegex(entrada));
+        medir("una pasada", entrada, () -> {
+            PseudoLexer l = new PseudoLexer();
+            l.analizar(entrada);
+            return l.getTokens();
+        });
+    }
+
+    private interface Analisis {
+        Object ejecutar() throws LexicalException;
+    }
+
+    // Tres ejecuciones de calentamiento y luego la mediana de RONDAS
+    private static void medir(String nombre, String entrada, Analisis analisis) throws LexicalException {
+        for (int i = 0; i < 3; i++) {
+            analisis.ejecutar();
+        }
+        double[] milis = new double[RONDAS];
+        for (int i = 0; i < RONDAS; i++) {
+            long inicio = System.nanoTime();
+            analisis.ejecutar();
+            milis[i] = (System.nanoTime() - inicio) / 1e6;
+        }
+        Arrays.sort(milis);
+        double mediana = milis[RONDAS / 2];
+        System.out.printf("%-18s %10.1f ms %10.1f MB/s%n", nombre, mediana, entrada.length() / mediana / 1e3);
+    }
+
+    // La versión anterior de PseudoLexer.analizar, como referencia
+    private static ArrayList<Token> analizarConRegex(String entrada) throws LexicalException {
+        ArrayList<TipoToken> tipos = new ArrayList<>();
+        tipos.add(new TipoToken(TipoToken.NUMERO, "-?[0-9]+(\\.[0-9]+)?"));
+        tipos.add(new TipoToken(TipoToken.CADENA, "\".*\""));
+        tipos.add(new TipoToken(TipoToken.OPARITMETICO, "[*/+-]"));
+        tipos.add(new TipoToken(TipoToken.OPRELACIONAL, "(<=|>=|==|<|>|!=)"));
+        tipos.add(new TipoToken(TipoToken.IGUAL, "="));
+        tipos.add(new TipoToken(TipoToken.COMA, ","));
+        tipos.add(new TipoToken(TipoToken.PARENTESISIZQ, "\\("));
+        tipos.add(new TipoToken(TipoToken.PARENTESISDER, "\\)"));
+        tipos.add(new TipoToken(TipoToken.INICIOPROGRAMA, "inicio-programa"));
+        tipos.add(new TipoToken(TipoToken.FINPROGRAMA, "fin-programa"));
+        tipos.add(new TipoToken(TipoToken.LEER, "leer"));
+        tipos.add(new TipoToken(TipoToken.ESCRIBIR, "escribir"));
+        tipos.add(new TipoToken(TipoToken.SI, "si"));
+        tipos.add(new TipoToken(TipoToken.ENTONCES, "entonces"));
+        tipos.add(new TipoToken(TipoToken.FINSI, "fin-si"));
+        tipos.add(new TipoToken(TipoToken.MIENTRAS, "mientras"));
+        tipos.add(new TipoToken(TipoToken.FINMIENTRAS, "fin-mientras"));
+        tipos.add(new TipoToken(TipoToken.VARIABLE, "[a-zA-Z_][a-zA-Z0-9_]*"));
+        tipos.add(new TipoToken(TipoToken.ESPACIO, "[ \t\f\r\n]+"));
+        tipos.add(new TipoToken(TipoToken.ERROR, "[^ \t\f\r\n]+"));
+
+        ArrayList<Token> tokens = new ArrayList<>();
+        StringBuffer er = new StringBuffer();
+        for (TipoToken tt : tipos) {
+            er.append(String.format("|(?<%s>%s)", tt.getNombre(), tt.getPatron()));
+        }
+        Pattern p = Pattern.compile(new String(er.substring(1)));
+        Matcher m = p.matcher(entrada);
+
+        while (m.find()) {
+            for (TipoToken tt : tipos) {
+                if (m.group(TipoToken.ESPACIO) != null) {
+                    continue;
+                } else if (m.group(tt.getNombre()) != null) {
+                    if (tt.getNombre().equals(TipoToken.ERROR)) {
+                        throw new LexicalException(m.group(tt.getNombre()));
+                    }
+                    String nombre = m.group(tt.getNombre());
+                    if (tt.getNombre().equals(TipoToken.CADENA)) {
+                        nombre = nombre.substring(1, nombre.length() - 1);
+                    }
+                    tokens.add(new Token(tt, nombre));
+                    break;
+                }
+            }
+        }
+        return tokens;
+    }
+}
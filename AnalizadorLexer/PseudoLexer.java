@@ -1,6 +1,4 @@
 import java.util.ArrayList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class PseudoLexer {
     private ArrayList<TipoToken> tipos = new ArrayList<>(); // [cite: 107]
@@ -35,33 +33,183 @@ public class PseudoLexer {
         return tokens; // [cite: 126]
     } // [cite: 127]
 
+    /**
+     * Analizador de una sola pasada equivalente a la alternancia de expresiones regulares
+     * del constructor: en cada posición gana la PRIMERA alternativa que coincide (no la más
+     * larga), igual que Pattern. Por eso "-1" siempre es NUMERO, "leerx" es LEER + VARIABLE y
+     * una CADENA llega hasta la última comilla de la línea. Decide por el primer carácter sin
+     * backtracking ni consultas de grupos, y produce la misma lista de tokens.
+     */
     public void analizar(String entrada) throws LexicalException { // [cite: 128]
-        StringBuffer er = new StringBuffer(); // [cite: 128]
-        for (TipoToken tt : tipos) { // [cite: 129]
-            er.append(String.format("|(?<%s>%s)", tt.getNombre(), tt.getPatron())); // [cite: 130]
+        int n = entrada.length();
+        int i = 0;
+
+        while (i < n) {
+            char c = entrada.charAt(i);
+            int fin;
+
+            // NUMERO: -?[0-9]+(\.[0-9]+)?
+            if (esDigito(c) || (c == '-' && i + 1 < n && esDigito(entrada.charAt(i + 1)))) {
+                fin = i + 1;
+                while (fin < n && esDigito(entrada.charAt(fin))) fin++;
+                if (fin + 1 < n && entrada.charAt(fin) == '.' && esDigito(entrada.charAt(fin + 1))) {
+                    fin += 2;
+                    while (fin < n && esDigito(entrada.charAt(fin))) fin++;
+                }
+                agregar(NUMERO, entrada.substring(i, fin));
+                i = fin;
+                continue;
+            }
+
+            // CADENA: ".*" (el punto no cruza fin de línea; la cadena cierra en la última comilla)
+            if (c == '"') {
+                int cierre = -1;
+                for (int k = i + 1; k < n && !esFinDeLinea(entrada.charAt(k)); k++) {
+                    if (entrada.charAt(k) == '"') cierre = k;
+                }
+                if (cierre >= 0) {
+                    agregar(CADENA, entrada.substring(i + 1, cierre));
+                    i = cierre + 1;
+                    continue;
+                }
+            }
+
+            char sig = i + 1 < n ? entrada.charAt(i + 1) : '\0';
+            switch (c) {
+                case '*': case '/': case '+': case '-':
+                    agregar(OPARITMETICO, String.valueOf(c));
+                    i++;
+                    continue;
+                case '<': case '>':
+                    if (sig == '=') {
+                        agregar(OPRELACIONAL, entrada.substring(i, i + 2));
+                        i += 2;
+                    } else {
+                        agregar(OPRELACIONAL, String.valueOf(c));
+                        i++;
+                    }
+                    continue;
+                case '=':
+                    if (sig == '=') {
+                        agregar(OPRELACIONAL, "==");
+                        i += 2;
+                    } else {
+                        agregar(IGUAL, "=");
+                        i++;
+                    }
+                    continue;
+                case '!':
+                    if (sig == '=') {
+                        agregar(OPRELACIONAL, "!=");
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                case ',':
+                    agregar(COMA, ",");
+                    i++;
+                    continue;
+                case '(':
+                    agregar(PARENTESISIZQ, "(");
+                    i++;
+                    continue;
+                case ')':
+                    agregar(PARENTESISDER, ")");
+                    i++;
+                    continue;
+                default:
+                    break;
+            }
+
+            // Palabras reservadas: se prueban como prefijo literal, en el orden de la lista
+            int reservada = palabraReservada(entrada, i, c);
+            if (reservada >= 0) {
+                String palabra = tipos.get(reservada).getPatron();
+                agregar(reservada, palabra);
+                i += palabra.length();
+                continue;
+            }
+
+            // VARIABLE: [a-zA-Z_][a-zA-Z0-9_]*
+            if (esInicioVariable(c)) {
+                fin = i + 1;
+                while (fin < n && esParteVariable(entrada.charAt(fin))) fin++;
+                agregar(VARIABLE, entrada.substring(i, fin));
+                i = fin;
+                continue;
+            }
+
+            // ESPACIO: se descarta
+            if (esEspacio(c)) {
+                i++;
+                while (i < n && esEspacio(entrada.charAt(i))) i++;
+                continue;
+            }
+
+            // ERROR: todo lo que sigue hasta el siguiente espacio
+            fin = i + 1;
+            while (fin < n && !esEspacio(entrada.charAt(fin))) fin++;
+            throw new LexicalException(entrada.substring(i, fin)); // [cite: 139]
         }
-        Pattern p = Pattern.compile(new String(er.substring(1))); // [cite: 131]
-        Matcher m = p.matcher(entrada); // [cite: 132]
-
-        while (m.find()) { // [cite: 135]
-            for (TipoToken tt : tipos) { // [cite: 136]
-                if (m.group(TipoToken.ESPACIO) != null) { // [cite: 137]
-                    continue; // [cite: 137]
-                } else if (m.group(tt.getNombre()) != null) { // [cite: 138]
-                    if (tt.getNombre().equals(TipoToken.ERROR)) { // [cite: 139]
-                        LexicalException ex = new LexicalException(m.group(tt.getNombre())); // [cite: 139]
-                        throw ex; // [cite: 139]
-                    } // [cite: 140]
-                    
-                    String nombre = m.group(tt.getNombre()); // [cite: 141]
-                    if (tt.getNombre().equals(TipoToken.CADENA)) { // [cite: 142]
-                        nombre = nombre.substring(1, nombre.length() - 1); // [cite: 144]
-                    } // [cite: 143]
-                    
-                    tokens.add(new Token(tt, nombre)); // [cite: 145]
-                    break; // [cite: 146]
-                } // [cite: 147]
-            } // [cite: 148]
-        } // [cite: 149]
     } // [cite: 133]
+
+    // Índices de cada tipo en la lista 'tipos' (mismo orden que el constructor)
+    private static final int NUMERO = 0, CADENA = 1, OPARITMETICO = 2, OPRELACIONAL = 3, IGUAL = 4,
+            COMA = 5, PARENTESISIZQ = 6, PARENTESISDER = 7, INICIOPROGRAMA = 8, FINPROGRAMA = 9,
+            LEER = 10, ESCRIBIR = 11, SI = 12, ENTONCES = 13, FINSI = 14, MIENTRAS = 15,
+            FINMIENTRAS = 16, VARIABLE = 17;
+
+    private void agregar(int tipo, String nombre) {
+        tokens.add(new Token(tipos.get(tipo), nombre)); // [cite: 145]
+    }
+
+    // Devuelve el índice de la palabra reservada que empieza en i, o -1
+    private int palabraReservada(String entrada, int i, char c) {
+        switch (c) {
+            case 'i':
+                return coincide(entrada, i, INICIOPROGRAMA);
+            case 'f':
+                int r = coincide(entrada, i, FINPROGRAMA);
+                if (r < 0) r = coincide(entrada, i, FINSI);
+                if (r < 0) r = coincide(entrada, i, FINMIENTRAS);
+                return r;
+            case 'l':
+                return coincide(entrada, i, LEER);
+            case 'e':
+                r = coincide(entrada, i, ESCRIBIR);
+                return r >= 0 ? r : coincide(entrada, i, ENTONCES);
+            case 's':
+                return coincide(entrada, i, SI);
+            case 'm':
+                return coincide(entrada, i, MIENTRAS);
+            default:
+                return -1;
+        }
+    }
+
+    private int coincide(String entrada, int i, int tipo) {
+        String palabra = tipos.get(tipo).getPatron();
+        return entrada.startsWith(palabra, i) ? tipo : -1;
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean esInicioVariable(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean esParteVariable(char c) {
+        return esInicioVariable(c) || esDigito(c);
+    }
+
+    private static boolean esEspacio(char c) {
+        return c == ' ' || c == '\t' || c == '\f' || c == '\r' || c == '\n';
+    }
+
+    // Terminadores de línea que el '.' de las expresiones regulares de Java no acepta
+    private static boolean esFinDeLinea(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
 } // [cite: 134]
\ No newline at end of file
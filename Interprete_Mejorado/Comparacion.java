@@ -15,13 +15,13 @@ public class Comparacion extends Tupla {
     public int ejecutar (TablaSimbolos ts) {
         float operando1 = 0, operando2 = 0;
         
-        if (valor1.getTipo().getNombre().equals("NUMERO"))
-            operando1 = Float.parseFloat(valor1.getNombre());
+        if (valor1.getTipo() == TipoToken.NUMERO)
+            operando1 = valor1.getValor();
         else
             operando1 = ((Variable) ts.resolver (valor1.getNombre())).getValor();
         
-        if (valor2.getTipo().getNombre().equals("NUMERO"))
-            operando2 = Float.parseFloat(valor2.getNombre());
+        if (valor2.getTipo() == TipoToken.NUMERO)
+            operando2 = valor2.getValor();
         else
             operando2 = ((Variable) ts.resolver (valor2.getNombre())).getValor();
         
@@ -81,4 +81,12 @@ public class PseudoGenerador {
     public ArrayList<Tupla> getTuplas() {
         return tuplas;
     }
+
+    // --- Retroceso del parser ---
+
+    // Quita las tuplas creadas desde 'indice': una regla que falló no deja tuplas
+    public void descartarDesde(int indice){
+        while (tuplas.size() > indice)
+            tuplas.remove(tuplas.size() - 1);
+    }
 }
\ No newline at end of file
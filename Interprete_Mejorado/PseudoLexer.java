@@ -16,18 +16,18 @@ public class PseudoLexer {
     static {
         PALABRAS_CLAVE = new HashMap<>();
         // Palabras clave del programa
-        PALABRAS_CLAVE.put("inicio-programa", new TipoToken("INICIOPROGRAMA"));
-        PALABRAS_CLAVE.put("fin-programa", new TipoToken("FINPROGRAMA"));
+        PALABRAS_CLAVE.put("inicio-programa", TipoToken.INICIOPROGRAMA);
+        PALABRAS_CLAVE.put("fin-programa", TipoToken.FINPROGRAMA);
 
-        PALABRAS_CLAVE.put("leer", new TipoToken("LEER"));
-        PALABRAS_CLAVE.put("escribir", new TipoToken("ESCRIBIR"));
+        PALABRAS_CLAVE.put("leer", TipoToken.LEER);
+        PALABRAS_CLAVE.put("escribir", TipoToken.ESCRIBIR);
 
-        PALABRAS_CLAVE.put("mientras", new TipoToken("MIENTRAS"));
-        PALABRAS_CLAVE.put("fin-mientras", new TipoToken("FINMIENTRAS"));
+        PALABRAS_CLAVE.put("mientras", TipoToken.MIENTRAS);
+        PALABRAS_CLAVE.put("fin-mientras", TipoToken.FINMIENTRAS);
 
-        PALABRAS_CLAVE.put("si", new TipoToken("SI"));
-        PALABRAS_CLAVE.put("entonces", new TipoToken("ENTONCES"));
-        PALABRAS_CLAVE.put("fin-si", new TipoToken("FINSI"));
+        PALABRAS_CLAVE.put("si", TipoToken.SI);
+        PALABRAS_CLAVE.put("entonces", TipoToken.ENTONCES);
+        PALABRAS_CLAVE.put("fin-si", TipoToken.FINSI);
     }
 
 
@@ -49,55 +49,61 @@ public class PseudoLexer {
     }
 
 
+    // Los lexemas se recortan de la entrada por posiciones, sin StringBuilder por token
+
     private Token leerNumero() {
-        StringBuilder lexema = new StringBuilder();
+        int inicio = pos;
         while (charActual != '\0' && Character.isDigit(charActual)) {
-            lexema.append(charActual);
             avanzar();
         }
 
         if (charActual == '.') {
-            lexema.append(charActual);
             avanzar();
             while (charActual != '\0' && Character.isDigit(charActual)) {
-                lexema.append(charActual);
                 avanzar();
             }
         }
-        return new Token(new TipoToken("NUMERO"), lexema.toString());
+        String lexema = entrada.substring(inicio, pos);
+
+        // Se convierte aquí una sola vez; el intérprete usa Token.getValor()
+        float valor;
+        try {
+            valor = Float.parseFloat(lexema);
+        } catch (NumberFormatException e) {
+            System.err.println("Error Léxico: Número inválido '" + lexema + "' en la posición " + inicio);
+            valor = Float.NaN;
+        }
+        return new Token(TipoToken.NUMERO, lexema, valor);
     }
 
 
     private Token leerCadena() {
-        StringBuilder lexema = new StringBuilder();
-        lexema.append('"');
+        int inicio = pos;
         avanzar();
 
         while (charActual != '\0' && charActual != '"') {
-            lexema.append(charActual);
             avanzar();
         }
 
         if (charActual == '"') {
-            lexema.append('"');
             avanzar();
         } else {
 
             System.err.println("Error Léxico: Cadena no cerrada.");
         }
-        return new Token(new TipoToken("CADENA"), lexema.toString());
+        // El lexema conserva las comillas
+        return new Token(TipoToken.CADENA, entrada.substring(inicio, pos));
     }
 
 
     private Token leerIdentificadorOPalabraClave() {
-        StringBuilder lexema = new StringBuilder();
+        int inicio = pos;
 
         while (charActual != '\0' && (Character.isLetterOrDigit(charActual) || charActual == '-' || charActual == '_')) {
-            lexema.append(charActual);
             avanzar();
         }
 
-        String lexemaStr = lexema.toString();
+        String lexemaStr = entrada.substring(inicio, pos);
 
         // Comprobar si es una palabra clave
         TipoToken tipo = PALABRAS_CLAVE.get(lexemaStr);
@@ -106,7 +112,7 @@ public class PseudoLexer {
         }
 
 
-        return new Token(new TipoToken("VARIABLE"), lexemaStr);
+        return new Token(TipoToken.VARIABLE, lexemaStr);
     }
 
 
@@ -152,34 +158,34 @@ public class PseudoLexer {
             // 5. Símbolos de un solo caracter
             switch (charActual) {
                 case '=':
-                    tokens.add(new Token(new TipoToken("IGUAL"), "="));
+                    tokens.add(new Token(TipoToken.IGUAL, "="));
                     avanzar();
                     break;
                 case '+':
-                    tokens.add(new Token(new TipoToken("OPARITMETICO"), "+"));
+                    tokens.add(new Token(TipoToken.OPARITMETICO, "+"));
                     avanzar();
                     break;
                 case '/':
-                    tokens.add(new Token(new TipoToken("OPARITMETICO"), "/"));
+                    tokens.add(new Token(TipoToken.OPARITMETICO, "/"));
                     avanzar();
                     break;
 
                 case '<':
-                    tokens.add(new Token(new TipoToken("OPRELACIONAL"), "<"));
+                    tokens.add(new Token(TipoToken.OPRELACIONAL, "<"));
                     avanzar();
                     break;
 
 
                 case '(':
-                    tokens.add(new Token(new TipoToken("PARENTESISIZQ"), "("));
+                    tokens.add(new Token(TipoToken.PARENTESISIZQ, "("));
                     avanzar();
                     break;
                 case ')':
-                    tokens.add(new Token(new TipoToken("PARENTESISDER"), ")"));
+                    tokens.add(new Token(TipoToken.PARENTESISDER, ")"));
                     avanzar();
                     break;
                 case ',':
-                    tokens.add(new Token(new TipoToken("COMA"), ","));
+                    tokens.add(new Token(TipoToken.COMA, ","));
                     avanzar();
                     break;
 
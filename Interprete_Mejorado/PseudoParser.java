@@ -10,6 +10,26 @@ public class PseudoParser {
     private TipoIncorporado real;
     private PseudoGenerador generador;
 
+    // --- Memorización de fallos ---
+    // Solo se guarda que una regla falló en una posición (y el error que dejó): es lo único
+    // que se puede volver a intentar al retroceder. Un éxito no se guarda, así reconocer un
+    // programa correcto no crea nada extra.
+    private static final int ASIGNACION = 0, LEER = 1, ESCRIBIR = 2, SI = 3, MIENTRAS = 4, COMPARACION = 5;
+    private static final int REGLAS = 6;
+    private Fallo[][] memo;
+
+    private interface Regla {
+        boolean aplicar();
+    }
+
+    private static class Fallo {
+        final SyntaxException ex;       // Último error visto (el que se lanza si todo falla)
+
+        Fallo(SyntaxException ex) {
+            this.ex = ex;
+        }
+    }
+
 
 
     public PseudoParser(TablaSimbolos ts, PseudoGenerador generador) {
@@ -20,6 +40,7 @@ public class PseudoParser {
 
     public void analizar(PseudoLexer lexer) throws SyntaxException{
         tokens = lexer.getTokens();
+        memo = new Fallo[REGLAS][];
 
         real = new TipoIncorporado("real");
         ts.definir(real);
@@ -44,7 +65,38 @@ public class PseudoParser {
         return false;
     }
 
+    /**
+     * Aplica la regla en la posición actual, salvo que ya haya fallado ahí. Si falla se
+     * descartan las tuplas que alcanzó a generar y se anota el fallo; un fallo no deja
+     * tuplas, así que repetirlo solo restaura el error.
+     */
+    private boolean memorizar(int regla, Regla cuerpo) {
+        int inicio = indiceToken;
+        Fallo[] fallos = memo[regla];
+        if (fallos != null && fallos[inicio] != null) {
+            ex = fallos[inicio].ex;
+            return false;
+        }
+
+        int tuplaInicial = generador.getTuplas().size();
+        if (cuerpo.aplicar()) {
+            return true;
+        }
+        generador.descartarDesde(tuplaInicial);
+        indiceToken = inicio;
+        if (fallos == null) {
+            // La fila de cada regla se crea con su primer fallo
+            fallos = memo[regla] = new Fallo[tokens.size() + 1];
+        }
+        fallos[inicio] = new Fallo(ex);
+        return false;
+    }
+
     private boolean Asignacion(){
+        return memorizar(ASIGNACION, this::reglaAsignacion);
+    }
+
+    private boolean reglaAsignacion(){
         int indiceAux = indiceToken;
 
         if(match("VARIABLE"))
@@ -58,6 +110,10 @@ public class PseudoParser {
     }
 
     private boolean Leer(){
+        return memorizar(LEER, this::reglaLeer);
+    }
+
+    private boolean reglaLeer(){
         int indiceAux = indiceToken;
 
         if(match("LEER"))
@@ -71,39 +127,43 @@ public class PseudoParser {
     }
 
     private boolean Escribir(){
+        return memorizar(ESCRIBIR, this::reglaEscribir);
+    }
+
+    // ESCRIBIR CADENA [COMA VARIABLE] | ESCRIBIR VARIABLE, factorizado: ESCRIBIR se reconoce una sola vez
+    private boolean reglaEscribir(){
         int indiceAux = indiceToken;
 
 
-        if(match("ESCRIBIR"))
-            if(match("CADENA"))
+        if(match("ESCRIBIR")) {
+            if(match("CADENA")) {
+                int indiceCadena = indiceToken;
                 if(match("COMA"))
                     if(match("VARIABLE")){
                         generador.crearTuplaEscribir(indiceAux+1, indiceToken);
                         return true;
                     }
 
-        indiceToken = indiceAux;
-
-
-        if(match("ESCRIBIR"))
-            if(match("CADENA")){
+                indiceToken = indiceCadena;
                 generador.crearTuplaEscribir(indiceAux+1, indiceToken);
                 return true;
             }
-        indiceToken = indiceAux;
 
-
-        if(match("ESCRIBIR"))
             if(match("VARIABLE")){
                 generador.crearTuplaEscribir(indiceAux+1, indiceToken);
                 return true;
             }
+        }
 
         indiceToken = indiceAux;
         return false;
     }
 
     private boolean Si(){
+        return memorizar(SI, this::reglaSi);
+    }
+
+    private boolean reglaSi(){
         int indiceAux = indiceToken;
         int indiceTupla = generador.getTuplas().size();
 
@@ -121,6 +181,10 @@ public class PseudoParser {
     }
 
     private boolean Mientras(){
+        return memorizar(MIENTRAS, this::reglaMientras);
+    }
+
+    private boolean reglaMientras(){
         int indiceAux = indiceToken;
         int indiceTupla = generador.getTuplas().size();
 
@@ -136,6 +200,10 @@ public class PseudoParser {
     }
 
     private boolean Comparacion(){
+        return memorizar(COMPARACION, this::reglaComparacion);
+    }
+
+    private boolean reglaComparacion(){
         int indiceAux = indiceToken;
 
 
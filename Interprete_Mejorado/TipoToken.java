@@ -1,5 +1,26 @@
 
 public class TipoToken {
+
+    // Instancias canónicas que comparte el lexer: un objeto por tipo, no uno por token
+    public static final TipoToken NUMERO = new TipoToken("NUMERO");
+    public static final TipoToken CADENA = new TipoToken("CADENA");
+    public static final TipoToken VARIABLE = new TipoToken("VARIABLE");
+    public static final TipoToken IGUAL = new TipoToken("IGUAL");
+    public static final TipoToken OPARITMETICO = new TipoToken("OPARITMETICO");
+    public static final TipoToken OPRELACIONAL = new TipoToken("OPRELACIONAL");
+    public static final TipoToken PARENTESISIZQ = new TipoToken("PARENTESISIZQ");
+    public static final TipoToken PARENTESISDER = new TipoToken("PARENTESISDER");
+    public static final TipoToken COMA = new TipoToken("COMA");
+    public static final TipoToken INICIOPROGRAMA = new TipoToken("INICIOPROGRAMA");
+    public static final TipoToken FINPROGRAMA = new TipoToken("FINPROGRAMA");
+    public static final TipoToken LEER = new TipoToken("LEER");
+    public static final TipoToken ESCRIBIR = new TipoToken("ESCRIBIR");
+    public static final TipoToken MIENTRAS = new TipoToken("MIENTRAS");
+    public static final TipoToken FINMIENTRAS = new TipoToken("FINMIENTRAS");
+    public static final TipoToken SI = new TipoToken("SI");
+    public static final TipoToken ENTONCES = new TipoToken("ENTONCES");
+    public static final TipoToken FINSI = new TipoToken("FINSI");
+
     private String nombre;
 
     public TipoToken(String nombre) {
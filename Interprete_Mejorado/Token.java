@@ -3,6 +3,7 @@ public class Token {
 
     private TipoToken tipo;
     private String lexema;
+    private float valor; // Valor ya convertido de un NUMERO (0 para otros tipos)
 
 
     public Token(TipoToken tipo, String lexema) {
@@ -10,6 +11,13 @@ public class Token {
         this.lexema = lexema;
     }
 
+    // Para NUMERO: el lexer convierte el lexema una sola vez
+    public Token(TipoToken tipo, String lexema, float valor) {
+        this.tipo = tipo;
+        this.lexema = lexema;
+        this.valor = valor;
+    }
+
 
     public TipoToken getTipo() {
         return tipo;
@@ -25,6 +33,11 @@ public class Token {
     }
 
 
+    public float getValor() {
+        return valor;
+    }
+
+
     @Override
     public String toString() {
         return "<" + this.tipo.getNombre() + ", " + this.lexema + ">";
@@ -149,7 +149,14 @@ document.addEventListener("DOMContentLoaded", () => {
                     console.error('❌ Error de compilación:', result.error);
                     if (errorOutputEl) {
                         // Muestra el mensaje de error que viene del backend
-                        const errorMsg = result.error || result.message || 'Error desconocido';
+                        // Si el backend devolvió varios diagnósticos, se muestran todos
+                        let errorMsg = (result.diagnostics && result.diagnostics.length > 0)
+                            ? result.diagnostics.map(d => d.message).join('\n')
+                            : (result.error || result.message || 'Error desconocido');
+                        // Pasado el límite, el backend solo cuenta los errores restantes
+                        if (result.droppedCount > 0) {
+                            errorMsg += `\n... y ${result.droppedCount} errores más omitidos.`;
+                        }
                         errorOutputEl.innerText = `❌ ERROR DE COMPILACIÓN:\n${errorMsg}`;
                         errorOutputEl.style.color = 'red';
                     }
@@ -0,0 +1,173 @@
+package compilador;
+
+import compilador.lexer.TokenSpans;
+import compilador.parser.ASTSerializer;
+import compilador.parser.declarations.Program;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caché en disco de ASTs ya reconocidos, direccionado por contenido: el archivo de cada
+ * programa se llama como el SHA-256 de su código fuente. Si el mismo código vuelve a
+ * llegar, CompilerService lee el AST (ASTSerializer) en lugar de pasar por Lexer y Parser.
+ * Solo se guardan programas sin errores léxicos ni sintácticos.
+ *
+ * Los archivos se escriben en un temporal y se renombran, así varios procesos pueden
+ * compartir el directorio. Un archivo ilegible o de otra versión se ignora.
+ *
+ * El editor compila en cada cambio, así que el directorio tiene un máximo de entradas: al
+ * pasarlo se borran las usadas hace más tiempo (LRU por fecha de modificación, que load
+ * actualiza en cada acierto) hasta quedar en 3/4 del máximo.
+ */
+public final class ASTCache {
+
+    private static final String EXTENSION = ".ast";
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final Path directory;
+    private final int maxEntries;
+
+    // Entradas estimadas en el directorio (-1: aún no se contaron). Solo se vuelve a listar
+    // el directorio al pasar el máximo; otros procesos que lo compartan lo hacen aproximado
+    private final AtomicInteger entries = new AtomicInteger(-1);
+
+    public ASTCache(Path directory) {
+        this(directory, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ASTCache(Path directory, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("El caché necesita al menos una entrada: " + maxEntries);
+        }
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * AST guardado para la clave (ver key), o null si no hay (o no se pudo leer).
+     */
+    public ASTSerializer.Decoded load(String key) {
+        Path file = directory.resolve(key + EXTENSION);
+        try {
+            ASTSerializer.Decoded decoded = ASTSerializer.deserialize(Files.readAllBytes(file));
+            touch(file);
+            return decoded;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // Incluye IllegalArgumentException de un archivo dañado o de otra versión
+            System.err.println("Advertencia de caché: se ignora " + file + ". Detalle: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void store(String key, Program ast, TokenSpans spans) {
+        Path file = directory.resolve(key + EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            boolean added = !Files.exists(file);
+            Path temp = Files.createTempFile(directory, "ast", ".tmp");
+            try {
+                Files.write(temp, ASTSerializer.serialize(ast, spans));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            if (added && countEntries() > maxEntries) {
+                evict();
+            }
+        } catch (IOException e) {
+            // El caché es solo una optimización: sin él la compilación sigue igual
+            System.err.println("Advertencia de caché: no se pudo guardar el AST en '" + directory + "'. Detalle: " + e.getMessage());
+        }
+    }
+
+    // Cuenta la entrada recién agregada (la primera vez lista el directorio)
+    private int countEntries() throws IOException {
+        if (entries.get() < 0) {
+            entries.compareAndSet(-1, list().size());
+            return entries.get();
+        }
+        return entries.incrementAndGet();
+    }
+
+    // Borra las entradas usadas hace más tiempo hasta dejar 3/4 del máximo
+    private synchronized void evict() throws IOException {
+        List<Path> files = list();
+        int keep = Math.max(1, maxEntries * 3 / 4);
+        if (files.size() > keep) {
+            List<FileTime> times = new ArrayList<>(files.size());
+            for (Path file : files) {
+                times.add(lastUsed(file));
+            }
+            List<Integer> order = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparing(times::get));
+            for (int i = 0; i < files.size() - keep; i++) {
+                Files.deleteIfExists(files.get(order.get(i)));
+            }
+        }
+        entries.set(Math.min(files.size(), keep));
+    }
+
+    private List<Path> list() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    // Otro proceso pudo borrarla entre el listado y la consulta: cuenta como la más vieja
+    private static FileTime lastUsed(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // Un acierto cuenta como uso reciente para el LRU
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Solo afecta el orden de desalojo
+        }
+    }
+
+    /**
+     * Clave del código fuente: su SHA-256 en hexadecimal. Se calcula una vez por compilación
+     * y sirve para load y store.
+     */
+    public static String key(CharSequence source) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
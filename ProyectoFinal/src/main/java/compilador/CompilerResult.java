@@ -1,11 +1,19 @@
 package compilador;
 
+import compilador.diagnostico.Diagnostic;
+import compilador.diagnostico.DiagnosticCollector;
+
+import java.util.Collections;
+import java.util.List;
+
 //Almacena resultados
 public class CompilerResult {
     private final boolean success;      
     private final String asmCode;
     private final String dotCode;
     private final String error;
+    private final List<Diagnostic> diagnostics; // Errores con posición (léxicos, etc.)
+    private final int droppedCount;             // Errores que no entraron en diagnostics por el límite
 
     // Constructor para éxito
     public CompilerResult(String asmCode, String dotCode) {
@@ -13,14 +21,32 @@ public class CompilerResult {
         this.asmCode = asmCode;
         this.dotCode = dotCode;
         this.error = null;
+        this.diagnostics = Collections.emptyList();
+        this.droppedCount = 0;
     }
 
     // Constructor para error
     public CompilerResult(String error) {
+        this(error, Collections.emptyList());
+    }
+
+    // Constructor para error con la lista de diagnósticos
+    public CompilerResult(String error, List<Diagnostic> diagnostics) {
+        this(error, diagnostics, 0);
+    }
+
+    // Constructor para error a partir de un colector: el primer diagnóstico es el error principal
+    public CompilerResult(DiagnosticCollector diagnostics) {
+        this(diagnostics.getDiagnostics().get(0).getMessage(), diagnostics.getDiagnostics(), diagnostics.getDroppedCount());
+    }
+
+    private CompilerResult(String error, List<Diagnostic> diagnostics, int droppedCount) {
         this.success = false;           
         this.asmCode = "";
         this.dotCode = "";
         this.error = error;
+        this.diagnostics = diagnostics;
+        this.droppedCount = droppedCount;
     }
 
     // Getters
@@ -39,4 +65,14 @@ public class CompilerResult {
     public String getError() {
         return error;
     }
+
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    // Errores que se contaron pero no se incluyen en getDiagnostics() (0 si entraron todos).
+    // Los sintácticos no se cuentan: el Parser abandona al llegar al límite
+    public int getDroppedCount() {
+        return droppedCount;
+    }
 }
\ No newline at end of file
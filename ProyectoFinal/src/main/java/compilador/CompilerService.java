@@ -1,6 +1,12 @@
 package compilador;
 
+import compilador.diagnostico.DiagnosticCollector;
+import compilador.lexer.AsyncTokenCursor;
 import compilador.lexer.Lexer;
+import compilador.lexer.PackedTokenStream;
+import compilador.lexer.ParallelLexer;
+import compilador.lexer.TokenSpans;
+import compilador.parser.ASTSerializer;
 import compilador.parser.Parser;
 import compilador.parser.declarations.Program;
 import compilador.semantico.SemanticAnalyzer;
@@ -9,33 +15,187 @@ import compilador.intermedio.Cuadrupla;
 import compilador.generacion.CodeGenerator;
 import compilador.generacion.DiagramGenerator;
 import java.util.List;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.ForkJoinPool;
 
 
 public class CompilerService {
 
-    
+    // Modo paralelo: sintáctico, semántico e intermedio por funciones (ver ParallelPipeline)
+    private final boolean parallel;
+
+    // ASTs ya reconocidos, por contenido del código (null: sin caché)
+    private final ASTCache cache;
+
+    // Carpeta donde se escriben program.asm y program_flow.dot
+    private final File outputDirectory;
 
     public CompilerService() {
-        
+        this(false);
+    }
+
+    public CompilerService(boolean parallel) {
+        this(parallel, null);
+    }
+
+    public CompilerService(boolean parallel, ASTCache cache) {
+        this(parallel, cache, new File("output"));
+    }
+
+    public CompilerService(boolean parallel, ASTCache cache, File outputDirectory) {
+        this.parallel = parallel;
+        this.cache = cache;
+        this.outputDirectory = outputDirectory;
     }
 
     
     public CompilerResult compile(String sourceCode) { 
         try {
+            // Mismo código que una compilación anterior: el AST sale del caché, sin Lexer ni Parser
+            String cacheKey = cache != null ? ASTCache.key(sourceCode) : null;
+            if (cacheKey != null) {
+                ASTSerializer.Decoded cached = cache.load(cacheKey);
+                if (cached != null) {
+                    return compileProgram(cached.program, cached.spans);
+                }
+            }
+
             // FASES 1, 2, 3 (Análisis)
-            Lexer lexer = new Lexer(sourceCode);
-            Parser parser = new Parser(lexer);
-            Program ast = parser.parseProgram();
-            SemanticAnalyzer semAnalyzer = new SemanticAnalyzer();
-            semAnalyzer.analyze(ast);
+            // El Lexer empaqueta los tokens en un int[]; el Parser solo materializa los lexemas que usa
+            // Los errores léxicos se acumulan (con límite) en lugar de imprimirse uno por uno
+            DiagnosticCollector diagnostics = new DiagnosticCollector();
+            // Los programas grandes se escanean por bloques en paralelo (mismo resultado)
+            PackedTokenStream tokens = ParallelLexer.tokenize(sourceCode, diagnostics);
+            if (diagnostics.hasErrors()) {
+                return new CompilerResult(diagnostics);
+            }
+            return compileTokens(tokens, diagnostics, cacheKey);
+
+        } catch (RuntimeException e) {
+            return new CompilerResult(e.getMessage());
+        } catch (StackOverflowError e) {
+            return tooDeep();
+        } catch (Exception e) {
+            return new CompilerResult("Error inesperado del servidor: " + e.getMessage());
+        }
+    }
+
+    // FASES 2 a 6 sobre un flujo de tokens sin errores léxicos
+    CompilerResult compileTokens(PackedTokenStream tokens, DiagnosticCollector diagnostics) {
+        return compileTokens(tokens, diagnostics, null);
+    }
+
+    // cacheKey: clave del código en el caché (null: no guardar el AST)
+    private CompilerResult compileTokens(PackedTokenStream tokens, DiagnosticCollector diagnostics, String cacheKey) {
+        if (parallel) {
+            Program ast = ParallelPipeline.parse(tokens, ForkJoinPool.commonPool());
+            if (ast != null) {
+                cacheAST(cacheKey, ast, tokens);
+                return compileProgram(ast, tokens);
+            }
+            // Con errores sintácticos se usa el Parser secuencial para reportarlos
+        }
+        // El Parser se recupera de los errores sintácticos para reportarlos todos de una vez
+        Parser parser = new Parser(tokens).setDiagnostics(diagnostics);
+        Program ast = parser.parseProgram();
+        if (diagnostics.hasErrors()) {
+            return new CompilerResult(diagnostics);
+        }
+        cacheAST(cacheKey, ast, parser.getSpans());
+        return compileProgram(ast, parser.getSpans());
+    }
+
+    private void cacheAST(String cacheKey, Program ast, TokenSpans spans) {
+        if (cacheKey != null) {
+            cache.store(cacheKey, ast, spans);
+        }
+    }
+
+    /**
+     * Compila leyendo el código por bloques (p. ej. el cuerpo de la petición HTTP).
+     * Un hilo lee y escanea mientras el Parser construye el AST, sin tener todo el texto en memoria.
+     */
+    public CompilerResult compile(Reader source) {
+        DiagnosticCollector diagnostics = new DiagnosticCollector();
+        // Aparte: si hay errores léxicos se reportan solo esos, como en compile(String)
+        DiagnosticCollector syntaxErrors = new DiagnosticCollector();
+        try {
+            Program ast;
+            TokenSpans spans;
+            try (AsyncTokenCursor tokens = new AsyncTokenCursor(new Lexer(source).setDiagnostics(diagnostics))) {
+                ast = new Parser(tokens).setDiagnostics(syntaxErrors).parseProgram();
+                spans = tokens.getSpans();
+            }
+            if (diagnostics.hasErrors()) {
+                return new CompilerResult(diagnostics);
+            }
+            if (syntaxErrors.hasErrors()) {
+                return new CompilerResult(syntaxErrors);
+            }
+            return compileProgram(ast, spans);
 
-            // FASE 4 (Intermedio)
-            InterCodeGenerator icg = new InterCodeGenerator();
-            icg.generate(ast);
-            List<Cuadrupla> cuadruples = icg.getCode();
+        } catch (RuntimeException e) {
+            // Un token de error hace fallar al Parser; se reporta el error léxico que lo causó
+            if (diagnostics.hasErrors()) {
+                return new CompilerResult(diagnostics);
+            }
+            return new CompilerResult(e.getMessage());
+        } catch (StackOverflowError e) {
+            return tooDeep();
+        } catch (Exception e) {
+            return new CompilerResult("Error inesperado del servidor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bloques, if y while anidados no usan la pila del hilo, pero las expresiones y algunos
+     * recorridos siguen siendo recursivos: una entrada patológica (miles de paréntesis) se
+     * reporta como error de compilación en lugar de tumbar el hilo del servidor.
+     */
+    static CompilerResult tooDeep() {
+        return new CompilerResult("Error: el programa tiene demasiados niveles de anidamiento para compilarse.");
+    }
 
+    // FASES 3 a 6: semántico, intermedio y generación, comunes a ambos modos de lectura
+    private CompilerResult compileProgram(Program ast, TokenSpans spans) {
+        try {
+            // Todos los errores semánticos (con límite) en una sola respuesta
+            DiagnosticCollector semanticErrors = new DiagnosticCollector();
+            if (parallel) {
+                ParallelPipeline.analyze(ast, spans, semanticErrors, ForkJoinPool.commonPool());
+            } else {
+                new SemanticAnalyzer(spans).setDiagnostics(semanticErrors).analyze(ast);
+            }
+            if (semanticErrors.hasErrors()) {
+                return new CompilerResult(semanticErrors);
+            }
+
+            List<Cuadrupla> cuadruples;
+            if (parallel) {
+                cuadruples = ParallelPipeline.generate(ast, ForkJoinPool.commonPool());
+            } else {
+                // FASE 4 (Intermedio)
+                InterCodeGenerator icg = new InterCodeGenerator();
+                icg.generate(ast);
+                cuadruples = icg.getCode();
+            }
+            return generateOutput(ast, cuadruples);
+
+        } catch (RuntimeException e) {
+            return new CompilerResult(e.getMessage());
+        } catch (StackOverflowError e) {
+            return tooDeep();
+        } catch (Exception e) {
+            return new CompilerResult("Error inesperado del servidor: " + e.getMessage());
+        }
+    }
+
+    // FASES 5 y 6: ensamblador y diagrama a partir del AST ya revisado y sus cuádruplas
+    CompilerResult generateOutput(Program ast, List<Cuadrupla> cuadruples) {
+        try {
             // FASE 5 & 6 (Generación)
             CodeGenerator asmGenerator = new CodeGenerator(cuadruples);
             List<String> assemblyList = asmGenerator.generate();
@@ -49,17 +209,17 @@ public class CompilerService {
             // ======================================================
             try {
                 // Escribe el archivo Assembly (program.asm)
-                try (FileWriter asmWriter = new FileWriter("output/program.asm")) {
+                try (FileWriter asmWriter = new FileWriter(new File(outputDirectory, "program.asm"))) {
                     asmWriter.write(asmResult);
                 }
 
                 // Escribe el archivo DOT (program_flow.dot)
-                try (FileWriter dotWriter = new FileWriter("output/program_flow.dot")) {
+                try (FileWriter dotWriter = new FileWriter(new File(outputDirectory, "program_flow.dot"))) {
                     dotWriter.write(dotResult);
                 }
             } catch (IOException e) {
                 
-                System.err.println("Advertencia de I/O: No se pudieron guardar los archivos de salida en 'output/'. Verifique los permisos o la existencia de la carpeta. Detalle: " + e.getMessage());
+                System.err.println("Advertencia de I/O: No se pudieron guardar los archivos de salida en '" + outputDirectory + "/'. Verifique los permisos o la existencia de la carpeta. Detalle: " + e.getMessage());
             }
             // ======================================================
 
@@ -69,6 +229,8 @@ public class CompilerService {
 
         } catch (RuntimeException e) {
             return new CompilerResult(e.getMessage());
+        } catch (StackOverflowError e) {
+            return tooDeep();
         } catch (Exception e) {
             return new CompilerResult("Error inesperado del servidor: " + e.getMessage());
         }
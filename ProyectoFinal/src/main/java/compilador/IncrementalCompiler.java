@@ -0,0 +1,356 @@
+package compilador;
+
+import compilador.diagnostico.DiagnosticCollector;
+import compilador.intermedio.Cuadrupla;
+import compilador.intermedio.InterCodeGenerator;
+import compilador.intermedio.Operando;
+import compilador.lexer.PackedTokenStream;
+import compilador.lexer.ParallelLexer;
+import compilador.parser.ASTListener;
+import compilador.parser.ASTNode;
+import compilador.parser.ASTWalker;
+import compilador.parser.Parser;
+import compilador.parser.declarations.*;
+import compilador.parser.expressions.*;
+import compilador.parser.statements.*;
+import compilador.semantico.FunctionType;
+import compilador.semantico.SemanticAnalyzer;
+import compilador.semantico.TablaSimbolos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compilación incremental para el ciclo editar-compilar del editor web.
+ * Guarda por cada función (clave: su texto, que el HashMap indexa por hash) el
+ * FunctionDeclaration, si pasó el análisis semántico y sus cuádruplas. En la siguiente
+ * compilación solo las funciones cuyo texto cambió pasan por Parser, SemanticAnalyzer e
+ * InterCodeGenerator; el resultado es el mismo que el de CompilerService.
+ *
+ * Una función sin cambios se vuelve a revisar si cambió la firma de alguna función que llama
+ * (o si apareció o desapareció). Una instancia por sesión de edición (no es thread-safe).
+ */
+public class IncrementalCompiler {
+
+    // Lo que se conserva de una función entre compilaciones
+    private static final class Entry {
+        final FunctionDeclaration function;
+        int firstLine;                  // Línea y token donde empezaba la última vez
+        int firstToken;
+        final Map<String, FunctionType> callees = new HashMap<>(); // función llamada -> firma vista
+        boolean renumberable = true;    // Ningún identificador se parece a un temporal o etiqueta
+        final int temps;                // Temporales y etiquetas que usa su código
+        final int labels;
+
+        boolean analyzed = false;       // Pasó el análisis semántico con las firmas de 'callees'
+        List<Cuadrupla> code;           // Cuádruplas generadas empezando en firstTemp/firstLabel
+        int firstTemp;
+        int firstLabel;
+
+        int generation = -1;            // Última compilación que la usó
+
+        Entry(FunctionDeclaration function, int firstLine, int firstToken) {
+            this.function = function;
+            this.firstLine = firstLine;
+            this.firstToken = firstToken;
+            int[] names = InterCodeGenerator.countNames(function);
+            this.temps = names[0];
+            this.labels = names[1];
+        }
+    }
+
+    // Compilación completa de respaldo y escritura de la salida
+    private final CompilerService service;
+    private Map<String, Entry> cache = new HashMap<>();
+    private int generation = 0;
+
+    // Funciones reutilizadas y re-compiladas en la última llamada (para diagnóstico)
+    private int reused;
+    private int recompiled;
+
+    public IncrementalCompiler() {
+        this(new CompilerService());
+    }
+
+    public IncrementalCompiler(CompilerService service) {
+        this.service = service;
+    }
+
+    public CompilerResult compile(String sourceCode) {
+        try {
+            DiagnosticCollector diagnostics = new DiagnosticCollector();
+            PackedTokenStream tokens = ParallelLexer.tokenize(sourceCode, diagnostics);
+            if (diagnostics.hasErrors()) {
+                return new CompilerResult(diagnostics);
+            }
+
+            generation++;
+            reused = 0;
+            recompiled = 0;
+
+            // --- Fase 2: reutilizar o reconocer cada función ---
+            int[] ends = ParallelPipeline.functionEnds(tokens);
+            if (ends == null || ends.length == 0) {
+                // No se puede separar en funciones: compilación completa (con sus mensajes de error)
+                return service.compileTokens(tokens, diagnostics);
+            }
+            Map<String, Entry> next = new HashMap<>();
+            List<Entry> entries = new ArrayList<>(ends.length);
+            int from = 0;
+            for (int end : ends) {
+                Entry entry = entryFor(tokens, from, end, next);
+                if (entry == null) {
+                    return service.compileTokens(tokens, diagnostics);
+                }
+                entries.add(entry);
+                from = end;
+            }
+            cache = next;
+
+            Program ast = new Program(tokens.getLine(0));
+            ast.setTokenIndex(0);
+            for (Entry entry : entries) {
+                ast.addFunction(entry.function);
+            }
+
+            // --- Fase 3: revisar solo lo que cambió o depende de firmas que cambiaron ---
+            Map<String, FunctionDeclaration> signatures = TablaSimbolos.declareFunctions(ast.functions);
+            // Una función con errores no queda marcada y se revisa de nuevo en la siguiente
+            // compilación, así la lista de errores es la misma que la del análisis completo
+            DiagnosticCollector semanticErrors = new DiagnosticCollector();
+            SemanticAnalyzer analyzer = new SemanticAnalyzer(tokens, signatures).setDiagnostics(semanticErrors);
+            for (Entry entry : entries) {
+                if (entry.analyzed && calleesUnchanged(entry, signatures)) {
+                    continue;
+                }
+                int errorsBefore = semanticErrors.getErrorCount();
+                analyzer.analyzeFunction(entry.function);
+                entry.analyzed = semanticErrors.getErrorCount() == errorsBefore;
+                for (Map.Entry<String, FunctionType> callee : entry.callees.entrySet()) {
+                    callee.setValue(signature(signatures.get(callee.getKey())));
+                }
+            }
+            if (semanticErrors.hasErrors()) {
+                return new CompilerResult(semanticErrors);
+            }
+
+            // --- Fase 4: reutilizar las cuádruplas, renumerando temporales y etiquetas si hace falta ---
+            List<Cuadrupla> code = new ArrayList<>();
+            int firstTemp = 0, firstLabel = 0;
+            for (Entry entry : entries) {
+                code.addAll(codeFor(entry, firstTemp, firstLabel));
+                firstTemp += entry.temps;
+                firstLabel += entry.labels;
+            }
+
+            return service.generateOutput(ast, code);
+
+        } catch (RuntimeException e) {
+            return new CompilerResult(e.getMessage());
+        } catch (StackOverflowError e) {
+            return CompilerService.tooDeep();
+        } catch (Exception e) {
+            return new CompilerResult("Error inesperado del servidor: " + e.getMessage());
+        }
+    }
+
+    public int getReusedCount() {
+        return reused;
+    }
+
+    public int getRecompiledCount() {
+        return recompiled;
+    }
+
+    /**
+     * Entrada de la función en los tokens [from, to): la de la compilación anterior si el
+     * texto es el mismo (reubicada en líneas y tokens) o una nueva reconocida por el Parser.
+     * null si el tramo no es exactamente una función válida.
+     */
+    private Entry entryFor(PackedTokenStream tokens, int from, int to, Map<String, Entry> next) {
+        int start = tokens.getStart(from);
+        String text = tokens.getSource().subSequence(start, tokens.getStart(to - 1) + tokens.getLength(to - 1)).toString();
+        int line = tokens.getLine(from);
+
+        Entry entry = cache.get(text);
+        if (entry != null && entry.generation != generation) {
+            if (entry.firstLine != line || entry.firstToken != from) {
+                ASTWalker.walk(entry.function, new NodeWalker(line - entry.firstLine, from - entry.firstToken));
+                entry.firstLine = line;
+                entry.firstToken = from;
+            }
+            reused++;
+        } else {
+            // Nueva, editada o repetida (dos funciones iguales no comparten nodos)
+            List<FunctionDeclaration> parsed;
+            try {
+                parsed = new Parser(tokens.cursor(from, to)).parseProgram().functions;
+            } catch (RuntimeException e) {
+                return null;
+            }
+            if (parsed.size() != 1) {
+                return null;
+            }
+            entry = new Entry(parsed.get(0), line, from);
+            NodeWalker walker = new NodeWalker(0, 0);
+            ASTWalker.walk(entry.function, walker);
+            for (String callee : walker.callees) {
+                entry.callees.put(callee, null);
+            }
+            entry.renumberable = walker.renumberable;
+            recompiled++;
+        }
+        entry.generation = generation;
+        next.putIfAbsent(text, entry);
+        return entry;
+    }
+
+    private static boolean calleesUnchanged(Entry entry, Map<String, FunctionDeclaration> signatures) {
+        for (Map.Entry<String, FunctionType> callee : entry.callees.entrySet()) {
+            // Las firmas están internadas: misma firma si y solo si es el mismo objeto
+            if (callee.getValue() != signature(signatures.get(callee.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lo que el análisis semántico usa de una función llamada; null si no está declarada
+    private static FunctionType signature(FunctionDeclaration func) {
+        return func != null ? func.getType() : null;
+    }
+
+    private static List<Cuadrupla> codeFor(Entry entry, int firstTemp, int firstLabel) {
+        if (entry.code != null && entry.firstTemp == firstTemp && entry.firstLabel == firstLabel) {
+            return entry.code;
+        }
+        if (entry.code != null && entry.renumberable) {
+            entry.code = renumber(entry.code, firstTemp - entry.firstTemp, firstLabel - entry.firstLabel);
+        } else {
+            InterCodeGenerator generator = new InterCodeGenerator(firstTemp, firstLabel);
+            generator.generateFunction(entry.function);
+            entry.code = generator.getCode();
+        }
+        entry.firstTemp = firstTemp;
+        entry.firstLabel = firstLabel;
+        return entry.code;
+    }
+
+    // Desplaza los números de los temporales (tN) y etiquetas (LN) de un bloque de cuádruplas
+    private static List<Cuadrupla> renumber(List<Cuadrupla> code, int tempDelta, int labelDelta) {
+        List<Cuadrupla> result = new ArrayList<>(code.size());
+        for (Cuadrupla c : code) {
+            result.add(new Cuadrupla(c.operator,
+                    renumber(c.operand1, tempDelta, labelDelta),
+                    renumber(c.operand2, tempDelta, labelDelta),
+                    renumber(c.result, tempDelta, labelDelta),
+                    renumber(c.info1, tempDelta), renumber(c.info2, tempDelta), renumber(c.resultInfo, tempDelta)));
+        }
+        return result;
+    }
+
+    private static Operando renumber(Operando info, int tempDelta) {
+        if (info == null || info.kind != Operando.Kind.TEMPORARY || tempDelta == 0) {
+            return info;
+        }
+        return Operando.temporary(info.type, info.number + tempDelta);
+    }
+
+    private static String renumber(String name, int tempDelta, int labelDelta) {
+        if (!isGeneratedName(name)) {
+            return name;
+        }
+        int number = Integer.parseInt(name.substring(1));
+        return name.charAt(0) == 't' ? "t" + (number + tempDelta) : "L" + (number + labelDelta);
+    }
+
+    // "t" o "L" seguido solo de dígitos: el formato de InterCodeGenerator.newTemp()/newLabel()
+    private static boolean isGeneratedName(String name) {
+        if (name == null || name.length() < 2 || (name.charAt(0) != 't' && name.charAt(0) != 'L')) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (name.charAt(i) < '0' || name.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recorre una función desplazando línea y token de cada nodo, y anota las funciones que
+     * llama y si algún identificador tiene forma de temporal o etiqueta (entonces sus
+     * cuádruplas no se pueden renumerar por texto). Los Token de los operadores no se tocan:
+     * de ellos solo se usa el lexema.
+     */
+    private static final class NodeWalker implements ASTListener {
+        private final int lineDelta;
+        private final int tokenDelta;
+        final List<String> callees = new ArrayList<>();
+        boolean renumberable = true;
+
+        NodeWalker(int lineDelta, int tokenDelta) {
+            this.lineDelta = lineDelta;
+            this.tokenDelta = tokenDelta;
+        }
+
+        private boolean move(ASTNode node) {
+            node.setLine(node.getLine() + lineDelta);
+            if (node.getTokenIndex() >= 0) {
+                node.setTokenIndex(node.getTokenIndex() + tokenDelta);
+            }
+            return true;
+        }
+
+        private boolean name(ASTNode node, String id) {
+            if (isGeneratedName(id)) {
+                renumberable = false;
+            }
+            return move(node);
+        }
+
+        @Override
+        public boolean enter(FunctionDeclaration node) { return name(node, node.id); }
+
+        @Override
+        public boolean enter(Parameter node) { return name(node, node.id); }
+
+        @Override
+        public boolean enter(BlockStatement node) { return move(node); }
+
+        @Override
+        public boolean enter(DeclarationStatement node) { return name(node, node.id); }
+
+        @Override
+        public boolean enter(AssignmentStatement node) { return name(node, node.id); }
+
+        @Override
+        public boolean enter(IfStatement node) { return move(node); }
+
+        @Override
+        public boolean enter(WhileStatement node) { return move(node); }
+
+        @Override
+        public boolean enter(ReturnStatement node) { return move(node); }
+
+        @Override
+        public boolean enter(BinaryExpression node) { return move(node); }
+
+        @Override
+        public boolean enter(UnaryExpression node) { return move(node); }
+
+        @Override
+        public boolean enter(FunctionCall node) {
+            callees.add(node.id);
+            return name(node, node.id);
+        }
+
+        @Override
+        public boolean enter(VariableAccess node) { return name(node, node.id); }
+
+        @Override
+        public boolean enter(LiteralExpression node) { return move(node); }
+    }
+}
@@ -4,13 +4,17 @@ import static spark.Spark.*;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject; 
-//import spark.Session; 
+import java.nio.file.Paths;
+import spark.Session;
 
 public class Main {
 
     public static void main(String[] args) {
         
-        CompilerService compilerService = new CompilerService();
+        // Con el texto completo: escaneo por bloques en paralelo y sintáctico, semántico e
+        // intermedio por funciones (ver ParallelPipeline). Un código ya compilado toma su AST
+        // del caché en disco en lugar de pasar otra vez por Lexer y Parser
+        CompilerService compilerService = new CompilerService(true, new ASTCache(Paths.get("output", "ast-cache")));
         Gson gson = new Gson();
 
         // 1. CONFIGURACIÓN DEL SERVIDOR Y SESIONES
@@ -74,10 +78,23 @@ public class Main {
         post("/compile", (request, response) -> {
             response.type("application/json");
             
+            // El texto completo permite el flujo empaquetado y el modo paralelo; compile(Reader)
+            // queda para entradas que no conviene cargar en memoria
             String sourceCode = request.body();
             
-            // Llama al CompilerService sin pasar el userId
-            CompilerResult result = compilerService.compile(sourceCode); 
+            // Con sesión (ver /login) el editor tiene su propio IncrementalCompiler: solo se
+            // recompilan las funciones que cambiaron desde su compilación anterior
+            Session session = request.session(false);
+            CompilerResult result;
+            if (session != null) {
+                IncrementalCompiler incremental = incrementalFor(session);
+                synchronized (incremental) { // No es thread-safe: una compilación a la vez por sesión
+                    result = incremental.compile(sourceCode);
+                }
+            } else {
+                // Llama al CompilerService sin pasar el userId
+                result = compilerService.compile(sourceCode);
+            }
             
             
             if (result.isSuccess()) {
@@ -93,6 +110,16 @@ public class Main {
 
         System.out.println("--- SERVIDOR COMPILADOR INICIADO EN http://127.0.0.1:4567 ---");
     }
+
+    // Compilador incremental de la sesión; se crea con la primera compilación
+    private static synchronized IncrementalCompiler incrementalFor(Session session) {
+        IncrementalCompiler incremental = session.attribute("incremental");
+        if (incremental == null) {
+            incremental = new IncrementalCompiler();
+            session.attribute("incremental", incremental);
+        }
+        return incremental;
+    }
 }
 
 // Clase auxiliar para el resultado del login (necesaria para Gson)
@@ -0,0 +1,222 @@
+package compilador;
+
+import compilador.diagnostico.DiagnosticCollector;
+import compilador.intermedio.Cuadrupla;
+import compilador.intermedio.InterCodeGenerator;
+import compilador.lexer.PackedTokenStream;
+import compilador.lexer.Token.TokenType;
+import compilador.lexer.TokenSpans;
+import compilador.parser.Parser;
+import compilador.parser.declarations.FunctionDeclaration;
+import compilador.parser.declarations.Program;
+import compilador.semantico.SemanticAnalyzer;
+import compilador.semantico.TablaSimbolos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Modo paralelo de CompilerService para programas con muchas funciones.
+ * Las funciones de MiniJava son independientes entre sí salvo por sus firmas, así que se
+ * reparten en tramos contiguos y cada tramo se reconoce, se revisa y se traduce a cuádruplas
+ * en un hilo del pool. Los resultados se unen en el orden del programa: el AST, los errores
+ * semánticos y las cuádruplas (con la misma numeración de temporales y etiquetas) son
+ * idénticos a los del camino secuencial.
+ */
+final class ParallelPipeline {
+
+    // Menos funciones por tramo no compensa el costo de repartir
+    private static final int MIN_FUNCTIONS_PER_CHUNK = 16;
+
+    private ParallelPipeline() {
+    }
+
+    // --- Fase 2: sintáctico ---
+
+    /**
+     * Separa el flujo en funciones contando llaves y reconoce cada tramo por separado.
+     * Devuelve null si el programa no se puede separar o tiene errores sintácticos: en ese
+     * caso el Parser secuencial (con recuperación) produce los mensajes exactos.
+     */
+    static Program parse(PackedTokenStream tokens, ForkJoinPool pool) {
+        int[] ends = functionEnds(tokens);
+        if (ends == null || ends.length == 0) {
+            return null;
+        }
+        int[] bounds = chunkBounds(ends.length, pool.getParallelism());
+        List<Callable<List<FunctionDeclaration>>> tasks = new ArrayList<>();
+        for (int c = 0; c + 1 < bounds.length; c++) {
+            final int from = bounds[c] == 0 ? 0 : ends[bounds[c] - 1];
+            final int to = ends[bounds[c + 1] - 1];
+            tasks.add(() -> {
+                try {
+                    // Tabla de nombres local respaldada por la del flujo: los identificadores
+                    // quedan internados en todo el programa, no solo dentro del tramo
+                    return new Parser(tokens.concurrentCursor(from, to)).parseProgram().functions;
+                } catch (RuntimeException e) {
+                    return null;
+                }
+            });
+        }
+
+        Program program = new Program(tokens.getLine(0));
+        program.setTokenIndex(0);
+        for (List<FunctionDeclaration> functions : invokeAll(pool, tasks)) {
+            if (functions == null) {
+                return null;
+            }
+            for (FunctionDeclaration func : functions) {
+                program.addFunction(func);
+            }
+        }
+        return program;
+    }
+
+    /**
+     * Índice del token siguiente al '}' que cierra cada función (llaves a profundidad 0).
+     * null si las llaves no están balanceadas o sobran tokens al final.
+     */
+    static int[] functionEnds(PackedTokenStream tokens) {
+        int[] ends = new int[64];
+        int count = 0;
+        int depth = 0;
+        int eof = tokens.size() - 1;
+        for (int i = 0; i < eof; i++) {
+            TokenType type = tokens.getType(i);
+            if (type == TokenType.LBRACE) {
+                depth++;
+            } else if (type == TokenType.RBRACE) {
+                if (depth == 0) {
+                    return null;
+                }
+                if (--depth == 0) {
+                    if (count == ends.length) {
+                        ends = Arrays.copyOf(ends, count * 2);
+                    }
+                    ends[count++] = i + 1;
+                }
+            }
+        }
+        if (depth != 0 || (count > 0 && ends[count - 1] != eof)) {
+            return null;
+        }
+        return Arrays.copyOf(ends, count);
+    }
+
+    // --- Fase 3: semántico ---
+
+    /**
+     * Registra las firmas una vez (tabla inmutable compartida) y revisa los cuerpos en
+     * paralelo. Cada tramo acumula sus errores en su propio colector y se unen en orden en
+     * 'diagnostics', con la misma lista que daría el análisis secuencial.
+     */
+    static void analyze(Program ast, TokenSpans spans, DiagnosticCollector diagnostics, ForkJoinPool pool) {
+        List<FunctionDeclaration> functions = ast.functions;
+        Map<String, FunctionDeclaration> signatures = TablaSimbolos.declareFunctions(functions);
+
+        int[] bounds = chunkBounds(functions.size(), pool.getParallelism());
+        List<Callable<DiagnosticCollector>> tasks = new ArrayList<>();
+        for (int c = 0; c + 1 < bounds.length; c++) {
+            final int from = bounds[c], to = bounds[c + 1];
+            tasks.add(() -> {
+                DiagnosticCollector errors = new DiagnosticCollector(diagnostics.getLimit());
+                SemanticAnalyzer analyzer = new SemanticAnalyzer(spans, signatures).setDiagnostics(errors);
+                for (int i = from; i < to; i++) {
+                    analyzer.analyzeFunction(functions.get(i));
+                }
+                return errors;
+            });
+        }
+        for (DiagnosticCollector errors : invokeAll(pool, tasks)) {
+            diagnostics.merge(errors);
+        }
+    }
+
+    // --- Fase 4: código intermedio ---
+
+    /**
+     * Cuenta los temporales y etiquetas de cada tramo, calcula con sumas parciales dónde
+     * empieza la numeración de cada uno y genera los tramos en paralelo.
+     */
+    static List<Cuadrupla> generate(Program ast, ForkJoinPool pool) {
+        List<FunctionDeclaration> functions = ast.functions;
+        int[] bounds = chunkBounds(functions.size(), pool.getParallelism());
+        int chunks = bounds.length - 1;
+
+        List<Callable<int[]>> counts = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            final int from = bounds[c], to = bounds[c + 1];
+            counts.add(() -> {
+                int[] total = new int[2];
+                for (int i = from; i < to; i++) {
+                    int[] names = InterCodeGenerator.countNames(functions.get(i));
+                    total[0] += names[0];
+                    total[1] += names[1];
+                }
+                return total;
+            });
+        }
+        List<int[]> totals = invokeAll(pool, counts);
+
+        List<Callable<List<Cuadrupla>>> tasks = new ArrayList<>(chunks);
+        int firstTemp = 0, firstLabel = 0;
+        for (int c = 0; c < chunks; c++) {
+            final int from = bounds[c], to = bounds[c + 1];
+            final int temp = firstTemp, label = firstLabel;
+            tasks.add(() -> {
+                InterCodeGenerator generator = new InterCodeGenerator(temp, label);
+                for (int i = from; i < to; i++) {
+                    generator.generateFunction(functions.get(i));
+                }
+                return generator.getCode();
+            });
+            firstTemp += totals.get(c)[0];
+            firstLabel += totals.get(c)[1];
+        }
+
+        List<Cuadrupla> code = new ArrayList<>();
+        for (List<Cuadrupla> part : invokeAll(pool, tasks)) {
+            code.addAll(part);
+        }
+        return code;
+    }
+
+    // --- Utilidades ---
+
+    // Límites de los tramos de funciones: [bounds[c], bounds[c + 1])
+    private static int[] chunkBounds(int functions, int parallelism) {
+        int chunks = Math.max(1, Math.min(parallelism * 4, functions / MIN_FUNCTIONS_PER_CHUNK));
+        int[] bounds = new int[chunks + 1];
+        for (int c = 1; c <= chunks; c++) {
+            bounds[c] = (int) ((long) functions * c / chunks);
+        }
+        return bounds;
+    }
+
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Compilación en paralelo interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause(); // P. ej. StackOverflowError, que CompilerService reporta
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+}
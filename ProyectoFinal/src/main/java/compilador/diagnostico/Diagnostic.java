@@ -0,0 +1,48 @@
+package compilador.diagnostico;
+
+/**
+ * Un error encontrado durante la compilación, con su posición en el código fuente.
+ * Se devuelve al front-end dentro de CompilerResult en lugar de imprimirse.
+ */
+public class Diagnostic {
+
+    private final String code;     // Ej. "LEX001"
+    private final String message;
+    private final int line;
+    private final int column;      // Empieza en 1
+    private final int offset;      // Posición absoluta en el código fuente
+
+    public Diagnostic(String code, String message, int line, int column, int offset) {
+        this.code = code;
+        this.message = message;
+        this.line = line;
+        this.column = column;
+        this.offset = offset;
+    }
+
+    // Getters
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + code + "] " + message;
+    }
+}
@@ -0,0 +1,72 @@
+package compilador.diagnostico;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Acumula los diagnósticos de una compilación con un límite máximo.
+ * Pasado el límite solo se cuentan, así una entrada patológica no puede agotar la memoria.
+ * Una instancia por compilación (no es thread-safe).
+ */
+public class DiagnosticCollector {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    private final int limit;
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+    private int droppedCount = 0;
+
+    public DiagnosticCollector() {
+        this(DEFAULT_LIMIT);
+    }
+
+    public DiagnosticCollector(int limit) {
+        this.limit = limit;
+    }
+
+    public void report(String code, String message, int line, int column, int offset) {
+        if (diagnostics.size() < limit) {
+            diagnostics.add(new Diagnostic(code, message, line, column, offset));
+        } else {
+            droppedCount++;
+        }
+    }
+
+    /**
+     * Agrega en orden los diagnósticos de otro colector (por ejemplo, de un bloque escaneado
+     * en paralelo) respetando el límite de este.
+     */
+    public void merge(DiagnosticCollector other) {
+        for (Diagnostic d : other.diagnostics) {
+            report(d.getCode(), d.getMessage(), d.getLine(), d.getColumn(), d.getOffset());
+        }
+        droppedCount += other.droppedCount;
+    }
+
+    public boolean hasErrors() {
+        return !diagnostics.isEmpty();
+    }
+
+    // Verdadero cuando ya no se registran más diagnósticos
+    public boolean isFull() {
+        return diagnostics.size() >= limit;
+    }
+
+    public List<Diagnostic> getDiagnostics() {
+        return Collections.unmodifiableList(diagnostics);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Errores que no se guardaron por haber alcanzado el límite
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    public int getErrorCount() {
+        return diagnostics.size() + droppedCount;
+    }
+}
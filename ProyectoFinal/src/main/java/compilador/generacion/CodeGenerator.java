@@ -1,8 +1,10 @@
 package compilador.generacion;
 
 import compilador.intermedio.Cuadrupla;
+import compilador.intermedio.Operando;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,6 +17,11 @@ public class CodeGenerator {
     private final Map<String, Integer> stackOffset = new HashMap<>();
     private int currentOffset = 0;
 
+    // Desplazamiento de cada casilla de la función actual y de cada temporal (-1: todavía sin
+    // usar). Con la casilla o el número que trae el Operando se ubica sin buscar el nombre.
+    private int[] slotOffset = new int[16];
+    private int[] tempOffset = new int[64];
+
     // Simulación de Registros (para operaciones temporales)
     private static final String REG_T1 = "R1"; 
     private static final String REG_T2 = "R2"; 
@@ -22,6 +29,8 @@ public class CodeGenerator {
 
     public CodeGenerator(List<Cuadrupla> intermediateCode) {
         this.intermediateCode = intermediateCode;
+        Arrays.fill(slotOffset, -1);
+        Arrays.fill(tempOffset, -1);
     }
 
     public List<String> generate() {
@@ -78,8 +87,11 @@ public class CodeGenerator {
 
             // 4.  Manejo de Directivas (no generan código)
             case "PARAM_IN":
+                assemblyCode.add("\t; (Directiva: " + cuad.operator + ")");
+                break;
             case "END_FUNCTION":
                 assemblyCode.add("\t; (Directiva: " + cuad.operator + ")");
+                Arrays.fill(slotOffset, -1); // Las casillas son por función
                 break;
                 
             // --- FIN DE CORRECCIONES ---
@@ -106,13 +118,13 @@ public class CodeGenerator {
     // ----------------------------------------------------------------
 
     private void translateAssign(Cuadrupla cuad) {
-        String srcRegister = loadValue(cuad.operand1, REG_T1);
-        storeValue(srcRegister, cuad.result);
+        String srcRegister = loadValue(cuad.operand1, cuad.info1, REG_T1);
+        storeValue(srcRegister, cuad.result, cuad.resultInfo);
     }
 
     private void translateArithmetic(Cuadrupla cuad) {
-        String reg1 = loadValue(cuad.operand1, REG_T1);
-        String reg2 = loadValue(cuad.operand2, REG_T2);
+        String reg1 = loadValue(cuad.operand1, cuad.info1, REG_T1);
+        String reg2 = loadValue(cuad.operand2, cuad.info2, REG_T2);
 
         String opCode;
         switch (cuad.operator) {
@@ -124,17 +136,17 @@ public class CodeGenerator {
         }
 
         assemblyCode.add(String.format("\t%s %s, %s, %s", opCode, REG_RESULT, reg1, reg2));
-        storeValue(REG_RESULT, cuad.result);
+        storeValue(REG_RESULT, cuad.result, cuad.resultInfo);
     }
     
     private void translateJumpIfFalse(Cuadrupla cuad) {
-        String condReg = loadValue(cuad.operand1, REG_T1);
+        String condReg = loadValue(cuad.operand1, cuad.info1, REG_T1);
         assemblyCode.add(String.format("\tCMP %s, #0", condReg)); 
         assemblyCode.add(String.format("\tJUMPEQ %s", cuad.result));
     }
     
     private void translateReturn(Cuadrupla cuad) {
-        loadValue(cuad.operand1, REG_RESULT);
+        loadValue(cuad.operand1, cuad.info1, REG_RESULT);
         assemblyCode.add("\tRET");
     }
 
@@ -148,8 +160,8 @@ public class CodeGenerator {
      */
     private void translateRelational(Cuadrupla cuad) {
         // Cuádrupla: (OP, op1, op2, res) -> res = (op1 OP op2)
-        String reg1 = loadValue(cuad.operand1, REG_T1);
-        String reg2 = loadValue(cuad.operand2, REG_T2);
+        String reg1 = loadValue(cuad.operand1, cuad.info1, REG_T1);
+        String reg2 = loadValue(cuad.operand2, cuad.info2, REG_T2);
 
         String jumpInstruction;
         switch (cuad.operator) {
@@ -182,7 +194,7 @@ public class CodeGenerator {
         // 5. Fin
         assemblyCode.add(labelEnd + ":");
         // 6. Almacenar el resultado (1 o 0) en la variable temporal 'res'
-        storeValue(REG_RESULT, cuad.result);
+        storeValue(REG_RESULT, cuad.result, cuad.resultInfo);
     }
 
     /**
@@ -190,7 +202,7 @@ public class CodeGenerator {
      */
     private void translateParam(Cuadrupla cuad) {
         // Cuádrupla: (PARAM, op1, null, null)
-        String reg = loadValue(cuad.operand1, REG_T1);
+        String reg = loadValue(cuad.operand1, cuad.info1, REG_T1);
         // Simula empujar el parámetro a la pila de la función llamada
         assemblyCode.add(String.format("\tPUSH %s", reg)); 
     }
@@ -207,15 +219,24 @@ public class CodeGenerator {
         assemblyCode.add(String.format("\tCALL %s", functionName));
         
         // Guardar el resultado (que la función dejó en R0)
-        storeValue(REG_RESULT, resultTemp);
+        storeValue(REG_RESULT, resultTemp, cuad.resultInfo);
     }
 
     // ----------------------------------------------------------------
     // MÉTODOS DE MANEJO DE MEMORIA 
     // ----------------------------------------------------------------
     
-    // Mapea y devuelve la instrucción de carga
-    private String loadValue(String operand, String targetReg) {
+    // Mapea y devuelve la instrucción de carga (info: lo que se sabe del operando, o null)
+    private String loadValue(String operand, Operando info, String targetReg) {
+        if (info != null) {
+            if (info.kind == Operando.Kind.CONSTANT) {
+                // El valor ya viene calculado (boolean como 1/0): no hay que interpretar el texto
+                assemblyCode.add(String.format("\tLOADI %s, #%d", targetReg, info.number));
+            } else {
+                assemblyCode.add(String.format("\tLOAD %s, [SP + %d]", targetReg, offsetOf(operand, info)));
+            }
+            return targetReg;
+        }
         try {
             // Si es un literal numérico
             int value = Integer.parseInt(operand);
@@ -233,23 +254,59 @@ public class CodeGenerator {
             }
             
             // Si es una variable (ID o Temporal tX)
-            if (!stackOffset.containsKey(operand)) {
-                stackOffset.put(operand, currentOffset);
-                currentOffset += 4; // Avanzar 4 bytes
-            }
-            int offset = stackOffset.get(operand);
+            int offset = offsetOf(operand);
             assemblyCode.add(String.format("\tLOAD %s, [SP + %d]", targetReg, offset)); // LOAD: Carga desde Stack Pointer (SP)
             return targetReg;
         }
     }
     
     // Mapea y devuelve la instrucción de almacenamiento
-    private void storeValue(String sourceReg, String targetVar) {
-        if (!stackOffset.containsKey(targetVar)) {
-            stackOffset.put(targetVar, currentOffset);
-            currentOffset += 4;
-        }
-        int offset = stackOffset.get(targetVar);
+    private void storeValue(String sourceReg, String targetVar, Operando info) {
+        int offset = info != null ? offsetOf(targetVar, info) : offsetOf(targetVar);
         assemblyCode.add(String.format("\tSTORE %s, [SP + %d]", sourceReg, offset)); // STORE: Almacena en Stack Pointer (SP)
     }
+
+    // Desplazamiento de una variable o temporal por su nombre; la primera vez se le asigna uno
+    private int offsetOf(String name) {
+        Integer offset = stackOffset.get(name);
+        if (offset == null) {
+            offset = currentOffset;
+            stackOffset.put(name, offset);
+            currentOffset += 4; // Avanzar 4 bytes
+        }
+        return offset;
+    }
+
+    /**
+     * Desplazamiento de una variable por su casilla o de un temporal por su número. Solo el
+     * primer uso consulta el nombre, para que el lugar en la pila sea el mismo que por nombre.
+     */
+    private int offsetOf(String name, Operando info) {
+        int n = info.number;
+        if (n < 0) {
+            return offsetOf(name); // Variable sin resolver
+        }
+        if (info.kind == Operando.Kind.TEMPORARY) {
+            tempOffset = ensureCapacity(tempOffset, n);
+            if (tempOffset[n] < 0) {
+                tempOffset[n] = offsetOf(name);
+            }
+            return tempOffset[n];
+        }
+        slotOffset = ensureCapacity(slotOffset, n);
+        if (slotOffset[n] < 0) {
+            slotOffset[n] = offsetOf(name);
+        }
+        return slotOffset[n];
+    }
+
+    private static int[] ensureCapacity(int[] offsets, int index) {
+        if (index < offsets.length) {
+            return offsets;
+        }
+        int oldLength = offsets.length;
+        int[] grown = Arrays.copyOf(offsets, Math.max(index + 1, oldLength * 2));
+        Arrays.fill(grown, oldLength, grown.length, -1);
+        return grown;
+    }
 }
\ No newline at end of file
@@ -1,7 +1,8 @@
 package compilador.generacion;
 
-import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 import compilador.parser.ASTNode;
+import compilador.parser.ASTWalker;
 // Importar todos los nodos AST
 import compilador.parser.declarations.*; 
 import compilador.parser.expressions.*;
@@ -9,21 +10,24 @@ import compilador.parser.statements.*;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Genera código DOT (Graphviz) a partir del AST para crear Diagramas de Flujo.
- * Implementa todos los métodos de ASTVisitor.
+ * Implementa ASTListener y recorre el AST con ASTWalker.
  */
 @SuppressWarnings("rawtypes") // Suprimir advertencias de tipo crudo
-public class DiagramGenerator implements ASTVisitor {
+public class DiagramGenerator implements ASTListener {
 
     // ---  Mover variables de estado ---
     // Se mueven de 'final' para poder reiniciarlas en cada llamada
     private StringBuilder dotCode;
     private int nodeCounter;
     private Map<ASTNode, String[]> nodeRegistry;
+    private Deque<String> lastNodes;
     
 
     // ---  Nuevo método para el Servidor Web ---
@@ -38,14 +42,15 @@ public class DiagramGenerator implements ASTVisitor {
         this.dotCode = new StringBuilder();
         this.nodeCounter = 0;
         this.nodeRegistry = new HashMap<>();
+        this.lastNodes = new ArrayDeque<>();
 
         // Lógica de generación (movida desde el método 'generate')
         dotCode.append("digraph FlowChart {\n");
         dotCode.append("\trankdir=TB; // De Arriba a Abajo\n");
         dotCode.append("\tnode [shape=box, style=\"rounded\"];\n"); 
         
-        // Iniciar la visita
-        program.accept(this);
+        // Iniciar el recorrido
+        ASTWalker.walk(program, this);
 
         dotCode.append("}\n");
         
@@ -85,45 +90,46 @@ public class DiagramGenerator implements ASTVisitor {
         dotCode.append(String.format("\t%s -> %s [label=\"%s\"];\n", from, to, label));
     }
 
-    // --- MÉTODOS DE VISITA 
-    
+    // --- MÉTODOS DEL RECORRIDO ---
+    // nodeRegistry guarda {primer nodo, último nodo} de cada sentencia ya recorrida.
+    // lastNodes guarda, por cada Program/Block abierto, el nodo al que se une la siguiente sentencia.
 
     @Override
-    public Object visit(Program node) {
+    public boolean enter(Program node) {
         String startNode = getNextNodeName();
         defineNode(startNode, "START", "oval", "black");
         
-        String lastNode = startNode;
-        for (FunctionDeclaration func : node.functions) {
-            String funcStart = (String) func.accept(this);
-            defineEdge(lastNode, funcStart, "");
-            
-            String funcEnd = nodeRegistry.get(func.body)[1];
-            lastNode = funcEnd; 
-        }
-        
+        lastNodes.push(startNode);
+        return true;
+    }
+
+    @Override
+    public void exit(Program node) {
         String endNode = getNextNodeName();
         defineNode(endNode, "END", "oval", "black");
-        defineEdge(lastNode, endNode, "");
-        return null;
+        defineEdge(lastNodes.pop(), endNode, "");
     }
 
     @Override
-    public Object visit(FunctionDeclaration node) {
+    public boolean enter(FunctionDeclaration node) {
         String funcName = getNextNodeName();
         defineNode(funcName, "FUNCIÓN: " + node.id, "invhouse", "blue");
         
-        String bodyStart = (String) node.body.accept(this);
-        defineEdge(funcName, bodyStart, "Entry");
-        
-        return funcName;
+        nodeRegistry.put(node, new String[]{funcName, funcName});
+        return true;
+    }
+
+    @Override
+    public void exit(FunctionDeclaration node) {
+        String bodyStart = nodeRegistry.get(node.body)[0];
+        defineEdge(nodeRegistry.get(node)[0], bodyStart, "Entry");
     }
 
     @Override
-    public Object visit(Parameter node) { return null; }
+    public boolean enter(Parameter node) { return false; }
     
     @Override
-    public Object visit(BlockStatement node) {
+    public boolean enter(BlockStatement node) {
         String startNode = getNextNodeName();
         String endNode = getNextNodeName();
         nodeRegistry.put(node, new String[]{startNode, endNode});
@@ -131,41 +137,64 @@ public class DiagramGenerator implements ASTVisitor {
         defineNode(startNode, "BlockStart", "point", "white");
         defineNode(endNode, "BlockEnd", "point", "white");
 
-        String lastNode = startNode;
-        
-        for (ASTNode stmt : node.statements) {
-            String stmtStart = (String) stmt.accept(this);
-            defineEdge(lastNode, stmtStart, "");
-            lastNode = nodeRegistry.get(stmt)[1];
+        lastNodes.push(startNode);
+        return true;
+    }
+
+    @Override
+    public void exit(BlockStatement node) {
+        defineEdge(lastNodes.pop(), nodeRegistry.get(node)[1], "");
+    }
+
+    @Override
+    public void afterChild(ASTNode parent, int index, ASTNode child) {
+        if (parent instanceof Program) {
+            // Se usa 'child': la lista de funciones puede crear los nodos cada vez que se pide
+            FunctionDeclaration func = (FunctionDeclaration) child;
+            defineEdge(lastNodes.pop(), nodeRegistry.get(func)[0], "");
+            lastNodes.push(nodeRegistry.get(func.body)[1]);
+        } else if (parent instanceof BlockStatement) {
+            String stmtStart = nodeRegistry.get(child)[0];
+            defineEdge(lastNodes.pop(), stmtStart, "");
+            lastNodes.push(nodeRegistry.get(child)[1]);
+        } else if (parent instanceof IfStatement && index > 0) {
+            // index 1: rama THEN, index 2: rama ELSE
+            String[] ifNodes = nodeRegistry.get(parent);
+            String[] branch = nodeRegistry.get(child);
+            defineEdge(ifNodes[0], branch[0], index == 1 ? "True" : "False");
+            defineEdge(branch[1], ifNodes[1], "");
+        } else if (parent instanceof WhileStatement && index == 1) {
+            String[] whileNodes = nodeRegistry.get(parent);
+            String[] body = nodeRegistry.get(child);
+            defineEdge(whileNodes[0], body[0], "True");
+            defineEdge(body[1], whileNodes[0], "Loop"); 
+            defineEdge(whileNodes[0], whileNodes[1], "False"); 
         }
-        
-        defineEdge(lastNode, endNode, "");
-        return startNode;
     }
 
     @Override
-    public Object visit(DeclarationStatement node) {
+    public boolean enter(DeclarationStatement node) {
         String name = getNextNodeName();
         String label = node.type + " " + node.id + 
                        (node.initialValue != null ? " = ..." : "");
         defineNode(name, label, "box", "green");
         
         nodeRegistry.put(node, new String[]{name, name}); 
-        return name;
+        return false;
     }
 
     @Override
-    public Object visit(AssignmentStatement node) {
+    public boolean enter(AssignmentStatement node) {
         String name = getNextNodeName();
         String label = String.format("%s = ...", node.id); 
         defineNode(name, label, "box", "black");
         
         nodeRegistry.put(node, new String[]{name, name});
-        return name;
+        return false;
     }
     
     @Override
-    public Object visit(IfStatement node) {
+    public boolean enter(IfStatement node) {
         String condNode = getNextNodeName();
         defineNode(condNode, "IF: ...", "diamond", "red"); 
 
@@ -173,26 +202,19 @@ public class DiagramGenerator implements ASTVisitor {
         defineNode(joinNode, "", "point", "white"); 
         
         nodeRegistry.put(node, new String[]{condNode, joinNode});
+        return true;
+    }
 
-        String thenStart = (String) node.thenBranch.accept(this);
-        String thenEnd = nodeRegistry.get(node.thenBranch)[1];
-        defineEdge(condNode, thenStart, "True");
-        defineEdge(thenEnd, joinNode, "");
-
-        if (node.elseBranch != null) {
-            String elseStart = (String) node.elseBranch.accept(this);
-            String elseEnd = nodeRegistry.get(node.elseBranch)[1];
-            defineEdge(condNode, elseStart, "False");
-            defineEdge(elseEnd, joinNode, "");
-        } else {
-            defineEdge(condNode, joinNode, "False");
+    @Override
+    public void exit(IfStatement node) {
+        if (node.elseBranch == null) {
+            String[] ifNodes = nodeRegistry.get(node);
+            defineEdge(ifNodes[0], ifNodes[1], "False");
         }
-        
-        return condNode;
     }
 
     @Override
-    public Object visit(WhileStatement node) {
+    public boolean enter(WhileStatement node) {
         String condNode = getNextNodeName();
         defineNode(condNode, "WHILE: ...", "diamond", "red"); 
 
@@ -200,33 +222,26 @@ public class DiagramGenerator implements ASTVisitor {
         defineNode(joinNode, "", "point", "white");
         
         nodeRegistry.put(node, new String[]{condNode, joinNode});
-
-        String bodyStart = (String) node.body.accept(this);
-        String bodyEnd = nodeRegistry.get(node.body)[1];
-        
-        defineEdge(condNode, bodyStart, "True");
-        defineEdge(bodyEnd, condNode, "Loop"); 
-        defineEdge(condNode, joinNode, "False"); 
-        
-        return condNode; 
+        return true;
     }
 
     @Override
-    public Object visit(ReturnStatement node) {
+    public boolean enter(ReturnStatement node) {
         String name = getNextNodeName();
         defineNode(name, "RETURN ...", "box", "orange");
         nodeRegistry.put(node, new String[]{name, name});
-        return name;
+        return false;
     }
 
+    // Las expresiones no aparecen en el diagrama
     @Override
-    public Object visit(BinaryExpression node) { return null; }
+    public boolean enter(BinaryExpression node) { return false; }
     @Override
-    public Object visit(UnaryExpression node) { return null; }
+    public boolean enter(UnaryExpression node) { return false; }
     @Override
-    public Object visit(FunctionCall node) { return null; }
+    public boolean enter(FunctionCall node) { return false; }
     @Override
-    public Object visit(VariableAccess node) { return null; }
+    public boolean enter(VariableAccess node) { return false; }
     @Override
-    public Object visit(LiteralExpression node) { return null; }
-}
\ No newline at end of file
+    public boolean enter(LiteralExpression node) { return false; }
+}
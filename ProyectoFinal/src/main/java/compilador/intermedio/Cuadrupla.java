@@ -8,12 +8,26 @@ public class Cuadrupla{
     public final String operand2;
     public final String result;
 
+    // Qué es cada operando (constante, variable o temporal) y su tipo; null en los que no son
+    // operandos (etiquetas, funciones) o si no se conoce. CodeGenerator los usa en lugar del texto.
+    public final Operando info1;
+    public final Operando info2;
+    public final Operando resultInfo;
+
     //Constructor
     public Cuadrupla(String operator, String operand1, String operand2, String result){
+        this(operator, operand1, operand2, result, null, null, null);
+    }
+
+    public Cuadrupla(String operator, String operand1, String operand2, String result,
+                     Operando info1, Operando info2, Operando resultInfo){
         this.operator = operator;
         this.operand1 = operand1;
         this.operand2 = operand2;
         this.result = result;
+        this.info1 = info1;
+        this.info2 = info2;
+        this.resultInfo = resultInfo;
     }
 
     @Override
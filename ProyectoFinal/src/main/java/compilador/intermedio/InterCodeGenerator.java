@@ -1,39 +1,71 @@
 package compilador.intermedio;
 
-import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
+import compilador.parser.ASTWalker;
 
 import compilador.parser.declarations.*; 
 import compilador.parser.statements.*;
 import compilador.parser.expressions.*;
 import compilador.parser.ASTNode; // Para tipos genéricos como then/else/body
+import compilador.semantico.FunctionType;
+import compilador.semantico.TablaSimbolos;
+import compilador.semantico.Type;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Stack;
 
-public class InterCodeGenerator implements ASTVisitor {
+public class InterCodeGenerator implements ASTListener {
 
     private final List<Cuadrupla> code = new ArrayList<>();
-    private int tempCounter = 0;
-    private int labelCounter = 0;
+    private int tempCounter;
+    private int labelCounter;
     
     // Pila para manejar el retorno de funciones (etiquetas de retorno)
     private final Stack<String> returnLabels = new Stack<>(); 
 
+    // Resultado de las expresiones ya generadas (lo que antes devolvía cada visit): su texto
+    // y lo que SemanticAnalyzer anotó de él (tipo, casilla o constante)
+    private final Deque<Operando> results = new ArrayDeque<>();
+
+    // Etiquetas de los IF/WHILE abiertos: {falso, fin} o {inicio, fin}
+    private final Deque<String[]> labels = new ArrayDeque<>();
+
     // Métodos auxiliares para nombres únicos
-    private String newTemp() { return "t" + (tempCounter++); }
+    private Operando newTemp(Type type) { return Operando.temporary(type, tempCounter++); }
     private String newLabel() { return "L" + (labelCounter++); }
 
     private void emit(String op, String arg1, String arg2, String res) {
         code.add(new Cuadrupla(op, arg1, arg2, res));
     }
 
+    private void emit(String op, String arg1, String arg2, String res, Operando info1, Operando info2, Operando resultInfo) {
+        code.add(new Cuadrupla(op, arg1, arg2, res, info1, info2, resultInfo));
+    }
+
+    public InterCodeGenerator() {
+        this(0, 0);
+    }
+
+    // Empieza la numeración en t<firstTemp> y L<firstLabel> (funciones generadas por separado)
+    public InterCodeGenerator(int firstTemp, int firstLabel) {
+        this.tempCounter = firstTemp;
+        this.labelCounter = firstLabel;
+    }
+
     public List<Cuadrupla> getCode() {
         return code;
     }
 
     public void generate(Program program) {
-        program.accept(this);
+        ASTWalker.walk(program, this);
+    }
+
+    // Genera una sola función (la numeración sigue desde los contadores actuales)
+    public void generateFunction(FunctionDeclaration func) {
+        ASTWalker.walk(func, this);
     }
     
     // =================================================================
@@ -41,16 +73,7 @@ public class InterCodeGenerator implements ASTVisitor {
     // =================================================================
 
     @Override
-    public Object visit(Program node) {
-        // Generación de código para cada función
-        for (FunctionDeclaration func : node.functions) {
-            func.accept(this);
-        }
-        return null;
-    }
-
-    @Override
-    public Object visit(FunctionDeclaration node) {
+    public boolean enter(FunctionDeclaration node) {
         // 1. Etiqueta de inicio de función
         emit("LABEL", node.id, "null", "null");
         
@@ -59,164 +82,239 @@ public class InterCodeGenerator implements ASTVisitor {
         returnLabels.push(returnLabel);
         
         // 3. Declaración de parámetros (opcional, pero ayuda al seguimiento)
+        FunctionType signature = TablaSimbolos.signature(node);
         int paramCount = 0;
         for (Parameter param : node.parameters) {
             // Asignar parámetros de entrada a variables locales/temporales
-            emit("PARAM_IN", String.valueOf(paramCount++), "null", param.id);
+            Operando target = Operando.variable(signature.getParameterType(paramCount), param.getSlot(), param.id);
+            emit("PARAM_IN", String.valueOf(paramCount++), "null", param.id, null, null, target);
         }
 
-        // 4. Visitar el cuerpo
-        node.body.accept(this);
-        
+        // 4. El recorrido visita el cuerpo
+        return true;
+    }
+
+    @Override
+    public void exit(FunctionDeclaration node) {
         // 5. Etiqueta de retorno y limpieza
-        returnLabels.pop();
+        String returnLabel = returnLabels.pop();
         emit("LABEL", returnLabel, "null", "null");
         emit("END_FUNCTION", "null", "null", "null");
-        
-        return null;
     }
     
     // No genera cuádrupla, ya que solo es parte de FunctionDeclaration
     @Override
-    public Object visit(Parameter node) { return null; }
+    public boolean enter(Parameter node) { return false; }
 
     // =================================================================
     // II. NODOS DE SENTENCIAS (FLUJO DE CONTROL)
     // =================================================================
 
     @Override
-    public Object visit(BlockStatement node) {
-        for (ASTNode stmt : node.statements) {
-            stmt.accept(this);
-        }
-        return null;
-    }
-    
-    @Override
-    public Object visit(DeclarationStatement node) {
+    public void exit(DeclarationStatement node) {
         if (node.initialValue != null) {
             // Si hay inicialización: ID = <Expression>
-            String result = (String) node.initialValue.accept(this);
+            Operando result = results.pop();
+            Operando target = Operando.variable(node.initialValue.getType(), node.getSlot(), node.id);
             // Cuádrupla de asignación: (ASSIGN, resultado_expr, null, ID)
-            emit("ASSIGN", result, "null", node.id);
+            emit("ASSIGN", result.name, "null", node.id, result, null, target);
         }
-        return null;
     }
 
     @Override
-    public Object visit(AssignmentStatement node) {
-        // 1. Generar código para la expresión (lado derecho)
-        String result = (String) node.value.accept(this);
+    public void exit(AssignmentStatement node) {
+        // 1. El código de la expresión (lado derecho) ya se generó
+        Operando result = results.pop();
+        // La variable tiene el tipo de la expresión (el análisis ya verificó que coinciden)
+        Operando target = Operando.variable(node.value.getType(), node.getSlot(), node.id);
         
         // 2. Cuádrupla de asignación: (ASSIGN, resultado_expr, null, ID)
-        emit("ASSIGN", result, "null", node.id);
-        return null;
+        emit("ASSIGN", result.name, "null", node.id, result, null, target);
     }
-    
+
     @Override
-    public Object visit(IfStatement node) {
-        String conditionResult = (String) node.condition.accept(this);
-        String labelFalse = newLabel();
+    public boolean enter(WhileStatement node) {
+        String labelStart = newLabel();
         String labelEnd = newLabel();
+        labels.push(new String[] { labelStart, labelEnd });
 
-        // JUMPIF_FALSE t_cond, null, L_FALSE
-        emit("JUMPIF_FALSE", conditionResult, "null", labelFalse);
+        emit("LABEL", labelStart, "null", "null"); 
+        return true;
+    }
 
-        // Bloque THEN
-        node.thenBranch.accept(this);
-        
-        if (node.elseBranch != null) {
-            emit("GOTO", labelEnd, "null", "null");
+    @Override
+    public void afterChild(ASTNode parent, int index, ASTNode child) {
+        if (child instanceof Expression && ASTListener.isStatement(parent, index)) {
+            results.pop(); // Llamada usada como sentencia: el resultado se descarta
         }
-        
-        emit("LABEL", labelFalse, "null", "null");
-        
-        if (node.elseBranch != null) {
-            node.elseBranch.accept(this);
-            emit("LABEL", labelEnd, "null", "null"); 
+        if (parent instanceof IfStatement) {
+            afterIfChild((IfStatement) parent, index);
+        } else if (parent instanceof WhileStatement) {
+            if (index == 0) {
+                Operando conditionResult = results.pop();
+                emit("JUMPIF_FALSE", conditionResult.name, "null", labels.peek()[1], conditionResult, null, null);
+            }
+        } else if (parent instanceof FunctionCall) {
+            // Cada argumento se pasa apenas se genera
+            Operando argResult = results.pop();
+            emit("PARAM", argResult.name, "null", "null", argResult, null, null);
+        }
+    }
+
+    // Resultados y etiquetas apilados que nadie consumió; entre funciones debe ser 0
+    int pendingValues() {
+        return results.size() + labels.size();
+    }
+
+    private void afterIfChild(IfStatement node, int index) {
+        if (index == 0) {
+            Operando conditionResult = results.pop();
+            String labelFalse = newLabel();
+            String labelEnd = newLabel();
+            labels.push(new String[] { labelFalse, labelEnd });
+
+            // JUMPIF_FALSE t_cond, null, L_FALSE
+            emit("JUMPIF_FALSE", conditionResult.name, "null", labelFalse, conditionResult, null, null);
+        } else if (index == 1) {
+            // Fin del bloque THEN
+            String[] ifLabels = labels.peek();
+            if (node.elseBranch != null) {
+                emit("GOTO", ifLabels[1], "null", "null");
+            }
+            emit("LABEL", ifLabels[0], "null", "null");
         }
-        
-        return null;
     }
 
     @Override
-    public Object visit(WhileStatement node) {
-        String labelStart = newLabel();
-        String labelEnd = newLabel();
+    public void exit(IfStatement node) {
+        String[] ifLabels = labels.pop();
+        if (node.elseBranch != null) {
+            emit("LABEL", ifLabels[1], "null", "null"); 
+        }
+    }
 
-        emit("LABEL", labelStart, "null", "null"); 
-        String conditionResult = (String) node.condition.accept(this);
-        emit("JUMPIF_FALSE", conditionResult, "null", labelEnd);
-        node.body.accept(this);
-        emit("GOTO", labelStart, "null", "null");
-        emit("LABEL", labelEnd, "null", "null");
-        
-        return null;
+    @Override
+    public void exit(WhileStatement node) {
+        String[] whileLabels = labels.pop();
+        emit("GOTO", whileLabels[0], "null", "null");
+        emit("LABEL", whileLabels[1], "null", "null");
     }
 
     @Override
-    public Object visit(ReturnStatement node) {
-        String result = (String) node.value.accept(this);
-        emit("RETURN", result, "null", "null");
+    public void exit(ReturnStatement node) {
+        Operando result = results.pop();
+        emit("RETURN", result.name, "null", "null", result, null, null);
         
         if (!returnLabels.isEmpty()) {
             emit("GOTO", returnLabels.peek(), "null", "null");
         }
-        
-        return null;
     }
 
     // =================================================================
-    // III. NODOS DE EXPRESIONES (Devuelven el identificador del resultado)
+    // III. NODOS DE EXPRESIONES (Apilan el identificador del resultado)
     // =================================================================
 
     @Override
-    public Object visit(BinaryExpression node) {
-        String leftResult = (String) node.left.accept(this); 
-        String rightResult = (String) node.right.accept(this);
-        String resultTemp = newTemp();
+    public void exit(BinaryExpression node) {
+        Operando rightResult = results.pop();
+        Operando leftResult = results.pop(); 
+        Operando resultTemp = newTemp(node.getType());
         
-        emit(node.operator.getLexeme(), leftResult, rightResult, resultTemp);
+        emit(node.operator.getLexeme(), leftResult.name, rightResult.name, resultTemp.name, leftResult, rightResult, resultTemp);
         
-        return resultTemp; 
+        results.push(resultTemp); 
     }
     
     @Override
-    public Object visit(UnaryExpression node) {
-        String operandResult = (String) node.operand.accept(this);
-        String resultTemp = newTemp();
-        emit(node.operator.getLexeme(), operandResult, "null", resultTemp);
-        return resultTemp; 
+    public void exit(UnaryExpression node) {
+        Operando operandResult = results.pop();
+        Operando resultTemp = newTemp(node.getType());
+        emit(node.operator.getLexeme(), operandResult.name, "null", resultTemp.name, operandResult, null, resultTemp);
+        results.push(resultTemp); 
     }
     
     
     @Override
-    public Object visit(FunctionCall node) {
-        // 1. Generar cuádruplas para los argumentos
-        for (Expression arg : node.arguments) {
-            String argResult = (String) arg.accept(this);
-            emit("PARAM", argResult, "null", "null"); 
-        }
+    public void exit(FunctionCall node) {
+        // 1. Las cuádruplas PARAM de los argumentos ya se emitieron en afterChild
         
         // 2. Generar temporal para almacenar el valor de retorno
-        String resultTemp = newTemp();
+        Operando resultTemp = newTemp(node.getType());
         
         // 3. ¡CORRECCIÓN!
         //    Pasamos el ID de la función (node.id) como operando 1.
         //    (CALL, "factorial", "1", t2)
-        emit("CALL", node.id, String.valueOf(node.arguments.size()), resultTemp);
+        emit("CALL", node.id, String.valueOf(node.arguments.size()), resultTemp.name, null, null, resultTemp);
         
-        return resultTemp;
+        results.push(resultTemp);
     }
     
     
     @Override
-    public Object visit(VariableAccess node) {
-        return node.id; 
+    public boolean enter(VariableAccess node) {
+        results.push(Operando.variable(node.getType(), node.getSlot(), node.id)); // Casilla resuelta por SemanticAnalyzer
+        return false;
     }
     
     @Override
-    public Object visit(LiteralExpression node) {
-        return node.value.toString(); 
+    public boolean enter(LiteralExpression node) {
+        // Constante: el valor ya queda como número (boolean como 1/0) para CodeGenerator
+        if (node.value instanceof Boolean) {
+            results.push(Operando.constant(Type.BOOLEAN, (Boolean) node.value ? 1 : 0, node.value.toString()));
+        } else {
+            results.push(Operando.constant(Type.INT, (Integer) node.value, node.value.toString()));
+        }
+        return false;
+    }
+
+    // =================================================================
+    // IV. CONTEO DE NOMBRES (para numerar de antemano)
+    // =================================================================
+
+    /**
+     * Temporales y etiquetas que consumirá generateFunction sobre esta función,
+     * como {temporales, etiquetas}, sin emitir código. Con estos totales se calcula el
+     * primer número de cada función y las funciones se pueden generar en paralelo con el
+     * mismo resultado que en secuencia. Debe coincidir con los newTemp()/newLabel() de arriba.
+     */
+    public static int[] countNames(FunctionDeclaration func) {
+        NameCounter counter = new NameCounter();
+        ASTWalker.walk(func.body, counter);
+        return new int[] { counter.temps, counter.labels + 1 }; // + etiqueta de retorno
+    }
+
+    private static final class NameCounter implements ASTListener {
+        int temps = 0;
+        int labels = 0;
+
+        @Override
+        public boolean enter(IfStatement node) {
+            labels += 2;
+            return true;
+        }
+
+        @Override
+        public boolean enter(WhileStatement node) {
+            labels += 2;
+            return true;
+        }
+
+        @Override
+        public boolean enter(BinaryExpression node) {
+            temps++;
+            return true;
+        }
+
+        @Override
+        public boolean enter(UnaryExpression node) {
+            temps++;
+            return true;
+        }
+
+        @Override
+        public boolean enter(FunctionCall node) {
+            temps++;
+            return true;
+        }
     }
-}
\ No newline at end of file
+}
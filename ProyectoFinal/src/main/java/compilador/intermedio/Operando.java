@@ -0,0 +1,46 @@
+package compilador.intermedio;
+
+import compilador.semantico.Type;
+
+/**
+ * Lo que se sabe de un operando de una cuádrupla además de su texto: si es una constante,
+ * una variable o un temporal, su tipo (el que anotó SemanticAnalyzer) y un número según el
+ * caso. Con esto CodeGenerator elige la instrucción sin volver a interpretar la cadena.
+ */
+public final class Operando {
+
+    public enum Kind {
+        CONSTANT,   // number: el valor (boolean como 1/0)
+        VARIABLE,   // number: casilla en el marco de la función
+        TEMPORARY   // number: el N de tN
+    }
+
+    public final Kind kind;
+    public final Type type;   // null si el AST no se analizó
+    public final int number;
+    public final String name; // El texto que aparece en la cuádrupla
+
+    public Operando(Kind kind, Type type, int number, String name) {
+        this.kind = kind;
+        this.type = type;
+        this.number = number;
+        this.name = name;
+    }
+
+    public static Operando constant(Type type, int value, String name) {
+        return new Operando(Kind.CONSTANT, type, value, name);
+    }
+
+    public static Operando variable(Type type, int slot, String name) {
+        return new Operando(Kind.VARIABLE, type, slot, name);
+    }
+
+    public static Operando temporary(Type type, int number) {
+        return new Operando(Kind.TEMPORARY, type, number, "t" + number);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
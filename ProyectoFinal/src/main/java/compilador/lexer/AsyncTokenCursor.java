@@ -0,0 +1,193 @@
+package compilador.lexer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cursor que lee y escanea la entrada en un hilo aparte mientras el Parser consume los tokens.
+ * Los tokens viajan en lotes por una cola acotada, así el hilo lector nunca se adelanta más
+ * de unos cuantos lotes y la memoria sigue acotada. Pensado para el Lexer en modo streaming.
+ * Debe cerrarse (try-with-resources) para detener el hilo si el análisis termina antes del EOF.
+ * Cualquier excepción o Error del hilo lector se vuelve a lanzar en el hilo del Parser.
+ */
+public final class AsyncTokenCursor implements TokenCursor, AutoCloseable {
+
+    private static final int BATCH_SIZE = 256;
+    private static final int QUEUE_BATCHES = 8;
+
+    // Cada cuánto el Parser revisa, mientras espera un lote, si el hilo lector sigue vivo
+    private static final long POLL_MILLIS = 100;
+
+    // Cuánto espera close() al hilo lector antes de abandonarlo
+    private static final long CLOSE_TIMEOUT_MILLIS = 500;
+
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+    private final Thread producer;
+    private volatile boolean closed = false;
+
+    private Token[] batch;
+    private int index;
+    private Token current;
+
+    // Posiciones de los tokens, escritas en el hilo del Parser al recibir cada lote; el Lexer
+    // no guarda las suyas (detachSpans), así cada posición se guarda una sola vez
+    private final SpanTable spans = new SpanTable();
+
+    public AsyncTokenCursor(Lexer lexer) {
+        lexer.detachSpans();
+        producer = new Thread(() -> produce(lexer), "lexer-reader");
+        producer.setDaemon(true);
+        producer.start();
+        nextBatch();
+        current = batch[0];
+    }
+
+    // Hilo lector: escanea lotes hasta el EOF o hasta que se cierre el cursor
+    private void produce(Lexer lexer) {
+        try {
+            Token.TokenType type;
+            do {
+                Batch next = new Batch();
+                int count = 0;
+                do {
+                    if (closed) {
+                        return;
+                    }
+                    Token token = lexer.nextToken();
+                    next.tokens[count] = token;
+                    next.offsets[count] = lexer.tokenOffset();
+                    next.columns[count] = lexer.tokenColumn();
+                    type = token.getType();
+                    count++;
+                } while (count < BATCH_SIZE && type != Token.TokenType.EOF);
+                next.count = count;
+                if (!offer(next)) {
+                    return;
+                }
+            } while (type != Token.TokenType.EOF);
+        } catch (Throwable e) {
+            // También los Error: si el hilo muriera sin avisar, el Parser esperaría para siempre
+            offer(e); // Se vuelve a lanzar en el hilo del Parser
+        }
+    }
+
+    private boolean offer(Object item) {
+        try {
+            while (!closed) {
+                if (queue.offer(item, 50, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private void nextBatch() {
+        Object item;
+        try {
+            item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            // Si el hilo terminó, todo lo que envió ya está en la cola
+            while (item == null && (producer.isAlive() || !queue.isEmpty())) {
+                item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Lectura de tokens interrumpida", e);
+        }
+        if (item == null) {
+            throw new IllegalStateException("El hilo lector terminó sin llegar al fin del archivo");
+        }
+        if (item instanceof RuntimeException) {
+            throw (RuntimeException) item;
+        }
+        if (item instanceof Error) {
+            throw (Error) item;
+        }
+        if (item instanceof Throwable) {
+            throw new IllegalStateException("Error en el hilo lector de tokens", (Throwable) item);
+        }
+        Batch next = (Batch) item;
+        for (int i = 0; i < next.count; i++) {
+            // Mismo orden que en el Lexer, así los índices de los tokens coinciden
+            spans.add(next.offsets[i], next.columns[i]);
+        }
+        batch = next.tokens;
+        index = 0;
+    }
+
+    @Override
+    public void advance() {
+        if (current.getType() == Token.TokenType.EOF) {
+            return; // Se queda en EOF, igual que el cursor empaquetado
+        }
+        if (++index == batch.length) {
+            nextBatch();
+        }
+        current = batch[index];
+    }
+
+    @Override
+    public Token.TokenType getType() {
+        return current.getType();
+    }
+
+    @Override
+    public int getLine() {
+        return current.getLine();
+    }
+
+    @Override
+    public String getLexeme() {
+        return current.getLexeme();
+    }
+
+    @Override
+    public Object getLiteralValue() {
+        return current.getLiteralValue();
+    }
+
+    @Override
+    public Token getToken() {
+        return current;
+    }
+
+    @Override
+    public int getIndex() {
+        return current.getIndex();
+    }
+
+    @Override
+    public TokenSpans getSpans() {
+        return spans;
+    }
+
+    /**
+     * Detiene el hilo lector y lo espera, así los diagnósticos que ya reportó quedan visibles.
+     * Si está bloqueado en Reader.read se lo interrumpe: un canal (Lexer(ReadableByteChannel))
+     * se cierra y la lectura termina, pero un Reader común puede no responder. En ese caso se
+     * lo abandona tras CLOSE_TIMEOUT_MILLIS (es daemon y deja de escanear en cuanto la lectura
+     * vuelva); los diagnósticos léxicos de lo que quedaba sin leer se pierden.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+        producer.interrupt();
+        try {
+            producer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Lote de tokens con sus posiciones, tal como salen del hilo lector
+    private static final class Batch {
+        final Token[] tokens = new Token[BATCH_SIZE];
+        final int[] offsets = new int[BATCH_SIZE];
+        final int[] columns = new int[BATCH_SIZE];
+        int count;
+    }
+}
@@ -0,0 +1,50 @@
+package compilador.lexer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Vista de un ByteBuffer como CharSequence (un byte = un carácter, ASCII/Latin-1).
+ * Permite que el Lexer escanee archivos mapeados en memoria sin decodificarlos a un String.
+ */
+public class ByteBufferCharSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    public ByteBufferCharSequence(ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.remaining());
+    }
+
+    private ByteBufferCharSequence(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        // Lectura absoluta: no modifica la posición del buffer
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new ByteBufferCharSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
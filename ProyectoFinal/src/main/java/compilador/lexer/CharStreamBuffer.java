@@ -0,0 +1,99 @@
+package compilador.lexer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Buffer circular que lee un Reader por bloques para el Lexer en modo streaming.
+ * Se indexa con posiciones absolutas del texto, pero solo retiene la ventana
+ * [inicio del token actual, último carácter leído]; lo anterior se sobrescribe.
+ * Así la memoria depende del tamaño del buffer y no del de la entrada
+ * (solo crece si un único token no cabe en él).
+ */
+final class CharStreamBuffer implements CharSequence {
+
+    private final Reader reader;
+    private char[] ring;
+    private int mask;
+    private int start = 0; // Posición absoluta del primer carácter retenido
+    private int end = 0;   // Posición absoluta siguiente al último carácter leído
+    private boolean eof = false;
+
+    CharStreamBuffer(Reader reader, int capacity) {
+        this.reader = reader;
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.ring = new char[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Lee el siguiente bloque conservando los caracteres desde keepFrom.
+     * Devuelve false si ya no hay más entrada.
+     */
+    boolean fill(int keepFrom) {
+        if (eof) {
+            return false;
+        }
+        start = Math.max(start, Math.min(keepFrom, end));
+        if (end - start == ring.length) {
+            grow();
+        }
+
+        // Espacio libre contiguo desde 'end' hasta el final del arreglo o hasta 'start'
+        int writeIndex = end & mask;
+        int free = ring.length - (end - start);
+        int length = Math.min(free, ring.length - writeIndex);
+        try {
+            int read;
+            do {
+                read = reader.read(ring, writeIndex, length);
+            } while (read == 0);
+            if (read < 0) {
+                eof = true;
+                return false;
+            }
+            end += read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el código fuente: " + e.getMessage(), e);
+        }
+    }
+
+    private void grow() {
+        char[] bigger = new char[ring.length * 2];
+        for (int i = start; i < end; i++) {
+            bigger[i & (bigger.length - 1)] = ring[i & mask];
+        }
+        ring = bigger;
+        mask = bigger.length - 1;
+    }
+
+    // Cantidad de caracteres leídos hasta ahora (posición absoluta)
+    @Override
+    public int length() {
+        return end;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return ring[index & mask];
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < start || to > end) {
+            throw new IndexOutOfBoundsException("Rango fuera de la ventana retenida: " + from + ".." + to);
+        }
+        char[] chars = new char[to - from];
+        for (int i = from; i < to; i++) {
+            chars[i - from] = ring[i & mask];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,86 @@
+package compilador.lexer;
+
+/**
+ * Re-escaneo incremental para el ciclo editar-compilar del editor web.
+ * A partir del flujo de tokens anterior y una edición (posición, caracteres borrados,
+ * texto insertado) vuelve a escanear solo la zona dañada: empieza al final del último
+ * token intacto y se detiene en cuanto un token nuevo coincide con el inicio de un token
+ * viejo posterior a la edición. El resto del flujo se copia desplazado.
+ */
+public class IncrementalLexer {
+
+    private IncrementalLexer() {
+    }
+
+    /**
+     * Aplica la edición y devuelve el flujo de tokens del texto resultante.
+     * El costo es proporcional al tamaño de la edición (más una copia del arreglo),
+     * no al del archivo.
+     */
+    public static PackedTokenStream relex(PackedTokenStream previous, int offset, int removedLength, String insertedText) {
+        CharSequence oldSource = previous.getSource();
+        if (offset < 0 || removedLength < 0 || offset + removedLength > oldSource.length()) {
+            throw new IllegalArgumentException("Edición fuera del texto: offset=" + offset + ", borrados=" + removedLength);
+        }
+
+        String newSource = new StringBuilder(oldSource.length() - removedLength + insertedText.length())
+                .append(oldSource, 0, offset)
+                .append(insertedText)
+                .append(oldSource, offset + removedLength, oldSource.length())
+                .toString();
+
+        int startDelta = insertedText.length() - removedLength;
+        int lineDelta = countNewlines(insertedText, 0, insertedText.length())
+                - countNewlines(oldSource, offset, offset + removedLength);
+        int newEditEnd = offset + insertedText.length();
+
+        // 1. Tokens intactos: todos los que terminan antes de la edición
+        int firstDamaged = previous.indexEndingAtOrAfter(offset);
+        PackedTokenStream result = new PackedTokenStream(newSource, previous.getNames(),
+                previous.size() + insertedText.length() + 1);
+        result.addShifted(previous, 0, firstDamaged, 0, 0);
+
+        // 2. Re-escanear desde el final del último token intacto (el Lexer no guarda estado ahí)
+        int restart = 0;
+        int restartLine = 1;
+        if (firstDamaged > 0) {
+            restart = previous.getStart(firstDamaged - 1) + previous.getLength(firstDamaged - 1);
+            restartLine = previous.getLine(firstDamaged - 1);
+        }
+        Lexer lexer = new Lexer(newSource, restart, restartLine, previous.getNames());
+
+        int oldIndex = firstDamaged;
+        int lastOld = previous.size() - 1; // EOF
+        while (true) {
+            int newIndex = result.size();
+            int start = lexer.scanInto(result);
+            if (result.getType(newIndex) == Token.TokenType.EOF) {
+                return result;
+            }
+            if (start < newEditEnd) {
+                continue;
+            }
+
+            // 3. ¿Empieza donde empezaba un token viejo posterior a la edición? Entonces resincronizó
+            int oldStart = start - startDelta;
+            while (oldIndex < lastOld && previous.getStart(oldIndex) < oldStart) {
+                oldIndex++;
+            }
+            if (oldIndex < lastOld && previous.getStart(oldIndex) == oldStart) {
+                result.truncate(newIndex);
+                result.addShifted(previous, oldIndex, previous.size(), startDelta, lineDelta);
+                return result;
+            }
+        }
+    }
+
+    private static int countNewlines(CharSequence text, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,95 @@
+package compilador.lexer;
+
+import java.util.Map;
+
+/**
+ * Reconocedor de palabras clave con hash perfecto sobre el texto fuente.
+ * El hash combina la longitud y dos caracteres del rango, así se decide con una sola
+ * comparación de caracteres si un identificador es palabra clave, sin crear su String.
+ */
+final class Keywords {
+
+    private static final int MAX_LENGTH;
+    // Multiplicadores del hash, buscados al cargar la clase para que no haya colisiones
+    private static final int FIRST_FACTOR;
+    private static final int LAST_FACTOR;
+    private static final int MASK;
+
+    private static final String[] WORDS;
+    private static final Token.TokenType[] TYPES;
+
+    private Keywords() {
+    }
+
+    static {
+        Map<String, Token.TokenType> keywords = Lexer.keywordMap();
+        int maxLength = 0;
+        for (String keyword : keywords.keySet()) {
+            maxLength = Math.max(maxLength, keyword.length());
+        }
+        MAX_LENGTH = maxLength;
+
+        // Tabla de potencia de 2 con al menos el doble de casillas que palabras clave
+        int size = Integer.highestOneBit(Math.max(1, keywords.size() * 2 - 1)) << 1;
+        int first = -1, last = -1;
+        String[] words = null;
+        search:
+        while (true) {
+            for (int a = 1; a < 64; a++) {
+                for (int b = 0; b < 64; b++) {
+                    words = new String[size];
+                    boolean collision = false;
+                    for (String keyword : keywords.keySet()) {
+                        int slot = hash(keyword, 0, keyword.length(), a, b, size - 1);
+                        if (words[slot] != null) {
+                            collision = true;
+                            break;
+                        }
+                        words[slot] = keyword;
+                    }
+                    if (!collision) {
+                        first = a;
+                        last = b;
+                        break search;
+                    }
+                }
+            }
+            size <<= 1;
+        }
+        FIRST_FACTOR = first;
+        LAST_FACTOR = last;
+        MASK = size - 1;
+        WORDS = words;
+        TYPES = new Token.TokenType[size];
+        for (int i = 0; i < size; i++) {
+            if (words[i] != null) {
+                TYPES[i] = keywords.get(words[i]);
+            }
+        }
+    }
+
+    private static int hash(CharSequence text, int start, int length, int first, int last, int mask) {
+        return (length + text.charAt(start) * first + text.charAt(start + length - 1) * last) & mask;
+    }
+
+    /**
+     * Devuelve el tipo de palabra clave de text[start, end) o null si es un identificador.
+     */
+    static Token.TokenType match(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length > MAX_LENGTH) {
+            return null;
+        }
+        int slot = hash(text, start, length, FIRST_FACTOR, LAST_FACTOR, MASK);
+        String candidate = WORDS[slot];
+        if (candidate == null || candidate.length() != length) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(start + i) != candidate.charAt(i)) {
+                return null;
+            }
+        }
+        return TYPES[slot];
+    }
+}
@@ -1,14 +1,47 @@
 package compilador.lexer;
 
+import compilador.diagnostico.DiagnosticCollector;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 
 public class Lexer {
-    private final String sourceCode;
+    private final CharSequence sourceCode;
+    private int sourceLength; // En modo streaming crece con cada bloque leído
+    private final CharStreamBuffer stream; // null si el texto está completo en memoria
     private int currentPosition = 0;
     private int currentLine = 1;
+    private int lineStart = 0; // Posición donde empieza la línea actual (para columnas)
     private char currentChar;
 
+    // Si es null los errores léxicos se imprimen en System.err (modo clásico)
+    private DiagnosticCollector diagnostics;
+
+    // Datos del último token reconocido por scanToken() (sin crear objetos)
+    private int tokenStart;
+    private int tokenLine;
+    // Verdadero mientras se saltan blancos y comentarios: no hay token en curso que conservar
+    private boolean skipping;
+
+    // Identificadores internados: cada nombre se crea una sola vez por compilación
+    private final NameTable names;
+
+    // Offset y columna de los tokens entregados por nextToken(); null si las guarda quien
+    // consume los tokens (AsyncTokenCursor), y entonces solo se cuentan para numerarlos
+    private SpanTable spans = new SpanTable();
+    private int tokenCount = 0;
+
+    private static final int DEFAULT_STREAM_BUFFER = 8192;
+
     //palabras reservadas
     private static final Map<String, Token.TokenType> keywords;
 
@@ -25,37 +58,136 @@ public class Lexer {
     }
 
     public Lexer(String sourceCode) {
+        this((CharSequence) sourceCode);
+    }
+
+    /**
+     * Escanea cualquier secuencia de caracteres sin copiarla (String, StringBuilder, CharBuffer...).
+     */
+    public Lexer(CharSequence sourceCode) {
+        this(sourceCode, 0, 1, new NameTable());
+    }
+
+    /**
+     * Empieza a escanear en una posición donde termina un token (o al inicio de una línea),
+     * que es donde el Lexer no arrastra estado. Lo usa el re-escaneo incremental.
+     */
+    Lexer(CharSequence sourceCode, int startPosition, int startLine, NameTable names) {
+        this(sourceCode, startPosition, sourceCode.length(), startLine, names);
+    }
+
+    /**
+     * Escanea solo el rango [startPosition, endPosition) conservando posiciones absolutas.
+     * endPosition debe quedar justo después de un salto de línea (o al final del texto).
+     * Lo usa el escaneo en paralelo por bloques.
+     */
+    Lexer(CharSequence sourceCode, int startPosition, int endPosition, int startLine, NameTable names) {
         this.sourceCode = sourceCode;
-        if (!sourceCode.isEmpty()) {
-            this.currentChar = sourceCode.charAt(0);
+        this.sourceLength = endPosition;
+        this.stream = null;
+        this.names = names;
+        this.currentPosition = startPosition;
+        this.currentLine = startLine;
+        // Retroceder hasta el salto de línea anterior para poder calcular columnas
+        int start = Math.min(startPosition, sourceLength);
+        while (start > 0 && sourceCode.charAt(start - 1) != '\n') {
+            start--;
+        }
+        this.lineStart = start;
+        if (startPosition < sourceLength) {
+            this.currentChar = sourceCode.charAt(startPosition);
         } else {
             this.currentChar = '\0'; // Carácter nulo para archivo vacío
         }
     }
 
+    /**
+     * Escanea un buffer de bytes (ASCII/Latin-1), por ejemplo un archivo mapeado en memoria.
+     */
+    public Lexer(ByteBuffer buffer) {
+        this(new ByteBufferCharSequence(buffer));
+    }
+
+    /**
+     * Modo streaming: lee la entrada por bloques a través de un buffer circular reutilizable,
+     * así la memoria máxima depende del tamaño del buffer y no del tamaño del programa.
+     * Los tokens se producen a medida que el Parser los pide, intercalando lectura y análisis.
+     */
+    public Lexer(Reader reader) {
+        this(reader, DEFAULT_STREAM_BUFFER);
+    }
+
+    public Lexer(Reader reader, int bufferSize) {
+        this.stream = new CharStreamBuffer(reader, bufferSize);
+        this.sourceCode = stream;
+        this.sourceLength = 0;
+        this.names = new NameTable();
+        this.currentChar = fill() ? sourceCode.charAt(0) : '\0';
+    }
+
+    // Canal de bytes en UTF-8 (por ejemplo el cuerpo de una petición o un archivo)
+    public Lexer(ReadableByteChannel channel) {
+        this(Channels.newReader(channel, StandardCharsets.UTF_8), DEFAULT_STREAM_BUFFER);
+    }
+
+    /**
+     * Mapea el archivo en memoria y crea un Lexer sobre él sin leerlo a un String.
+     */
+    public static Lexer fromFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Lexer(mapped);
+        }
+    }
+
+    /**
+     * Activa el modo que acumula los errores léxicos en lugar de imprimirlos.
+     */
+    public Lexer setDiagnostics(DiagnosticCollector diagnostics) {
+        this.diagnostics = diagnostics;
+        return this;
+    }
+
+    // Pide el siguiente bloque en modo streaming, conservando el token en curso (o, al saltar
+    // blancos y comentarios, solo el carácter actual: si no, un comentario largo haría crecer el buffer)
+    private boolean fill() {
+        if (stream == null) {
+            return false;
+        }
+        boolean more = stream.fill(skipping ? currentPosition : tokenStart);
+        sourceLength = stream.length();
+        return more;
+    }
+
     // Método auxiliar para avanzar la posición y actualizar currentChar
     private void advance() {
         currentPosition++;
-        if (currentPosition < sourceCode.length()) {
+        if (currentPosition < sourceLength || fill()) {
             currentChar = sourceCode.charAt(currentPosition);
         } else {
             currentChar = '\0'; // Representa el EOF (End Of File)
         }
     }
 
-    
+
     private void skipWhitespace() {
         while (currentChar != '\0') { // Mientras no sea fin de archivo
-            
-            if (Character.isWhitespace(currentChar) || currentChar == '\n' || currentChar == '\r') {
-                // Es espacio en blanco, tabulación o salto de línea
-                if (currentChar == '\n') {
-                    currentLine++;
-                }
+
+            // Clase del carácter por tabla; fuera de ASCII se consulta Character
+            byte charClass = currentChar < LexerTables.ASCII
+                    ? LexerTables.CHAR_CLASS[currentChar]
+                    : (Character.isWhitespace(currentChar) ? LexerTables.WHITESPACE : LexerTables.OTHER);
+
+            if (charClass == LexerTables.WHITESPACE) {
+                // Es espacio en blanco o tabulación
                 advance();
-            } else if (currentChar == '/') {
+            } else if (charClass == LexerTables.NEWLINE) {
+                currentLine++;
+                advance();
+                lineStart = currentPosition;
+            } else if (charClass == LexerTables.SLASH) {
                 // Podría ser un comentario (//) o una división (/)
-                if (currentPosition + 1 < sourceCode.length() && sourceCode.charAt(currentPosition + 1) == '/') {
+                if ((currentPosition + 1 < sourceLength || fill()) && sourceCode.charAt(currentPosition + 1) == '/') {
                     // Es un comentario de línea (//), lo saltamos
                     skipLineComment();
                 } else {
@@ -64,12 +196,12 @@ public class Lexer {
                 }
             } else {
                 // No es ni whitespace ni comentario, salimos del bucle.
-                break; 
+                break;
             }
         }
     }
 
-    
+
     private void skipLineComment() {
         // Avanza hasta que encuentre el salto de línea o el fin de archivo
         while (currentChar != '\n' && currentChar != '\0') {
@@ -77,135 +209,177 @@ public class Lexer {
         }
     }
 
-    
 
 
-    
+
+
     public Token nextToken() {
-        skipWhitespace(); // <- Esta llamada ahora también ignora comentarios
+        Token.TokenType type = scanToken();
+        // Los tokens no cruzan líneas, así que lineStart es el inicio de la línea del token
+        int index = spans != null ? spans.add(tokenStart, tokenColumn()) : tokenCount++;
 
-        if (currentChar == '\0') {
-            return new Token(Token.TokenType.EOF, "", null, currentLine);
+        switch (type) {
+            case ID:
+                return new Token(type, names.intern(sourceCode, tokenStart, currentPosition), null, tokenLine, index);
+            case ERROR:
+                return new Token(type, currentLexeme(), null, tokenLine, index);
+            case INTEGER_LITERAL:
+                String lexeme = currentLexeme();
+                return new Token(type, lexeme, Integer.valueOf(lexeme), tokenLine, index);
+            default:
+                // Palabras clave, operadores y EOF tienen un lexema fijo
+                return new Token(type, type.getLexeme(), null, tokenLine, index);
         }
+    }
+
+    public SpanTable getSpans() {
+        return spans;
+    }
+
+    /**
+     * Deja de acumular posiciones: el consumidor las copia de tokenOffset()/tokenColumn()
+     * después de cada nextToken(). Evita guardar cada posición dos veces.
+     */
+    void detachSpans() {
+        spans = null;
+    }
 
-        // --- MANEJO DE IDENTIFICADORES Y PALABRAS CLAVE ---
-        if (Character.isLetter(currentChar)) {
-            return scanIdentifierOrKeyword();
+    // Posición del último token entregado por nextToken()
+    int tokenOffset() {
+        return tokenStart;
+    }
+
+    int tokenColumn() {
+        return tokenStart - lineStart + 1;
+    }
+
+    /**
+     * Modo empaquetado: escanea toda la entrada y guarda los tokens en un arreglo de enteros,
+     * sin crear objetos Token ni lexemas. El último token del flujo siempre es EOF.
+     */
+    public PackedTokenStream tokenize() {
+        if (stream != null) {
+            // Los lexemas se materializan después, así que el texto no puede descartarse
+            throw new IllegalStateException("El modo empaquetado requiere el código fuente completo en memoria");
         }
+        PackedTokenStream tokens = new PackedTokenStream(sourceCode, names);
+        Token.TokenType type;
+        do {
+            type = scanToken();
+            tokens.add(type, tokenStart, currentPosition - tokenStart, tokenLine);
+        } while (type != Token.TokenType.EOF);
+        return tokens;
+    }
+
+    /**
+     * Escanea un solo token y lo agrega al flujo. Devuelve la posición de inicio del token.
+     */
+    int scanInto(PackedTokenStream stream) {
+        Token.TokenType type = scanToken();
+        stream.add(type, tokenStart, currentPosition - tokenStart, tokenLine);
+        return tokenStart;
+    }
+
+    private String currentLexeme() {
+        return sourceCode.subSequence(tokenStart, currentPosition).toString();
+    }
+
+    /**
+     * Reconoce el siguiente token y devuelve solo su tipo. El token ocupa
+     * [tokenStart, currentPosition) y empieza en la línea tokenLine.
+     * Recorre el AFD de LexerTables y se queda con la última aceptación (coincidencia más larga).
+     */
+    private Token.TokenType scanToken() {
+        skipping = true;
+        skipWhitespace(); // <- Esta llamada ahora también ignora comentarios
+        skipping = false;
 
-        // --- MANEJO DE NÚMEROS (LITERALES ENTEROS) ---
-        if (Character.isDigit(currentChar)) {
-            return scanNumber();
+        tokenStart = currentPosition;
+        tokenLine = currentLine;
+
+        if (currentChar == '\0') {
+            return Token.TokenType.EOF;
         }
 
-        // --- MANEJO DE SÍMBOLOS Y OPERADORES DE UN CARÁCTER ---
-        Token token = scanSingleCharacterSymbol();
-        if (token != null) {
-            return token;
+        final int[] transitions = LexerTables.TRANSITIONS;
+        final Token.TokenType[] accept = LexerTables.ACCEPT;
+
+        int state = LexerTables.START;
+        int position = currentPosition;
+        Token.TokenType acceptedType = null;
+        int acceptedEnd = position;
+
+        while (position < sourceLength || fill()) {
+            char c = sourceCode.charAt(position);
+            int next = c < LexerTables.ASCII
+                    ? transitions[state * LexerTables.ASCII + c]
+                    : LexerTables.nonAsciiTransition(state, c);
+            if (next == LexerTables.DEAD) {
+                break;
+            }
+            state = next;
+            position++;
+            if (accept[state] != null) {
+                acceptedType = accept[state];
+                acceptedEnd = position;
+            }
         }
 
         // --- MANEJO DE ERRORES ---
-        int startLine = currentLine;
-        String errorLexeme = String.valueOf(currentChar);
-        advance();
-        System.err.println("Error Léxico en línea " + startLine + ": Caracter ilegal '" + errorLexeme + "'");
-        return new Token(Token.TokenType.ERROR, errorLexeme, null, startLine);
-    }
+        // El token de error cubre solo el carácter ilegal (un '&' o '|' aislado incluido)
+        if (acceptedType == null) {
+            moveTo(tokenStart + 1);
+            reportError("LEX001", "Error Léxico en línea " + tokenLine + ": Caracter ilegal '" + currentLexeme() + "'");
+            return Token.TokenType.ERROR;
+        }
 
-    // --- MÉTODOS DE ESCANEO ESPECÍFICOS ---
+        moveTo(acceptedEnd);
 
-    private Token scanIdentifierOrKeyword() {
-        int start = currentPosition;
-        while (Character.isLetterOrDigit(currentChar)) {
-            advance();
+        if (acceptedType == Token.TokenType.ID) {
+            // Palabra clave o identificador, decidido sobre el rango sin crear el lexema
+            Token.TokenType keyword = Keywords.match(sourceCode, tokenStart, acceptedEnd);
+            return keyword != null ? keyword : Token.TokenType.ID;
         }
-        String lexeme = sourceCode.substring(start, currentPosition);
-        
-        // 1. Verificar si es una Palabra Clave
-        Token.TokenType type = keywords.get(lexeme);
 
-        // 2. Si no es Palabra Clave, es un Identificador
-        if (type == null) {
-            type = Token.TokenType.ID;
+        if (acceptedType == Token.TokenType.INTEGER_LITERAL && !fitsInInt(tokenStart, acceptedEnd)) {
+            // Manejo de números demasiado grandes para 'int'
+            reportError("LEX002", "Error Léxico en línea " + currentLine + ": Número fuera de rango.");
+            return Token.TokenType.ERROR;
         }
-
-        return new Token(type, lexeme, null, currentLine);
+        return acceptedType;
     }
 
-    private Token scanNumber() {
-        int start = currentPosition;
-        while (Character.isDigit(currentChar)) {
-            advance();
+    /**
+     * Registra el error en el colector si hay uno; si no, lo imprime como antes.
+     * El colector evita que ráfagas de entradas mal formadas serialicen los hilos en System.err.
+     */
+    private void reportError(String code, String message) {
+        if (diagnostics != null) {
+            diagnostics.report(code, message, tokenLine, tokenStart - lineStart + 1, tokenStart);
+        } else {
+            System.err.println(message);
         }
-        String lexeme = sourceCode.substring(start, currentPosition);
-        
-        // Intentar parsear el valor literal
-        try {
-            int value = Integer.parseInt(lexeme);
-            return new Token(Token.TokenType.INTEGER_LITERAL, lexeme, value, currentLine);
-        } catch (NumberFormatException e) {
-            // Manejo de números demasiado grandes para 'int'
-            System.err.println("Error Léxico en línea " + currentLine + ": Número fuera de rango.");
-            return new Token(Token.TokenType.ERROR, lexeme, null, currentLine);
-        }
-    }
-
-    private Token scanSingleCharacterSymbol() {
-        int startLine = currentLine;
-        char c = currentChar;
-        
-        switch (c) {
-            case '+': advance(); return new Token(Token.TokenType.PLUS, "+", null, startLine);
-            case '-': advance(); return new Token(Token.TokenType.MINUS, "-", null, startLine);
-            case '*': advance(); return new Token(Token.TokenType.MULT, "*", null, startLine);
-            
-            
-            
-            case '/': advance(); return new Token(Token.TokenType.DIV, "/", null, startLine);
-            
-            case ';': advance(); return new Token(Token.TokenType.SEMICOLON, ";", null, startLine);
-            case ',': advance(); return new Token(Token.TokenType.COMMA, ",", null, startLine);
-            case '(': advance(); return new Token(Token.TokenType.LPAREN, "(", null, startLine);
-            case ')': advance(); return new Token(Token.TokenType.RPAREN, ")", null, startLine);
-            case '{': advance(); return new Token(Token.TokenType.LBRACE, "{", null, startLine);
-            case '}': advance(); return new Token(Token.TokenType.RBRACE, "}", null, startLine);
-            case '!': // ! o !=
-                advance();
-                if (currentChar == '=') {
-                    advance(); return new Token(Token.TokenType.NEQ, "!=", null, startLine);
-                }
-                return new Token(Token.TokenType.NOT, "!", null, startLine);
-            case '=': // = o ==
-                advance();
-                if (currentChar == '=') {
-                    advance(); return new Token(Token.TokenType.EQ, "==", null, startLine);
-                }
-                return new Token(Token.TokenType.ASSIGN, "=", null, startLine);
-            case '<': // < o <=
-                advance();
-                if (currentChar == '=') {
-                    advance(); return new Token(Token.TokenType.LTE, "<=", null, startLine);
-                }
-                return new Token(Token.TokenType.LT, "<", null, startLine);
-            case '>': // > o >=
-                advance();
-                if (currentChar == '=') {
-                    advance(); return new Token(Token.TokenType.GTE, ">=", null, startLine);
-                }
-                return new Token(Token.TokenType.GT, ">", null, startLine);
-            case '&': // &&
-                advance();
-                if (currentChar == '&') {
-                    advance(); return new Token(Token.TokenType.AND, "&&", null, startLine);
-                }
-                break; // Error si es solo un &
-            case '|': // ||
-                advance();
-                if (currentChar == '|') {
-                    advance(); return new Token(Token.TokenType.OR, "||", null, startLine);
-                }
-                break; // Error si es solo un |
+    }
+
+    // Coloca el cursor en una posición ya escaneada (los tokens nunca cruzan saltos de línea)
+    private void moveTo(int position) {
+        currentPosition = position;
+        currentChar = (position < sourceLength || fill()) ? sourceCode.charAt(position) : '\0';
+    }
+
+    private boolean fitsInInt(int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + Character.digit(sourceCode.charAt(i), 10);
+            if (value > Integer.MAX_VALUE) {
+                return false;
+            }
         }
-        return null; // No es un token de un solo carácter conocido.
+        return true;
+    }
+
+    // Fuente del hash perfecto de palabras clave (Keywords)
+    static Map<String, Token.TokenType> keywordMap() {
+        return keywords;
     }
-}
\ No newline at end of file
+}
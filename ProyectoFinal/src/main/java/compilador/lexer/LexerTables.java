@@ -0,0 +1,130 @@
+package compilador.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Tablas precalculadas del Lexer: clases de caracteres ASCII y el AFD (autómata finito
+ * determinista) que reconoce operadores, identificadores y números.
+ * Se construyen una sola vez a partir de Token.TokenType, así el bucle principal del
+ * Lexer solo hace consultas a arreglos. Las palabras clave se separan de los
+ * identificadores con el hash perfecto de Keywords.
+ */
+final class LexerTables {
+
+    static final int ASCII = 128;
+
+    // --- Clases de caracteres para saltar espacios ---
+    static final byte OTHER = 0;
+    static final byte WHITESPACE = 1; // Character.isWhitespace excepto '\n'
+    static final byte NEWLINE = 2;
+    static final byte SLASH = 3;      // Posible inicio de comentario '//'
+
+    static final byte[] CHAR_CLASS = new byte[ASCII];
+
+    // --- Estados del AFD ---
+    static final int DEAD = 0;        // Sin transición (valor por defecto de los arreglos)
+    static final int START = 1;
+    static final int IDENTIFIER = 2;
+    static final int NUMBER = 3;
+
+    // TRANSITIONS[estado * ASCII + c] = siguiente estado
+    static final int[] TRANSITIONS;
+    // Tipo de token aceptado al terminar en cada estado (null si no acepta)
+    static final Token.TokenType[] ACCEPT;
+
+    private static int stateCount;
+    private static int[] transitions;
+    private static Token.TokenType[] accept;
+
+    private LexerTables() {
+    }
+
+    static {
+        for (char c = 0; c < ASCII; c++) {
+            if (c == '\n') {
+                CHAR_CLASS[c] = NEWLINE;
+            } else if (Character.isWhitespace(c) || c == '\r') {
+                CHAR_CLASS[c] = WHITESPACE;
+            } else if (c == '/') {
+                CHAR_CLASS[c] = SLASH;
+            }
+        }
+
+        transitions = new int[16 * ASCII];
+        accept = new Token.TokenType[16];
+        stateCount = 0;
+        newState(null);                         // DEAD
+        newState(null);                         // START
+        newState(Token.TokenType.ID);           // IDENTIFIER
+        newState(Token.TokenType.INTEGER_LITERAL); // NUMBER
+
+        // Las palabras clave se reconocen como identificadores y se separan después con
+        // el hash perfecto de Keywords, sin recorrer un estado por letra
+        for (char c = 0; c < ASCII; c++) {
+            if (Character.isLetter(c)) {
+                setTransition(START, c, IDENTIFIER);
+            }
+            if (Character.isLetterOrDigit(c)) {
+                setTransition(IDENTIFIER, c, IDENTIFIER);
+            }
+            if (Character.isDigit(c)) {
+                setTransition(START, c, NUMBER);
+                setTransition(NUMBER, c, NUMBER);
+            }
+        }
+
+        // Operadores y signos de puntuación: lexemas fijos que no empiezan con letra
+        for (Token.TokenType type : Token.TokenType.values()) {
+            String lexeme = type.getLexeme();
+            if (lexeme == null || lexeme.isEmpty() || Character.isLetter(lexeme.charAt(0))) {
+                continue;
+            }
+            int state = START;
+            for (int i = 0; i < lexeme.length(); i++) {
+                int next = transitions[state * ASCII + lexeme.charAt(i)];
+                if (next == DEAD) {
+                    next = newState(null);
+                    setTransition(state, lexeme.charAt(i), next);
+                }
+                state = next;
+            }
+            accept[state] = type;
+        }
+
+        TRANSITIONS = Arrays.copyOf(transitions, stateCount * ASCII);
+        ACCEPT = Arrays.copyOf(accept, stateCount);
+        transitions = null;
+        accept = null;
+    }
+
+    private static int newState(Token.TokenType accepted) {
+        if (stateCount == accept.length) {
+            transitions = Arrays.copyOf(transitions, transitions.length * 2);
+            accept = Arrays.copyOf(accept, accept.length * 2);
+        }
+        accept[stateCount] = accepted;
+        return stateCount++;
+    }
+
+    private static void setTransition(int from, char c, int to) {
+        transitions[from * ASCII + c] = to;
+    }
+
+    /**
+     * Respaldo para caracteres fuera de ASCII: mismas reglas que Character.isLetter/isDigit.
+     */
+    static int nonAsciiTransition(int state, char c) {
+        if (state == START) {
+            if (Character.isLetter(c)) return IDENTIFIER;
+            if (Character.isDigit(c)) return NUMBER;
+            return DEAD;
+        }
+        if (state == NUMBER) {
+            return Character.isDigit(c) ? NUMBER : DEAD;
+        }
+        if (state == IDENTIFIER) {
+            return Character.isLetterOrDigit(c) ? IDENTIFIER : DEAD;
+        }
+        return DEAD;
+    }
+}
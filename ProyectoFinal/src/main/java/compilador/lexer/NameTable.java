@@ -0,0 +1,108 @@
+package compilador.lexer;
+
+/**
+ * Tabla de nombres para internar identificadores directamente desde el texto fuente.
+ * Busca por rango de caracteres sin crear un String; solo la primera aparición de cada
+ * nombre se materializa y las siguientes reutilizan la misma instancia en todo el AST.
+ * No es segura entre hilos: cada hilo que interna nombres necesita su propia tabla. Para
+ * que varios hilos obtengan igual las mismas instancias, cada uno usa una tabla local
+ * creada con new NameTable(compartida): sus aciertos no se sincronizan y solo la primera
+ * vez que ve un nombre consulta la compartida, bloqueándola.
+ */
+public class NameTable {
+
+    private String[] names;
+    private int[] hashes;
+    private int size;
+
+    // Tabla común a la que se piden los nombres nuevos (null: esta tabla crea los String)
+    private final NameTable shared;
+
+    public NameTable() {
+        this(null);
+    }
+
+    /**
+     * Tabla local de un hilo: los nombres que no tiene los toma de 'shared', así todos los
+     * hilos que comparten esa tabla devuelven la misma instancia para el mismo nombre.
+     * Mientras haya tablas locales en uso, 'shared' solo debe usarse a través de ellas.
+     */
+    public NameTable(NameTable shared) {
+        this.names = new String[64];
+        this.hashes = new int[64];
+        this.shared = shared;
+    }
+
+    /**
+     * Devuelve la instancia canónica del nombre text[start, end).
+     */
+    public String intern(CharSequence text, int start, int end) {
+        // Mismo hash que String.hashCode()
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+
+        int mask = names.length - 1;
+        int slot = mix(hash) & mask;
+        while (names[slot] != null) {
+            if (hashes[slot] == hash && sameChars(names[slot], text, start, end)) {
+                return names[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        String name;
+        if (shared != null) {
+            synchronized (shared) {
+                name = shared.intern(text, start, end);
+            }
+        } else {
+            name = text.subSequence(start, end).toString();
+        }
+        names[slot] = name;
+        hashes[slot] = hash;
+        if (++size * 2 > names.length) {
+            grow();
+        }
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean sameChars(String name, CharSequence text, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (name.charAt(i - start) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void grow() {
+        String[] oldNames = names;
+        int[] oldHashes = hashes;
+        names = new String[oldNames.length * 2];
+        hashes = new int[oldNames.length * 2];
+        int mask = names.length - 1;
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null) {
+                int slot = mix(oldHashes[i]) & mask;
+                while (names[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                names[slot] = oldNames[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+}
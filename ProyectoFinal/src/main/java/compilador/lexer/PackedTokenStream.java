@@ -0,0 +1,288 @@
+package compilador.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Flujo de tokens empaquetado en un solo arreglo de enteros.
+ * Cada token ocupa STRIDE posiciones: (tipo, inicio, longitud, línea).
+ * Los lexemas y valores literales se obtienen del texto fuente solo cuando se piden.
+ */
+public class PackedTokenStream implements TokenSpans {
+
+    private static final int TYPE = 0;
+    private static final int START = 1;
+    private static final int LENGTH = 2;
+    private static final int LINE = 3;
+    private static final int STRIDE = 4;
+
+    private static final Token.TokenType[] TYPES = Token.TokenType.values();
+
+    private final CharSequence source;
+    private final NameTable names;
+    private int[] data;
+    private int size;
+    // Inicio de cada línea, calculado la primera vez que se pide una columna. Es volatile
+    // porque los analizadores paralelos piden columnas a la vez: a lo sumo se calcula dos
+    // veces, pero ningún hilo ve un arreglo a medio llenar.
+    private volatile int[] lineStarts;
+
+    public PackedTokenStream(CharSequence source, NameTable names) {
+        // Estimación inicial: un token cada ~4 caracteres
+        this(source, names, source.length() / 4);
+    }
+
+    PackedTokenStream(CharSequence source, NameTable names, int expectedTokens) {
+        this.source = source;
+        this.names = names;
+        this.data = new int[Math.max(16, expectedTokens) * STRIDE];
+    }
+
+    void add(Token.TokenType type, int start, int length, int line) {
+        int base = size * STRIDE;
+        if (base + STRIDE > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[base + TYPE] = type.ordinal();
+        data[base + START] = start;
+        data[base + LENGTH] = length;
+        data[base + LINE] = line;
+        size++;
+    }
+
+    /**
+     * Copia los tokens [fromIndex, toIndex) de otro flujo desplazando posiciones y líneas.
+     */
+    void addShifted(PackedTokenStream from, int fromIndex, int toIndex, int startDelta, int lineDelta) {
+        int count = toIndex - fromIndex;
+        int needed = (size + count) * STRIDE;
+        if (needed > data.length) {
+            data = Arrays.copyOf(data, Math.max(needed, data.length * 2));
+        }
+        System.arraycopy(from.data, fromIndex * STRIDE, data, size * STRIDE, count * STRIDE);
+        for (int i = size; i < size + count; i++) {
+            data[i * STRIDE + START] += startDelta;
+            data[i * STRIDE + LINE] += lineDelta;
+        }
+        size += count;
+    }
+
+    // Descarta los tokens desde el índice dado
+    void truncate(int newSize) {
+        size = Math.min(size, newSize);
+    }
+
+    /**
+     * Índice del primer token que termina en o después de la posición (búsqueda binaria).
+     */
+    public int indexEndingAtOrAfter(int position) {
+        int low = 0, high = size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getStart(mid) + getLength(mid) >= position) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    NameTable getNames() {
+        return names;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public CharSequence getSource() {
+        return source;
+    }
+
+    public Token.TokenType getType(int index) {
+        return TYPES[data[index * STRIDE + TYPE]];
+    }
+
+    public int getStart(int index) {
+        return data[index * STRIDE + START];
+    }
+
+    public int getLength(int index) {
+        return data[index * STRIDE + LENGTH];
+    }
+
+    public int getLine(int index) {
+        return data[index * STRIDE + LINE];
+    }
+
+    @Override
+    public int getOffset(int index) {
+        return getStart(index);
+    }
+
+    /**
+     * Columna a partir del inicio de la línea del token; el índice de líneas se arma
+     * una sola vez por flujo, así los tokens no necesitan guardar la columna.
+     */
+    @Override
+    public int getColumn(int index) {
+        int[] starts = lineStarts;
+        if (starts == null) {
+            starts = buildLineStarts();
+            lineStarts = starts;
+        }
+        return getStart(index) - starts[getLine(index) - 1] + 1;
+    }
+
+    private int[] buildLineStarts() {
+        int[] starts = new int[64];
+        int lines = 1;
+        int length = source.length();
+        for (int i = 0; i < length; i++) {
+            if (source.charAt(i) == '\n') {
+                if (lines == starts.length) {
+                    starts = Arrays.copyOf(starts, lines * 2);
+                }
+                starts[lines++] = i + 1;
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Materializa el lexema del token. Los tipos con lexema fijo no leen el texto fuente
+     * y los identificadores salen internados de la tabla de nombres.
+     */
+    public String getLexeme(int index) {
+        return getLexeme(index, names);
+    }
+
+    // NameTable no es segura entre hilos: quien lee el flujo en paralelo pasa su propia tabla
+    private String getLexeme(int index, NameTable table) {
+        Token.TokenType type = getType(index);
+        String fixed = type.getLexeme();
+        if (fixed != null) {
+            return fixed;
+        }
+        int start = getStart(index);
+        if (type == Token.TokenType.ID) {
+            return table.intern(source, start, start + getLength(index));
+        }
+        return source.subSequence(start, start + getLength(index)).toString();
+    }
+
+    /**
+     * Valor de un INTEGER_LITERAL calculado directamente sobre el texto fuente; null para otros tipos.
+     */
+    public Object getLiteralValue(int index) {
+        if (getType(index) != Token.TokenType.INTEGER_LITERAL) {
+            return null;
+        }
+        return getIntValue(index);
+    }
+
+    // Valor de un INTEGER_LITERAL sin crear el Integer
+    public int getIntValue(int index) {
+        int start = getStart(index);
+        int end = start + getLength(index);
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + Character.digit(source.charAt(i), 10);
+        }
+        return value;
+    }
+
+    /**
+     * Crea el Token clásico equivalente (para código que aún usa la API de objetos).
+     */
+    public Token toToken(int index) {
+        return toToken(index, names);
+    }
+
+    private Token toToken(int index, NameTable table) {
+        return new Token(getType(index), getLexeme(index, table), getLiteralValue(index), getLine(index), index);
+    }
+
+    /**
+     * Cursor para que el Parser recorra el flujo sin crear un Token por posición.
+     */
+    public TokenCursor cursor() {
+        return cursor(0, size - 1);
+    }
+
+    /**
+     * Cursor sobre los tokens [from, to): al llegar a 'to' se comporta como EOF.
+     * Sirve para reconocer un tramo del programa (p. ej. unas funciones) por separado;
+     * los índices de los tokens siguen siendo los de este flujo.
+     */
+    public TokenCursor cursor(int from, int to) {
+        return cursor(from, to, names);
+    }
+
+    /**
+     * Como cursor(from, to), para uno de varios hilos que recorren el flujo a la vez. Interna
+     * en una tabla local que pide los nombres nuevos a la del flujo, así un identificador es
+     * la misma instancia de String en todos los tramos, igual que con un solo cursor.
+     */
+    public TokenCursor concurrentCursor(int from, int to) {
+        return cursor(from, to, new NameTable(names));
+    }
+
+    /**
+     * Como cursor(from, to), pero internando los identificadores en la tabla dada. Varios
+     * hilos pueden recorrer el mismo flujo a la vez si cada uno usa su propia tabla.
+     */
+    public TokenCursor cursor(int from, int to, NameTable table) {
+        return new TokenCursor() {
+            private int position = from;
+
+            @Override
+            public void advance() {
+                // El EOF final se queda como token actual
+                if (position < to) {
+                    position++;
+                }
+            }
+
+            @Override
+            public Token.TokenType getType() {
+                return position == to ? Token.TokenType.EOF : PackedTokenStream.this.getType(position);
+            }
+
+            @Override
+            public int getLine() {
+                return PackedTokenStream.this.getLine(position);
+            }
+
+            @Override
+            public String getLexeme() {
+                return PackedTokenStream.this.getLexeme(position, table);
+            }
+
+            @Override
+            public Object getLiteralValue() {
+                return PackedTokenStream.this.getLiteralValue(position);
+            }
+
+            @Override
+            public int getIntValue() {
+                return PackedTokenStream.this.getIntValue(position);
+            }
+
+            @Override
+            public Token getToken() {
+                return toToken(position, table);
+            }
+
+            @Override
+            public int getIndex() {
+                return position;
+            }
+
+            @Override
+            public TokenSpans getSpans() {
+                return PackedTokenStream.this;
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package compilador.lexer;
+
+import compilador.diagnostico.Diagnostic;
+import compilador.diagnostico.DiagnosticCollector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Escaneo en paralelo para programas muy grandes.
+ * Ningún token (ni comentario //) cruza un salto de línea, así que cualquier salto de línea
+ * es un punto de corte seguro: el texto se divide en bloques que terminan justo después de
+ * un '\n', cada bloque se escanea en un ForkJoinPool y los arreglos de tokens se unen en orden.
+ * El resultado es idéntico al de Lexer.tokenize() secuencial, diagnósticos incluidos.
+ */
+public final class ParallelLexer {
+
+    // Por debajo de este tamaño no compensa repartir el trabajo
+    private static final int MIN_CHUNK = 64 * 1024;
+
+    private ParallelLexer() {
+    }
+
+    public static PackedTokenStream tokenize(CharSequence source) {
+        return tokenize(source, null, ForkJoinPool.commonPool());
+    }
+
+    public static PackedTokenStream tokenize(CharSequence source, DiagnosticCollector diagnostics) {
+        return tokenize(source, diagnostics, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Escanea con el pool dado. Si diagnostics es null los errores se imprimen en System.err,
+     * en el mismo orden que el Lexer secuencial.
+     */
+    public static PackedTokenStream tokenize(CharSequence source, DiagnosticCollector diagnostics, ForkJoinPool pool) {
+        int[] bounds = splitPoints(source, pool.getParallelism());
+        int chunks = bounds.length - 1;
+        if (chunks == 1) {
+            return new Lexer(source).setDiagnostics(diagnostics).tokenize();
+        }
+
+        // --- Fase 1: contar saltos de línea por bloque para saber la línea inicial de cada uno ---
+        List<Callable<Integer>> counts = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            final int start = bounds[i], end = bounds[i + 1];
+            counts.add(() -> countNewlines(source, start, end));
+        }
+        int[] startLines = new int[chunks];
+        startLines[0] = 1;
+        List<Integer> newlines = invokeAll(pool, counts);
+        for (int i = 1; i < chunks; i++) {
+            startLines[i] = startLines[i - 1] + newlines.get(i - 1);
+        }
+
+        // --- Fase 2: escanear cada bloque con su propio colector ---
+        int limit = diagnostics != null ? diagnostics.getLimit() : Integer.MAX_VALUE;
+        // El escaneo no interna nombres; la tabla la usa quien materialice lexemas del flujo
+        // final, y quien lo lea desde varios hilos debe usar concurrentCursor
+        NameTable names = new NameTable();
+        DiagnosticCollector[] chunkDiagnostics = new DiagnosticCollector[chunks];
+        List<Callable<PackedTokenStream>> scans = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            final int start = bounds[i], end = bounds[i + 1], line = startLines[i];
+            final DiagnosticCollector local = new DiagnosticCollector(limit);
+            chunkDiagnostics[i] = local;
+            scans.add(() -> scanChunk(source, start, end, line, names, local));
+        }
+        List<PackedTokenStream> parts = invokeAll(pool, scans);
+
+        // --- Fase 3: unir en orden; el EOF de cada bloque se descarta salvo el del último ---
+        int total = 0;
+        for (PackedTokenStream part : parts) {
+            total += part.size();
+        }
+        PackedTokenStream result = new PackedTokenStream(source, names, total);
+        for (int i = 0; i < chunks; i++) {
+            PackedTokenStream part = parts.get(i);
+            int eof = part.size() - 1;
+            // Un '\0' en el texto es fin de archivo para el Lexer: ahí termina también el resultado
+            boolean last = i == chunks - 1 || part.getStart(eof) < bounds[i + 1];
+            result.addShifted(part, 0, last ? part.size() : eof, 0, 0);
+
+            if (diagnostics != null) {
+                diagnostics.merge(chunkDiagnostics[i]);
+            } else {
+                for (Diagnostic d : chunkDiagnostics[i].getDiagnostics()) {
+                    System.err.println(d.getMessage());
+                }
+            }
+            if (last) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static PackedTokenStream scanChunk(CharSequence source, int start, int end, int line,
+                                               NameTable names, DiagnosticCollector diagnostics) {
+        Lexer lexer = new Lexer(source, start, end, line, names).setDiagnostics(diagnostics);
+        PackedTokenStream part = new PackedTokenStream(source, names, (end - start) / 4);
+        while (true) {
+            lexer.scanInto(part);
+            if (part.getType(part.size() - 1) == Token.TokenType.EOF) {
+                return part;
+            }
+        }
+    }
+
+    /**
+     * Límites de los bloques: el primero es 0, el último es source.length() y los intermedios
+     * quedan justo después de un salto de línea.
+     */
+    static int[] splitPoints(CharSequence source, int parallelism) {
+        int length = source.length();
+        int chunks = Math.max(1, Math.min(parallelism * 4, length / MIN_CHUNK));
+        int[] bounds = new int[chunks + 1];
+        int count = 1;
+        for (int i = 1; i < chunks; i++) {
+            int target = Math.max((int) ((long) length * i / chunks), bounds[count - 1]);
+            int cut = target;
+            while (cut < length && source.charAt(cut) != '\n') {
+                cut++;
+            }
+            cut++; // Después del salto de línea
+            if (cut >= length) {
+                break;
+            }
+            if (cut > bounds[count - 1]) {
+                bounds[count++] = cut;
+            }
+        }
+        bounds[count++] = length;
+        return count == bounds.length ? bounds : Arrays.copyOf(bounds, count);
+    }
+
+    private static int countNewlines(CharSequence source, int start, int end) {
+        int lines = 0;
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Escaneo en paralelo interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,36 @@
+package compilador.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de posiciones para los tokens del Lexer clásico: un long por token,
+ * (offset << 32) | columna, en un solo arreglo. El Token solo guarda su índice.
+ */
+public final class SpanTable implements TokenSpans {
+
+    private long[] spans = new long[64];
+    private int size;
+
+    // Registra la posición del siguiente token y devuelve su índice
+    int add(int offset, int column) {
+        if (size == spans.length) {
+            spans = Arrays.copyOf(spans, size * 2);
+        }
+        spans[size] = ((long) offset << 32) | (column & 0xFFFFFFFFL);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getOffset(int index) {
+        return (int) (spans[index] >>> 32);
+    }
+
+    @Override
+    public int getColumn(int index) {
+        return (int) spans[index];
+    }
+}
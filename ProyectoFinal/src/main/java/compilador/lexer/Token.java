@@ -3,32 +3,50 @@ package compilador.lexer;
 public class Token {
     public enum TokenType{
 
-        IF, ELSE, WHILE, INT, BOOLEAN, TRUE, FALSE, RETURN,
+        IF("if"), ELSE("else"), WHILE("while"), INT("int"), BOOLEAN("boolean"),
+        TRUE("true"), FALSE("false"), RETURN("return"),
 
         //Operadores
-        PLUS, MINUS, MULT, DIV, ASSIGN,
-        EQ, NEQ, LT, FT, GT, LTE, GTE,
-        AND, OR, NOT,
-        SEMICOLON, COMMA, LPAREN, RPAREN, LBRACE, RBRACE, 
+        PLUS("+"), MINUS("-"), MULT("*"), DIV("/"), ASSIGN("="),
+        EQ("=="), NEQ("!="), LT("<"), FT(null), GT(">"), LTE("<="), GTE(">="),
+        AND("&&"), OR("||"), NOT("!"),
+        SEMICOLON(";"), COMMA(","), LPAREN("("), RPAREN(")"), LBRACE("{"), RBRACE("}"),
 
         //Identificadores y Literales
-        ID, INTEGER_LITERAL,
+        ID(null), INTEGER_LITERAL(null),
 
         //Fin de archivo
-        EOF, ERROR
+        EOF(""), ERROR(null);
+
+        // Lexema fijo del tipo (null si depende del texto fuente: ID, literales, errores)
+        private final String lexeme;
+
+        TokenType(String lexeme) {
+            this.lexeme = lexeme;
+        }
+
+        public String getLexeme() {
+            return lexeme;
+        }
     }
 
     private final TokenType type;
     private final String lexeme;
     private final Object literalValue; // Valor para literales
     private final int line; //Reportar errores
+    private final int index; // Número de token en su TokenSpans (-1 si no tiene)
 
     // Constructor
     public Token(TokenType type, String lexeme, Object literalValue, int line) {
+        this(type, lexeme, literalValue, line, -1);
+    }
+
+    public Token(TokenType type, String lexeme, Object literalValue, int line, int index) {
         this.type = type;
         this.lexeme = lexeme;
         this.literalValue = literalValue;
         this.line = line;
+        this.index = index;
     }
 
     // Getters
@@ -49,6 +67,11 @@ public class Token {
         return line;
     }
 
+    // Índice para consultar offset y columna en la tabla de posiciones
+    public int getIndex() {
+        return index;
+    }
+
    
     @Override
     public String toString() {
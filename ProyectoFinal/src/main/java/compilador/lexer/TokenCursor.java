@@ -0,0 +1,86 @@
+package compilador.lexer;
+
+/**
+ * Vista del token actual que consume el Parser.
+ * Permite leer los tokens de un Lexer clásico o de un PackedTokenStream con el mismo código.
+ */
+public interface TokenCursor {
+
+    // Avanza al siguiente token
+    void advance();
+
+    Token.TokenType getType();
+
+    int getLine();
+
+    String getLexeme();
+
+    Object getLiteralValue();
+
+    // Valor del INTEGER_LITERAL actual; los cursores empaquetados lo calculan sin crear un Integer
+    default int getIntValue() {
+        return (Integer) getLiteralValue();
+    }
+
+    // Materializa el token actual como objeto (operadores del AST)
+    Token getToken();
+
+    // Número del token actual dentro de getSpans()
+    int getIndex();
+
+    // Tabla con offset y columna de los tokens de este cursor
+    TokenSpans getSpans();
+
+    default int getColumn() {
+        return getSpans().getColumn(getIndex());
+    }
+
+    /**
+     * Cursor sobre la API clásica: pide un Token al Lexer en cada avance.
+     */
+    static TokenCursor of(Lexer lexer) {
+        return new TokenCursor() {
+            private Token current = lexer.nextToken(); // Cargar el primer token
+
+            @Override
+            public void advance() {
+                current = lexer.nextToken();
+            }
+
+            @Override
+            public Token.TokenType getType() {
+                return current.getType();
+            }
+
+            @Override
+            public int getLine() {
+                return current.getLine();
+            }
+
+            @Override
+            public String getLexeme() {
+                return current.getLexeme();
+            }
+
+            @Override
+            public Object getLiteralValue() {
+                return current.getLiteralValue();
+            }
+
+            @Override
+            public Token getToken() {
+                return current;
+            }
+
+            @Override
+            public int getIndex() {
+                return current.getIndex();
+            }
+
+            @Override
+            public TokenSpans getSpans() {
+                return lexer.getSpans();
+            }
+        };
+    }
+}
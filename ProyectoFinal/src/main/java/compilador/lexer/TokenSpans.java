@@ -0,0 +1,14 @@
+package compilador.lexer;
+
+/**
+ * Posición de cada token en el texto fuente, indexada por número de token.
+ * Las columnas viven fuera de Token para no agrandar cada objeto.
+ */
+public interface TokenSpans {
+
+    // Desplazamiento (0-based) del primer carácter del token
+    int getOffset(int index);
+
+    // Columna (1-based) del primer carácter del token dentro de su línea
+    int getColumn(int index);
+}
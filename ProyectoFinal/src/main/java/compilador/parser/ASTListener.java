@@ -0,0 +1,64 @@
+package compilador.parser;
+
+// Importar todas las categorías de nodos
+import compilador.parser.expressions.*;
+import compilador.parser.statements.*;
+import compilador.parser.declarations.*;
+
+/**
+ * Eventos del recorrido iterativo de ASTWalker.
+ * enter se llama antes de los hijos (si devuelve false, los hijos no se recorren), exit
+ * después de ellos y afterChild al terminar cada hijo, con el padre y la posición del hijo.
+ * A diferencia de ASTVisitor, la profundidad del árbol no consume pila de Java: los
+ * resultados de los hijos se pasan al padre con una pila propia del listener.
+ * Todos los métodos tienen una implementación vacía; cada fase redefine los que usa.
+ */
+public interface ASTListener {
+
+    // Nodos de Declaración
+    default boolean enter(Program node) { return true; }
+    default void exit(Program node) { }
+    default boolean enter(FunctionDeclaration node) { return true; }
+    default void exit(FunctionDeclaration node) { }
+    default boolean enter(Parameter node) { return true; }
+    default void exit(Parameter node) { }
+
+    // Nodos de Sentencias
+    default boolean enter(BlockStatement node) { return true; }
+    default void exit(BlockStatement node) { }
+    default boolean enter(DeclarationStatement node) { return true; }
+    default void exit(DeclarationStatement node) { }
+    default boolean enter(AssignmentStatement node) { return true; }
+    default void exit(AssignmentStatement node) { }
+    default boolean enter(IfStatement node) { return true; }
+    default void exit(IfStatement node) { }
+    default boolean enter(WhileStatement node) { return true; }
+    default void exit(WhileStatement node) { }
+    default boolean enter(ReturnStatement node) { return true; }
+    default void exit(ReturnStatement node) { }
+
+    // Nodos de Expresiones
+    default boolean enter(BinaryExpression node) { return true; }
+    default void exit(BinaryExpression node) { }
+    default boolean enter(UnaryExpression node) { return true; }
+    default void exit(UnaryExpression node) { }
+    default boolean enter(FunctionCall node) { return true; }
+    default void exit(FunctionCall node) { }
+    default boolean enter(VariableAccess node) { return true; }
+    default void exit(VariableAccess node) { }
+    default boolean enter(LiteralExpression node) { return true; }
+    default void exit(LiteralExpression node) { }
+
+    // Al terminar el hijo número 'index' de 'parent'
+    default void afterChild(ASTNode parent, int index, ASTNode child) { }
+
+    /**
+     * Indica si el hijo número 'index' de 'parent' ocupa el lugar de una sentencia: dentro de
+     * un bloque o como rama/cuerpo sin llaves de un if o while. Una expresión ahí es una
+     * llamada usada como sentencia, y el valor que apiló su listener debe descartarse.
+     */
+    static boolean isStatement(ASTNode parent, int index) {
+        return parent instanceof BlockStatement
+                || index > 0 && (parent instanceof IfStatement || parent instanceof WhileStatement);
+    }
+}
@@ -3,19 +3,50 @@ package compilador.parser;
 /**
  * Clase base abstracta para todos los nodos del AST.
  */
-@SuppressWarnings("rawtypes") // Suprime la advertencia del Visitor
 public abstract class ASTNode {
     
     protected int line;
+    // Token donde empieza el nodo (o su operador); -1 si no se conoce
+    protected int tokenIndex = -1;
     
     public ASTNode(int line) {
         this.line = line;
     }
     
-    // Método abstracto obligatorio para el Patrón Visitor.
-    public abstract Object accept(ASTVisitor visitor); 
+    // Método abstracto obligatorio para el Patrón Visitor (R: lo que devuelve el visitante).
+    public abstract <R> R accept(ASTVisitor<R> visitor); 
+
+    // --- Recorrido iterativo (ASTWalker) ---
+
+    // Llama al enter/exit de ASTListener que corresponde al tipo del nodo
+    public abstract boolean enter(ASTListener listener);
+
+    public abstract void exit(ASTListener listener);
+
+    // Hijos en el orden en que se recorren (los opcionales ausentes no cuentan)
+    public int getChildCount() {
+        return 0;
+    }
+
+    public ASTNode getChild(int index) {
+        throw new IndexOutOfBoundsException("El nodo no tiene hijo " + index);
+    }
     
     public int getLine() {
         return line;
     }
+
+    // Para reubicar un nodo reutilizado cuando el código de arriba cambió de líneas
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    // Índice en la tabla de posiciones del Parser (TokenSpans) para obtener la columna
+    public int getTokenIndex() {
+        return tokenIndex;
+    }
+
+    public void setTokenIndex(int tokenIndex) {
+        this.tokenIndex = tokenIndex;
+    }
 }
\ No newline at end of file
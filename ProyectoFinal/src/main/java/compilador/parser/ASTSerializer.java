@@ -0,0 +1,548 @@
+package compilador.parser;
+
+import compilador.lexer.Token;
+import compilador.lexer.Token.TokenType;
+import compilador.lexer.TokenSpans;
+import compilador.parser.declarations.*;
+import compilador.parser.expressions.*;
+import compilador.parser.statements.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binario compacto del AST (para ASTCache).
+ *
+ * Los nodos se escriben en postorden, que es el orden en que el Parser los crea: así el
+ * lector los vuelve a emitir a un NodeSink en una sola pasada, sin recursión, igual que
+ * FlatAST.replay. Como en postorden los hijos de un nodo son los últimos nodos aún sin
+ * padre, basta guardar cuántos hijos tiene (en el mismo byte que el tipo si son menos de 15).
+ * Todos los enteros son varints (los que pueden ser negativos, en zigzag), la línea y el
+ * token se guardan como diferencia con el nodo anterior y cada nombre o tipo se escribe
+ * una sola vez en una tabla de cadenas.
+ *
+ * Contenido:
+ *   "MJA" versión
+ *   cadenas:  cantidad, (longitud, bytes UTF-8)*
+ *   nodos:    cantidad, (tipo | hijos << 4, [hijos], datos según el tipo)*
+ *   columnas: cantidad, (token, offset, columna)* de los tokens que referencian los nodos
+ *
+ * Los tipos de nodo son las constantes de FlatAST.
+ */
+public final class ASTSerializer {
+
+    private static final byte[] MAGIC = { 'M', 'J', 'A' };
+    private static final int VERSION = 1;
+
+    // Hijos que caben en los 4 bits altos del byte de tipo; 15 indica que siguen en un varint
+    private static final int INLINE_CHILDREN = 15;
+
+    private static final TokenType[] OPERATORS = TokenType.values();
+
+    private ASTSerializer() {
+    }
+
+    /**
+     * Programa leído y las posiciones de sus tokens (para las columnas de los errores).
+     */
+    public static final class Decoded {
+        public final Program program;
+        public final TokenSpans spans;
+
+        Decoded(Program program, TokenSpans spans) {
+            this.program = program;
+            this.spans = spans;
+        }
+    }
+
+    // =================================================================
+    // I. ESCRITURA
+    // =================================================================
+
+    public static byte[] serialize(Program program, TokenSpans spans) {
+        Writer writer = new Writer();
+        ASTWalker.walk(program, writer);
+
+        ByteOutput out = new ByteOutput(writer.nodes.size + writer.strings.size() * 8 + 64);
+        out.bytes(MAGIC);
+        out.varint(VERSION);
+
+        out.varint(writer.strings.size());
+        for (String s : writer.stringList) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            out.varint(utf8.length);
+            out.bytes(utf8);
+        }
+
+        out.varint(writer.count);
+        out.bytes(writer.nodes.data, writer.nodes.size);
+
+        // Solo los tokens que usan los nodos, en orden creciente
+        int[] tokens = writer.tokens.sortedDistinct();
+        out.varint(tokens.length);
+        int previousToken = -1, previousOffset = 0;
+        for (int token : tokens) {
+            int offset = spans.getOffset(token);
+            out.varint(token - previousToken);
+            out.varint(offset - previousOffset);
+            out.varint(spans.getColumn(token));
+            previousToken = token;
+            previousOffset = offset;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Escribe cada nodo al salir de él (postorden).
+     */
+    private static final class Writer implements ASTListener {
+        final ByteOutput nodes = new ByteOutput(1024);
+        final Map<String, Integer> strings = new HashMap<>();
+        final List<String> stringList = new ArrayList<>();
+        final IntList tokens = new IntList();
+        int count = 0;
+        int previousLine = 0;
+        int previousToken = -1;
+
+        private int string(String s) {
+            Integer id = strings.get(s);
+            if (id == null) {
+                id = stringList.size();
+                stringList.add(s);
+                strings.put(s, id);
+            }
+            return id;
+        }
+
+        private void position(int line, int token) {
+            nodes.zigzag(line - previousLine);
+            nodes.zigzag(token - previousToken);
+            previousLine = line;
+            previousToken = token;
+            if (token >= 0) {
+                tokens.add(token);
+            }
+        }
+
+        // Tipo y cantidad de hijos
+        private void kind(byte kind, ASTNode node) {
+            int childCount = node.getChildCount();
+            nodes.write((byte) (kind | Math.min(childCount, INLINE_CHILDREN) << 4));
+            if (childCount >= INLINE_CHILDREN) {
+                nodes.varint(childCount);
+            }
+            count++;
+        }
+
+        private void header(byte kind, ASTNode node) {
+            kind(kind, node);
+            position(node.getLine(), node.getTokenIndex());
+        }
+
+        private void operator(byte kind, ASTNode node, Token operator) {
+            kind(kind, node);
+            nodes.write((byte) operator.getType().ordinal());
+            position(operator.getLine(), operator.getIndex());
+        }
+
+        @Override
+        public void exit(Program node) {
+            header(FlatAST.PROGRAM, node);
+        }
+
+        @Override
+        public void exit(FunctionDeclaration node) {
+            header(FlatAST.FUNCTION, node);
+            nodes.varint(string(node.id));
+            nodes.varint(string(node.returnType));
+        }
+
+        @Override
+        public void exit(Parameter node) {
+            header(FlatAST.PARAMETER, node);
+            nodes.varint(string(node.id));
+            nodes.varint(string(node.type));
+        }
+
+        @Override
+        public void exit(BlockStatement node) {
+            header(FlatAST.BLOCK, node);
+        }
+
+        @Override
+        public void exit(DeclarationStatement node) {
+            header(FlatAST.DECLARATION, node);
+            nodes.varint(string(node.id));
+            nodes.varint(string(node.type));
+        }
+
+        @Override
+        public void exit(AssignmentStatement node) {
+            header(FlatAST.ASSIGNMENT, node);
+            nodes.varint(string(node.id));
+        }
+
+        @Override
+        public void exit(IfStatement node) {
+            header(FlatAST.IF, node);
+        }
+
+        @Override
+        public void exit(WhileStatement node) {
+            header(FlatAST.WHILE, node);
+        }
+
+        @Override
+        public void exit(ReturnStatement node) {
+            header(FlatAST.RETURN, node);
+        }
+
+        // Línea y token de un binario salen de su operando izquierdo (ver TreeBuilder)
+        @Override
+        public void exit(BinaryExpression node) {
+            operator(FlatAST.BINARY, node, node.operator);
+        }
+
+        @Override
+        public void exit(UnaryExpression node) {
+            operator(FlatAST.UNARY, node, node.operator);
+        }
+
+        @Override
+        public void exit(FunctionCall node) {
+            header(FlatAST.CALL, node);
+            nodes.varint(string(node.id));
+        }
+
+        @Override
+        public void exit(VariableAccess node) {
+            header(FlatAST.VARIABLE, node);
+            nodes.varint(string(node.id));
+        }
+
+        @Override
+        public void exit(LiteralExpression node) {
+            if (node.value instanceof Boolean) {
+                header(FlatAST.BOOLEAN_LITERAL, node);
+                nodes.varint((Boolean) node.value ? 1 : 0);
+            } else {
+                header(FlatAST.INT_LITERAL, node);
+                nodes.zigzag((Integer) node.value);
+            }
+        }
+    }
+
+    // =================================================================
+    // II. LECTURA
+    // =================================================================
+
+    /**
+     * Reconstruye el programa. Lanza IllegalArgumentException si los datos no son de este
+     * formato o de esta versión (el caché lo trata como si no hubiera entrada). Las cantidades
+     * del archivo se comparan con los bytes que quedan antes de reservar memoria, así un
+     * archivo dañado no puede pedir arreglos más grandes que él mismo.
+     */
+    public static Decoded deserialize(byte[] data) {
+        try {
+            return read(new ByteInput(data));
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException | ClassCastException | NullPointerException
+                | IllegalStateException e) {
+            throw new IllegalArgumentException("AST serializado inválido", e);
+        }
+    }
+
+    private static Decoded read(ByteInput in) {
+        for (byte b : MAGIC) {
+            if (in.read() != b) {
+                throw new IllegalArgumentException("AST serializado inválido");
+            }
+        }
+        if (in.varint() != VERSION) {
+            throw new IllegalArgumentException("Versión de AST serializado no soportada");
+        }
+
+        String[] strings = new String[in.count(1)]; // Al menos el byte de la longitud
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.string(in.count(1));
+        }
+
+        int count = in.count(3); // Tipo, línea y token
+        TreeBuilder builder = new TreeBuilder();
+        // Nodos ya leídos que todavía no tienen padre: los hijos del siguiente están al final
+        int[] open = new int[64];
+        int openSize = 0;
+        int line = 0, token = -1;
+        for (int node = 0; node < count; node++) {
+            int header = in.read() & 0xFF;
+            byte kind = (byte) (header & 0x0F);
+            int childCount = header >>> 4;
+            if (childCount == INLINE_CHILDREN) {
+                childCount = in.varint();
+            }
+            if (childCount > openSize) {
+                throw new IllegalArgumentException("AST serializado inválido");
+            }
+            openSize -= childCount; // Sus hijos quedan en open[openSize, openSize + childCount)
+
+            TokenType operator = null;
+            if (kind == FlatAST.BINARY || kind == FlatAST.UNARY) {
+                operator = OPERATORS[in.read()];
+            }
+            line += in.zigzag();
+            token += in.zigzag();
+
+            int a = 0, b = 0;
+            switch (kind) {
+                case FlatAST.FUNCTION: case FlatAST.PARAMETER: case FlatAST.DECLARATION:
+                    a = in.varint();
+                    b = in.varint();
+                    break;
+                case FlatAST.ASSIGNMENT: case FlatAST.CALL: case FlatAST.VARIABLE:
+                case FlatAST.BOOLEAN_LITERAL:
+                    a = in.varint();
+                    break;
+                case FlatAST.INT_LITERAL:
+                    a = in.zigzag();
+                    break;
+                default:
+                    break;
+            }
+
+            int handle;
+            switch (kind) {
+                case FlatAST.PROGRAM:
+                    handle = builder.program(line, token, open, openSize, childCount);
+                    break;
+                case FlatAST.FUNCTION:
+                    handle = builder.function(line, token, strings[b], strings[a], open, openSize, childCount - 1, open[openSize + childCount - 1]);
+                    break;
+                case FlatAST.PARAMETER:
+                    handle = builder.parameter(line, token, strings[b], strings[a]);
+                    break;
+                case FlatAST.BLOCK:
+                    handle = builder.block(line, token, open, openSize, childCount);
+                    break;
+                case FlatAST.DECLARATION:
+                    handle = builder.declaration(line, token, strings[b], strings[a], childCount > 0 ? open[openSize] : NodeSink.NONE);
+                    break;
+                case FlatAST.ASSIGNMENT:
+                    handle = builder.assignment(line, token, strings[a], open[openSize]);
+                    break;
+                case FlatAST.IF:
+                    handle = builder.ifStatement(line, token, open[openSize], open[openSize + 1], childCount > 2 ? open[openSize + 2] : NodeSink.NONE);
+                    break;
+                case FlatAST.WHILE:
+                    handle = builder.whileStatement(line, token, open[openSize], open[openSize + 1]);
+                    break;
+                case FlatAST.RETURN:
+                    handle = builder.returnStatement(line, token, childCount > 0 ? open[openSize] : NodeSink.NONE);
+                    break;
+                case FlatAST.BINARY:
+                    handle = builder.binary(operator, line, token, open[openSize], open[openSize + 1]);
+                    break;
+                case FlatAST.UNARY:
+                    handle = builder.unary(operator, line, token, open[openSize]);
+                    break;
+                case FlatAST.CALL:
+                    handle = builder.call(line, token, strings[a], open, openSize, childCount);
+                    break;
+                case FlatAST.VARIABLE:
+                    handle = builder.variable(line, token, strings[a]);
+                    break;
+                case FlatAST.INT_LITERAL:
+                    handle = builder.intLiteral(line, token, a);
+                    break;
+                case FlatAST.BOOLEAN_LITERAL:
+                    handle = builder.booleanLiteral(line, token, a != 0);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Tipo de nodo desconocido: " + kind);
+            }
+            if (handle != node) {
+                throw new IllegalArgumentException("AST serializado inválido");
+            }
+            if (openSize == open.length) {
+                open = Arrays.copyOf(open, openSize * 2);
+            }
+            open[openSize++] = node;
+        }
+        if (openSize != 1) {
+            throw new IllegalArgumentException("AST serializado inválido");
+        }
+
+        int spanCount = in.count(3); // Token, offset y columna
+        int[] indices = new int[spanCount];
+        int[] offsets = new int[spanCount];
+        int[] columns = new int[spanCount];
+        int previousToken = -1, previousOffset = 0;
+        for (int i = 0; i < spanCount; i++) {
+            previousToken += in.varint();
+            previousOffset += in.varint();
+            indices[i] = previousToken;
+            offsets[i] = previousOffset;
+            columns[i] = in.varint();
+        }
+        if (in.position != in.data.length) {
+            throw new IllegalArgumentException("AST serializado inválido");
+        }
+
+        Program program = builder.get(count - 1);
+        return new Decoded(program, new SparseSpans(indices, offsets, columns));
+    }
+
+    /**
+     * Posiciones solo de los tokens que guardó serialize (búsqueda binaria por índice).
+     */
+    private static final class SparseSpans implements TokenSpans {
+        private final int[] indices;
+        private final int[] offsets;
+        private final int[] columns;
+
+        SparseSpans(int[] indices, int[] offsets, int[] columns) {
+            this.indices = indices;
+            this.offsets = offsets;
+            this.columns = columns;
+        }
+
+        private int find(int index) {
+            int i = Arrays.binarySearch(indices, index);
+            if (i < 0) {
+                throw new IllegalArgumentException("Token sin posición en el AST serializado: " + index);
+            }
+            return i;
+        }
+
+        @Override
+        public int getOffset(int index) {
+            return offsets[find(index)];
+        }
+
+        @Override
+        public int getColumn(int index) {
+            return columns[find(index)];
+        }
+    }
+
+    // =================================================================
+    // III. UTILIDADES DE BYTES
+    // =================================================================
+
+    private static final class ByteOutput {
+        byte[] data;
+        int size;
+
+        ByteOutput(int capacity) {
+            data = new byte[Math.max(capacity, 16)];
+        }
+
+        void write(byte b) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = b;
+        }
+
+        void bytes(byte[] b) {
+            bytes(b, b.length);
+        }
+
+        void bytes(byte[] b, int length) {
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(size * 2, size + length));
+            }
+            System.arraycopy(b, 0, data, size, length);
+            size += length;
+        }
+
+        // 7 bits por byte, el bit alto indica que sigue otro byte
+        void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((byte) value);
+        }
+
+        // Zigzag: 0, -1, 1, -2, ... -> 0, 1, 2, 3, ... (los negativos pequeños ocupan poco)
+        void zigzag(int value) {
+            varint((value << 1) ^ (value >> 31));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    private static final class ByteInput {
+        final byte[] data;
+        int position;
+
+        ByteInput(byte[] data) {
+            this.data = data;
+        }
+
+        byte read() {
+            return data[position++];
+        }
+
+        int varint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint inválido");
+        }
+
+        int zigzag() {
+            int value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        // Cantidad de elementos que ocupan al menos minBytes cada uno: no puede superar lo que queda
+        int count(int minBytes) {
+            int value = varint();
+            if (value < 0 || value > (data.length - position) / minBytes) {
+                throw new IllegalArgumentException("AST serializado inválido: cantidad fuera de rango");
+            }
+            return value;
+        }
+
+        String string(int length) {
+            String s = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return s;
+        }
+    }
+
+    private static final class IntList {
+        int[] data = new int[64];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int[] sortedDistinct() {
+            int[] sorted = Arrays.copyOf(data, size);
+            Arrays.sort(sorted);
+            int n = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (n == 0 || sorted[n - 1] != sorted[i]) {
+                    sorted[n++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, n);
+        }
+    }
+}
@@ -7,30 +7,35 @@ import compilador.parser.declarations.*;
 
 /**
  * Interfaz que define el Patrón Visitor para recorrer el AST.
- * Cada fase del compilador (Semántico, Cuádruplas, Diagramas)
+ * Las fases del compilador (Semántico, Cuádruplas, Diagramas) ya no la implementan: recorren
+ * el árbol con ASTListener y ASTWalker, sin recursión. Queda para recorridos externos.
+ * R es lo que devuelve cada visit (por ejemplo, el tipo de una expresión), así el
+ * resultado de accept no necesita cast. Un visitante que no devuelve nada usa Void.
+ * Las clases escritas para la versión anterior (visit devuelve Object) implementan
+ * ObjectASTVisitor en lugar del tipo crudo.
  */
 
-public interface ASTVisitor { 
+public interface ASTVisitor<R> { 
     
     // Nodos de Declaración
-    Object visit(Program node);
-    Object visit(FunctionDeclaration node);
-    Object visit(Parameter node);
+    R visit(Program node);
+    R visit(FunctionDeclaration node);
+    R visit(Parameter node);
 
     // Nodos de Sentencias (Statements)
     // Ahora "BlockStatement" se refiere a la CLASE importada, no a un genérico
-    Object visit(BlockStatement node); 
-    Object visit(DeclarationStatement node);
-    Object visit(AssignmentStatement node);
-    Object visit(IfStatement node);
-    Object visit(WhileStatement node);
-    Object visit(ReturnStatement node);
+    R visit(BlockStatement node); 
+    R visit(DeclarationStatement node);
+    R visit(AssignmentStatement node);
+    R visit(IfStatement node);
+    R visit(WhileStatement node);
+    R visit(ReturnStatement node);
 
     // Nodos de Expresiones (Expressions)
-    Object visit(BinaryExpression node);
-    Object visit(UnaryExpression node);
-    Object visit(FunctionCall node);
-    Object visit(VariableAccess node);
-    Object visit(LiteralExpression node);
+    R visit(BinaryExpression node);
+    R visit(UnaryExpression node);
+    R visit(FunctionCall node);
+    R visit(VariableAccess node);
+    R visit(LiteralExpression node);
     
 }
\ No newline at end of file
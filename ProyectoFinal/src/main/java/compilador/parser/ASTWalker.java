@@ -0,0 +1,56 @@
+package compilador.parser;
+
+import java.util.Arrays;
+
+/**
+ * Recorrido en profundidad del AST con una pila explícita en lugar de recursión.
+ * Un programa con miles de bloques anidados o una cadena a+b+c+... muy larga no agota la
+ * pila del hilo: la profundidad solo cuesta dos arreglos en el heap.
+ * Orden de eventos por nodo: enter, (hijo, afterChild)*, exit.
+ */
+public final class ASTWalker {
+
+    private ASTWalker() {
+    }
+
+    public static void walk(ASTNode root, ASTListener listener) {
+        if (!root.enter(listener)) {
+            root.exit(listener);
+            return;
+        }
+
+        // Pila de nodos abiertos y, para cada uno, el siguiente hijo a recorrer
+        ASTNode[] nodes = new ASTNode[32];
+        int[] next = new int[32];
+        nodes[0] = root;
+        int size = 1;
+
+        while (size > 0) {
+            int top = size - 1;
+            ASTNode node = nodes[top];
+            if (next[top] < node.getChildCount()) {
+                int index = next[top]++;
+                ASTNode child = node.getChild(index);
+                if (child.enter(listener)) {
+                    if (size == nodes.length) {
+                        nodes = Arrays.copyOf(nodes, size * 2);
+                        next = Arrays.copyOf(next, size * 2);
+                    }
+                    nodes[size] = child;
+                    next[size] = 0;
+                    size++;
+                } else {
+                    child.exit(listener);
+                    listener.afterChild(node, index, child);
+                }
+            } else {
+                node.exit(listener);
+                nodes[top] = null;
+                size--;
+                if (size > 0) {
+                    listener.afterChild(nodes[size - 1], next[size - 1] - 1, node);
+                }
+            }
+        }
+    }
+}
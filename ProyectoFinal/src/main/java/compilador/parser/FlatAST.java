@@ -0,0 +1,403 @@
+package compilador.parser;
+
+import compilador.lexer.Token.TokenType;
+import compilador.parser.declarations.FunctionDeclaration;
+import compilador.parser.declarations.Program;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AST guardado en arreglos paralelos: un nodo es un índice y sus datos viven en kind[],
+ * line[], token[], a[], b[] y en un rango de children[]. Los nombres y tipos se guardan una
+ * sola vez en una tabla de cadenas. Con esto un programa grande son unos pocos arreglos en
+ * lugar de miles de objetos pequeños.
+ *
+ * Como el Parser crea los hijos antes que el padre, el subárbol de cada nodo ocupa un rango
+ * contiguo de índices que termina en el propio nodo.
+ *
+ * Significado de a y b según el tipo de nodo:
+ *   FUNCTION, PARAMETER, DECLARATION: a = nombre, b = tipo
+ *   ASSIGNMENT, CALL, VARIABLE: a = nombre
+ *   BINARY, UNARY: a = (línea del operador << 8) | ordinal del operador, b = token del operador
+ *   INT_LITERAL, BOOLEAN_LITERAL: a = valor (1/0 para booleanos)
+ */
+public final class FlatAST implements NodeSink {
+
+    // --- Tipos de nodo ---
+    public static final byte PROGRAM = 0;
+    public static final byte FUNCTION = 1;         // hijos: parámetros..., cuerpo
+    public static final byte PARAMETER = 2;
+    public static final byte BLOCK = 3;            // hijos: sentencias
+    public static final byte DECLARATION = 4;      // hijos: valor inicial (opcional)
+    public static final byte ASSIGNMENT = 5;       // hijos: valor
+    public static final byte IF = 6;               // hijos: condición, then, else (opcional)
+    public static final byte WHILE = 7;            // hijos: condición, cuerpo
+    public static final byte RETURN = 8;           // hijos: valor
+    public static final byte BINARY = 9;           // hijos: izquierdo, derecho
+    public static final byte UNARY = 10;           // hijos: operando
+    public static final byte CALL = 11;            // hijos: argumentos
+    public static final byte VARIABLE = 12;
+    public static final byte INT_LITERAL = 13;
+    public static final byte BOOLEAN_LITERAL = 14;
+
+    private static final TokenType[] OPERATORS = TokenType.values();
+
+    private byte[] kind = new byte[256];
+    private int[] line = new int[256];
+    private int[] token = new int[256];
+    private int[] a = new int[256];
+    private int[] b = new int[256];
+    private int[] firstChild = new int[256];
+    private int[] childCount = new int[256];
+    private int size = 0;
+
+    private int[] children = new int[256];
+    private int childrenSize = 0;
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    // --- Construcción (NodeSink) ---
+
+    private int add(byte nodeKind, int nodeLine, int nodeToken, int nodeA, int nodeB) {
+        if (size == kind.length) {
+            int capacity = size * 2;
+            kind = Arrays.copyOf(kind, capacity);
+            line = Arrays.copyOf(line, capacity);
+            token = Arrays.copyOf(token, capacity);
+            a = Arrays.copyOf(a, capacity);
+            b = Arrays.copyOf(b, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+        }
+        kind[size] = nodeKind;
+        line[size] = nodeLine;
+        token[size] = nodeToken;
+        a[size] = nodeA;
+        b[size] = nodeB;
+        firstChild[size] = childrenSize;
+        childCount[size] = 0;
+        return size++;
+    }
+
+    // Agrega un hijo al último nodo creado (los ausentes, NONE, no se guardan)
+    private void child(int handle) {
+        if (handle == NONE) {
+            return;
+        }
+        if (childrenSize == children.length) {
+            children = Arrays.copyOf(children, childrenSize * 2);
+        }
+        children[childrenSize++] = handle;
+        childCount[size - 1]++;
+    }
+
+    private void children(int[] handles, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            child(handles[i]);
+        }
+    }
+
+    private int intern(String s) {
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = strings.size();
+            strings.add(s);
+            stringIds.put(s, id);
+        }
+        return id;
+    }
+
+    @Override
+    public int program(int line, int token, int[] functions, int from, int count) {
+        int node = add(PROGRAM, line, token, 0, 0);
+        children(functions, from, count);
+        return node;
+    }
+
+    @Override
+    public int function(int line, int token, String returnType, String id, int[] parameters, int from, int count, int body) {
+        int node = add(FUNCTION, line, token, intern(id), intern(returnType));
+        children(parameters, from, count);
+        child(body);
+        return node;
+    }
+
+    @Override
+    public int parameter(int line, int token, String type, String id) {
+        return add(PARAMETER, line, token, intern(id), intern(type));
+    }
+
+    @Override
+    public int block(int line, int token, int[] statements, int from, int count) {
+        int node = add(BLOCK, line, token, 0, 0);
+        children(statements, from, count);
+        return node;
+    }
+
+    @Override
+    public int declaration(int line, int token, String type, String id, int initialValue) {
+        int node = add(DECLARATION, line, token, intern(id), intern(type));
+        child(initialValue);
+        return node;
+    }
+
+    @Override
+    public int assignment(int line, int token, String id, int value) {
+        int node = add(ASSIGNMENT, line, token, intern(id), 0);
+        child(value);
+        return node;
+    }
+
+    @Override
+    public int ifStatement(int line, int token, int condition, int thenBranch, int elseBranch) {
+        int node = add(IF, line, token, 0, 0);
+        child(condition);
+        child(thenBranch);
+        child(elseBranch);
+        return node;
+    }
+
+    @Override
+    public int whileStatement(int line, int token, int condition, int body) {
+        int node = add(WHILE, line, token, 0, 0);
+        child(condition);
+        child(body);
+        return node;
+    }
+
+    @Override
+    public int returnStatement(int line, int token, int value) {
+        int node = add(RETURN, line, token, 0, 0);
+        child(value);
+        return node;
+    }
+
+    @Override
+    public int binary(TokenType operator, int operatorLine, int operatorToken, int left, int right) {
+        int node = add(BINARY, line[left], token[left], operatorLine << 8 | operator.ordinal(), operatorToken);
+        child(left);
+        child(right);
+        return node;
+    }
+
+    @Override
+    public int unary(TokenType operator, int operatorLine, int operatorToken, int operand) {
+        int node = add(UNARY, operatorLine, operatorToken, operatorLine << 8 | operator.ordinal(), operatorToken);
+        child(operand);
+        return node;
+    }
+
+    @Override
+    public int call(int line, int token, String id, int[] arguments, int from, int count) {
+        int node = add(CALL, line, token, intern(id), 0);
+        children(arguments, from, count);
+        return node;
+    }
+
+    @Override
+    public int variable(int line, int token, String id) {
+        return add(VARIABLE, line, token, intern(id), 0);
+    }
+
+    @Override
+    public int intLiteral(int line, int token, int value) {
+        return add(INT_LITERAL, line, token, value, 0);
+    }
+
+    @Override
+    public int booleanLiteral(int line, int token, boolean value) {
+        return add(BOOLEAN_LITERAL, line, token, value ? 1 : 0, 0);
+    }
+
+    // --- Consultas ---
+
+    public int size() {
+        return size;
+    }
+
+    // La raíz (Program) es el último nodo creado
+    public int root() {
+        return size - 1;
+    }
+
+    public byte kind(int node) {
+        return kind[node];
+    }
+
+    public int line(int node) {
+        return line[node];
+    }
+
+    // Índice del token en TokenSpans (para la columna); -1 si no se conoce
+    public int tokenIndex(int node) {
+        return token[node];
+    }
+
+    public int childCount(int node) {
+        return childCount[node];
+    }
+
+    public int child(int node, int i) {
+        return children[firstChild[node] + i];
+    }
+
+    // Nombre de FUNCTION, PARAMETER, DECLARATION, ASSIGNMENT, CALL o VARIABLE
+    public String name(int node) {
+        return strings.get(a[node]);
+    }
+
+    // Tipo de FUNCTION (retorno), PARAMETER o DECLARATION
+    public String type(int node) {
+        return strings.get(b[node]);
+    }
+
+    public TokenType operator(int node) {
+        return OPERATORS[a[node] & 0xFF];
+    }
+
+    public int operatorLine(int node) {
+        return a[node] >>> 8;
+    }
+
+    public int operatorToken(int node) {
+        return b[node];
+    }
+
+    public int intValue(int node) {
+        return a[node];
+    }
+
+    public boolean booleanValue(int node) {
+        return a[node] != 0;
+    }
+
+    public int functionCount() {
+        return childCount[root()];
+    }
+
+    public int function(int i) {
+        return child(root(), i);
+    }
+
+    // Primer nodo del subárbol: baja siempre por el primer hijo hasta una hoja
+    public int subtreeStart(int node) {
+        while (childCount[node] > 0) {
+            node = children[firstChild[node]];
+        }
+        return node;
+    }
+
+    // --- Reconstrucción ---
+
+    /**
+     * Vuelve a emitir los nodos [from, to] en el mismo orden en que los creó el Parser.
+     * Los handles que recibe el sink son los índices de este FlatAST.
+     */
+    void replay(NodeSink sink, int from, int to) {
+        int[] scratch = new int[8];
+        for (int node = from; node <= to; node++) {
+            int count = childCount[node];
+            if (scratch.length < count) {
+                scratch = new int[count];
+            }
+            System.arraycopy(children, firstChild[node], scratch, 0, count);
+            switch (kind[node]) {
+                case PROGRAM:
+                    sink.program(line[node], token[node], scratch, 0, count);
+                    break;
+                case FUNCTION:
+                    sink.function(line[node], token[node], type(node), name(node), scratch, 0, count - 1, scratch[count - 1]);
+                    break;
+                case PARAMETER:
+                    sink.parameter(line[node], token[node], type(node), name(node));
+                    break;
+                case BLOCK:
+                    sink.block(line[node], token[node], scratch, 0, count);
+                    break;
+                case DECLARATION:
+                    sink.declaration(line[node], token[node], type(node), name(node), count > 0 ? scratch[0] : NONE);
+                    break;
+                case ASSIGNMENT:
+                    sink.assignment(line[node], token[node], name(node), scratch[0]);
+                    break;
+                case IF:
+                    sink.ifStatement(line[node], token[node], scratch[0], scratch[1], count > 2 ? scratch[2] : NONE);
+                    break;
+                case WHILE:
+                    sink.whileStatement(line[node], token[node], scratch[0], scratch[1]);
+                    break;
+                case RETURN:
+                    sink.returnStatement(line[node], token[node], scratch[0]);
+                    break;
+                case BINARY:
+                    sink.binary(operator(node), operatorLine(node), operatorToken(node), scratch[0], scratch[1]);
+                    break;
+                case UNARY:
+                    sink.unary(operator(node), operatorLine(node), operatorToken(node), scratch[0]);
+                    break;
+                case CALL:
+                    sink.call(line[node], token[node], name(node), scratch, 0, count);
+                    break;
+                case VARIABLE:
+                    sink.variable(line[node], token[node], name(node));
+                    break;
+                case INT_LITERAL:
+                    sink.intLiteral(line[node], token[node], a[node]);
+                    break;
+                case BOOLEAN_LITERAL:
+                    sink.booleanLiteral(line[node], token[node], a[node] != 0);
+                    break;
+                default:
+                    throw new IllegalStateException("Tipo de nodo desconocido: " + kind[node]);
+            }
+        }
+    }
+
+    // Construye el árbol de objetos completo
+    public Program toProgram() {
+        TreeBuilder builder = new TreeBuilder();
+        replay(builder, 0, root());
+        return builder.get(root());
+    }
+
+    // Construye solo una función (para recorridos que las procesan de a una)
+    public FunctionDeclaration toFunction(int function) {
+        int start = subtreeStart(function);
+        TreeBuilder builder = new TreeBuilder(start);
+        replay(builder, start, function);
+        return builder.get(function);
+    }
+
+    /**
+     * Vista compatible con los visitantes existentes: cada FunctionDeclaration se construye la
+     * primera vez que se pide y se conserva, así las anotaciones del semántico (tipos, casillas,
+     * tamaño del marco) siguen ahí para las fases siguientes. Las funciones que nadie pide no
+     * se construyen; para recorrer sin retenerlas, usar toFunction(function(i)).
+     */
+    public Program asProgram() {
+        int root = root();
+        FunctionDeclaration[] built = new FunctionDeclaration[functionCount()];
+        Program program = new Program(line[root], new AbstractList<FunctionDeclaration>() {
+            @Override
+            public FunctionDeclaration get(int i) {
+                if (built[i] == null) {
+                    built[i] = toFunction(function(i));
+                }
+                return built[i];
+            }
+
+            @Override
+            public int size() {
+                return functionCount();
+            }
+        });
+        program.setTokenIndex(token[root]);
+        return program;
+    }
+}
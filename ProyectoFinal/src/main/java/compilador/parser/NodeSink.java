@@ -0,0 +1,46 @@
+package compilador.parser;
+
+import compilador.lexer.Token.TokenType;
+
+/**
+ * Destino de los nodos que reconoce el Parser. Cada nodo se identifica con un entero
+ * (handle) y los hijos siempre se crean antes que el padre, así el Parser no depende de
+ * la representación: TreeBuilder arma el árbol de objetos y FlatAST lo guarda en arreglos.
+ * Las listas de hijos llegan como un rango [from, from + count) de un arreglo de handles.
+ * token es el índice del token en TokenSpans; NONE indica un hijo opcional ausente.
+ */
+interface NodeSink {
+
+    int NONE = -1;
+
+    int program(int line, int token, int[] functions, int from, int count);
+
+    int function(int line, int token, String returnType, String id, int[] parameters, int from, int count, int body);
+
+    int parameter(int line, int token, String type, String id);
+
+    int block(int line, int token, int[] statements, int from, int count);
+
+    int declaration(int line, int token, String type, String id, int initialValue);
+
+    int assignment(int line, int token, String id, int value);
+
+    int ifStatement(int line, int token, int condition, int thenBranch, int elseBranch);
+
+    int whileStatement(int line, int token, int condition, int body);
+
+    int returnStatement(int line, int token, int value);
+
+    // La línea y el token del nodo binario son los de su operando izquierdo
+    int binary(TokenType operator, int operatorLine, int operatorToken, int left, int right);
+
+    int unary(TokenType operator, int operatorLine, int operatorToken, int operand);
+
+    int call(int line, int token, String id, int[] arguments, int from, int count);
+
+    int variable(int line, int token, String id);
+
+    int intLiteral(int line, int token, int value);
+
+    int booleanLiteral(int line, int token, boolean value);
+}
@@ -0,0 +1,8 @@
+package compilador.parser;
+
+/**
+ * La interfaz ASTVisitor anterior (cada visit devuelve Object), para los visitantes escritos
+ * antes de que fuera genérica: basta cambiar "implements ASTVisitor" por esta interfaz.
+ */
+public interface ObjectASTVisitor extends ASTVisitor<Object> {
+}
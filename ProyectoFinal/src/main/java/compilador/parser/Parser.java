@@ -1,13 +1,16 @@
 package compilador.parser; // Línea 1
 
 // Utilidades de Java
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 // Importar el Lexer y Token
+import compilador.diagnostico.DiagnosticCollector;
 import compilador.lexer.Lexer;
+import compilador.lexer.PackedTokenStream;
 import compilador.lexer.Token;
 import compilador.lexer.Token.TokenType;
+import compilador.lexer.TokenCursor;
+import compilador.lexer.TokenSpans;
 
 // Importar TODOS los nodos del AST usando el wildcard (*)
 import compilador.parser.declarations.*; 
@@ -18,61 +21,259 @@ import compilador.parser.ASTVisitor; // Importar la interfaz
 
 public class Parser {
 
-    private final Lexer lexer;
-    private Token currentToken;
+    // Token actual (del Lexer clásico o del flujo empaquetado)
+    private final TokenCursor tokens;
+
+    // Precedencia de cada operador binario, indexada por TokenType.ordinal() (0 = no es binario)
+    private static final int[] BINARY_PRECEDENCE = new int[TokenType.values().length];
+
+    static {
+        BINARY_PRECEDENCE[TokenType.OR.ordinal()] = 1;
+        BINARY_PRECEDENCE[TokenType.AND.ordinal()] = 2;
+        BINARY_PRECEDENCE[TokenType.EQ.ordinal()] = 3;
+        BINARY_PRECEDENCE[TokenType.NEQ.ordinal()] = 3;
+        BINARY_PRECEDENCE[TokenType.LT.ordinal()] = 4;
+        BINARY_PRECEDENCE[TokenType.GT.ordinal()] = 4;
+        BINARY_PRECEDENCE[TokenType.LTE.ordinal()] = 4;
+        BINARY_PRECEDENCE[TokenType.GTE.ordinal()] = 4;
+        BINARY_PRECEDENCE[TokenType.PLUS.ordinal()] = 5;
+        BINARY_PRECEDENCE[TokenType.MINUS.ordinal()] = 5;
+        BINARY_PRECEDENCE[TokenType.MULT.ordinal()] = 6;
+        BINARY_PRECEDENCE[TokenType.DIV.ordinal()] = 6;
+    }
+
+    // Conjuntos FIRST usados para decidir la regla sin retroceder
+    private static final long TYPES = set(TokenType.INT, TokenType.BOOLEAN);
+    private static final long UNARY_OPERATORS = set(TokenType.NOT, TokenType.MINUS);
+    private static final long BOOLEAN_LITERALS = set(TokenType.TRUE, TokenType.FALSE);
+    // Puntos de sincronización: inicio de sentencia tras un error dentro de un bloque
+    private static final long STATEMENT_KEYWORDS = set(TokenType.INT, TokenType.BOOLEAN,
+            TokenType.IF, TokenType.WHILE, TokenType.RETURN);
+
+    // Destino de los nodos reconocidos (árbol de objetos o FlatAST), según el punto de entrada
+    private NodeSink sink;
+
+    // Pila de handles pendientes: los hijos de listas (funciones, sentencias, argumentos...)
+    // se apilan aquí y se entregan al sink como un rango, sin crear listas temporales
+    private int[] pending = new int[64];
+    private int pendingSize = 0;
+
+    // Construcciones abiertas (bloque, if, while), FRAME enteros por marco:
+    // (tipo, línea, índice del token, A, B). BLOCK: A = inicio de sus hijos en 'pending' y
+    // B = inicio de la sentencia en curso. IF_THEN/IF_ELSE/WHILE: A = condición y, en IF_ELSE,
+    // B = rama then. Reemplaza la recursión parseBlock -> parseStatement -> parseIf...
+    private static final int KIND = 0, LINE = 1, INDEX = 2, A = 3, B = 4, FRAME = 5;
+    private static final int BLOCK = 0, IF_THEN = 1, IF_ELSE = 2, WHILE = 3;
+    private int[] open = new int[16 * FRAME];
+    private int openSize = 0;
+
+    // Si no es null, los errores sintácticos se registran aquí y el análisis continúa
+    private DiagnosticCollector diagnostics;
 
     public Parser(Lexer lexer) {
-        this.lexer = lexer;
-        this.currentToken = lexer.nextToken(); // Cargar el primer token
+        this(TokenCursor.of(lexer));
+    }
+
+    // Consume un flujo empaquetado: solo se crean lexemas para IDs y Tokens para operadores
+    public Parser(PackedTokenStream stream) {
+        this(stream.cursor());
+    }
+
+    public Parser(TokenCursor tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Activa la recuperación de errores: cada error sintáctico se registra en el colector y el
+     * Parser se resincroniza (en ';', '}' o el siguiente encabezado de función) para seguir
+     * buscando errores. El Program devuelto contiene solo las partes reconocidas.
+     * Al llenarse el colector el análisis se detiene. Sin colector se lanza el primer SyntaxError.
+     */
+    public Parser setDiagnostics(DiagnosticCollector diagnostics) {
+        this.diagnostics = diagnostics;
+        return this;
     }
 
     // *** MÉTODOS DE UTILIDAD DEL PARSER ***
 
     private void consume(TokenType expectedType) {
-        if (currentToken.getType() == expectedType) {
-            currentToken = lexer.nextToken();
+        if (tokens.getType() == expectedType) {
+            tokens.advance();
         } else {
-            throw new RuntimeException("Error Sintáctico en línea " + currentToken.getLine() 
-                + ": Se esperaba " + expectedType + " pero se encontró " + currentToken.getType());
+            throw error("SYN001", "Se esperaba " + expectedType + " pero se encontró " + tokens.getType());
+        }
+    }
+
+    private SyntaxError error(String code, String detail) {
+        return error(code, tokens.getLine(), tokens.getIndex(), detail);
+    }
+
+    private SyntaxError error(String code, int line, int index, String detail) {
+        return new SyntaxError(code, "Error Sintáctico en " + position(line, index) + ": " + detail, line, index);
+    }
+
+    // --- Recuperación de errores (modo pánico) ---
+
+    /**
+     * Registra el error (una sola vez) y descarta los hijos pendientes de la construcción
+     * fallida. Devuelve false si ya se alcanzó el límite de errores y hay que abandonar.
+     */
+    private boolean recover(SyntaxError error, int pendingMark) {
+        if (diagnostics == null) {
+            throw error;
+        }
+        pendingSize = pendingMark;
+        if (!error.reported) {
+            error.reported = true;
+            int index = error.getTokenIndex();
+            TokenSpans spans = tokens.getSpans();
+            diagnostics.report(error.getCode(), error.getMessage(), error.getLine(),
+                    index < 0 ? 0 : spans.getColumn(index), index < 0 ? -1 : spans.getOffset(index));
+        }
+        return !diagnostics.isFull();
+    }
+
+    // Descarta tokens hasta después de ';', hasta el '}' que cierra el bloque o hasta el inicio
+    // de otra sentencia; los bloques anidados se saltan completos
+    private void synchronizeStatement() {
+        int depth = 0;
+        while (!check(TokenType.EOF)) {
+            if (depth == 0 && (check(TokenType.RBRACE) || check(STATEMENT_KEYWORDS))) {
+                return;
+            }
+            if (check(TokenType.LBRACE)) {
+                depth++;
+            } else if (check(TokenType.RBRACE)) {
+                depth--;
+                if (depth == 0) {
+                    tokens.advance();
+                    return;
+                }
+            } else if (depth == 0 && check(TokenType.SEMICOLON)) {
+                tokens.advance();
+                return;
+            }
+            tokens.advance();
+        }
+    }
+
+    // Descarta tokens hasta un tipo (int/boolean) fuera de toda llave: el siguiente encabezado de función
+    private void synchronizeFunction() {
+        int depth = 0;
+        while (!check(TokenType.EOF)) {
+            if (depth == 0 && check(TYPES)) {
+                return;
+            }
+            if (check(TokenType.LBRACE)) {
+                depth++;
+            } else if (check(TokenType.RBRACE) && depth > 0) {
+                depth--;
+            }
+            tokens.advance();
+        }
+    }
+
+    // "línea L, columna C" del token actual, para los mensajes de error
+    private String position() {
+        return position(tokens.getLine(), tokens.getIndex());
+    }
+
+    private String position(int line, int index) {
+        if (index < 0) {
+            return "línea " + line;
+        }
+        return "línea " + line + ", columna " + tokens.getSpans().getColumn(index);
+    }
+
+    // Offset y columna de los tokens referenciados por los nodos (ASTNode.getTokenIndex())
+    public TokenSpans getSpans() {
+        return tokens.getSpans();
+    }
+
+    private void push(int handle) {
+        if (pendingSize == pending.length) {
+            pending = Arrays.copyOf(pending, pendingSize * 2);
         }
+        pending[pendingSize++] = handle;
+    }
+
+    private boolean check(TokenType type) {
+        return tokens.getType() == type;
     }
 
-    private boolean check(TokenType... types) {
+    // Prueba de pertenencia a un conjunto precalculado (sin crear el arreglo de varargs)
+    private boolean check(long set) {
+        return (set & 1L << tokens.getType().ordinal()) != 0;
+    }
+
+    // Conjunto de tipos como máscara de bits (TokenType tiene menos de 64 valores)
+    private static long set(TokenType... types) {
+        long set = 0;
         for (TokenType type : types) {
-            if (currentToken.getType() == type) return true;
+            set |= 1L << type.ordinal();
         }
-        return false;
+        return set;
     }
     
     // *** MÉTODOS DE DECLARACIÓN Y PROGRAMA ***
 
     public compilador.parser.declarations.Program parseProgram() {
-        int line = currentToken.getLine();
-        // Nota: Asume que Program tiene un método addFunction
-        Program program = new Program(line); 
+        TreeBuilder builder = new TreeBuilder();
+        sink = builder;
+        return builder.get(parseProgramNode());
+    }
 
-        while (currentToken.getType() != TokenType.EOF) {
-            program.addFunction(parseFunctionDeclaration());
+    /**
+     * Reconoce el programa completo y lo guarda en arreglos paralelos en lugar de objetos.
+     * FlatAST.asProgram() da una vista compatible con los visitantes existentes.
+     */
+    public FlatAST parseFlat() {
+        FlatAST ast = new FlatAST();
+        sink = ast;
+        parseProgramNode();
+        return ast;
+    }
+
+    private int parseProgramNode() {
+        int line = tokens.getLine();
+        int index = tokens.getIndex();
+        int mark = pendingSize;
+
+        while (tokens.getType() != TokenType.EOF) {
+            int before = pendingSize;
+            try {
+                push(parseFunctionDeclaration());
+            } catch (SyntaxError e) {
+                if (!recover(e, before)) {
+                    break; // Límite de errores: se devuelve lo reconocido hasta aquí
+                }
+                synchronizeFunction();
+            }
         }
+        int program = sink.program(line, index, pending, mark, pendingSize - mark);
+        pendingSize = mark;
         return program;
     }
 
-    private FunctionDeclaration parseFunctionDeclaration() {
+    private int parseFunctionDeclaration() {
         // ... (Implementación ya proporcionada)
-        int line = currentToken.getLine();
+        int line = tokens.getLine();
+        int index = tokens.getIndex();
         
         String returnType = parseType();
-        Token idToken = currentToken;
+        String functionId = tokens.getLexeme();
         consume(TokenType.ID);
-        String functionId = idToken.getLexeme();
         
         consume(TokenType.LPAREN);
-        List<Parameter> parameters = parseParameterList();
+        int mark = pendingSize;
+        parseParameterList();
         consume(TokenType.RPAREN);
 
-        BlockStatement body = parseBlock(); 
+        int body = parseBlockNode(); 
 
-        return new FunctionDeclaration(line, returnType, functionId, parameters, body);
+        int function = sink.function(line, index, returnType, functionId, pending, mark, pendingSize - mark, body);
+        pendingSize = mark;
+        return function;
     }
 
     private String parseType() {
@@ -84,257 +285,293 @@ public class Parser {
             consume(TokenType.BOOLEAN);
             return "boolean";
         }
-        throw new RuntimeException("Error Sintáctico en línea " + currentToken.getLine() + ": Se esperaba un tipo (int/boolean)");
+        throw error("SYN002", "Se esperaba un tipo (int/boolean)");
     }
     
-    // Utiliza el nodo Parameter de tu AST
-    private List<Parameter> parseParameterList() {
-        List<Parameter> parameters = new ArrayList<>();
-        
-        if (check(TokenType.INT, TokenType.BOOLEAN)) {
-            parameters.add(parseParameter());
+    // Apila los handles de los parámetros en 'pending'
+    private void parseParameterList() {
+        if (check(TYPES)) {
+            push(parseParameter());
             
             while (check(TokenType.COMMA)) {
                 consume(TokenType.COMMA);
-                parameters.add(parseParameter());
+                push(parseParameter());
             }
         }
-        return parameters;
     }
     
     // Utiliza el nodo Parameter de tu AST
-    private Parameter parseParameter() {
-        int line = currentToken.getLine();
+    private int parseParameter() {
+        int line = tokens.getLine();
+        int index = tokens.getIndex();
         String type = parseType();
-        Token idToken = currentToken;
+        String id = tokens.getLexeme();
         consume(TokenType.ID);
-        String id = idToken.getLexeme();
-        return new Parameter(line, type, id);
+        return sink.parameter(line, index, type, id);
     }
 
 
     // *** MÉTODOS DE SENTENCIAS Y BLOQUES ***
     
     public BlockStatement parseBlock() {
-        int line = currentToken.getLine();
+        TreeBuilder builder = new TreeBuilder();
+        sink = builder;
+        return builder.get(parseBlockNode());
+    }
+
+    /**
+     * <Block> -> LBRACE <Statement>* RBRACE, con bloques, if y while anidados reconocidos sin
+     * recursión: cada construcción abierta es un marco en 'open' y el ciclo alterna entre
+     * empezar una sentencia (abriendo marcos) y cerrar las que terminaron. Así la profundidad
+     * de anidamiento no depende de la pila del hilo.
+     * Un error dentro de una sentencia abandona los marcos abiertos encima del bloque que la
+     * contiene, que se recupera como antes: descarta los hijos pendientes y se resincroniza.
+     */
+    private int parseBlockNode() {
+        int base = openSize;
+        openBlock();
+        try {
+            int node;
+            boolean closing = nextInBlock(); // true: el bloque del tope terminó su lista de sentencias
+            while (true) {
+                try {
+                    if (closing) {
+                        closing = false;
+                        node = closeBlock();
+                    } else {
+                        node = beginStatement();
+                        if (node == NodeSink.NONE) {
+                            closing = nextInBlock();
+                            continue;
+                        }
+                    }
+                    // La sentencia 'node' terminó: completa los if/while que la esperaban
+                    while (true) {
+                        if (openSize == base) {
+                            return node;
+                        }
+                        int top = openSize - FRAME;
+                        int kind = open[top + KIND];
+                        if (kind == BLOCK) {
+                            push(node);
+                            closing = nextInBlock();
+                            break;
+                        }
+                        if (kind == IF_THEN && check(TokenType.ELSE)) {
+                            consume(TokenType.ELSE);
+                            open[top + KIND] = IF_ELSE;
+                            open[top + B] = node;
+                            break;
+                        }
+                        openSize = top;
+                        if (kind == WHILE) {
+                            node = sink.whileStatement(open[top + LINE], open[top + INDEX], open[top + A], node);
+                        } else if (kind == IF_THEN) {
+                            node = sink.ifStatement(open[top + LINE], open[top + INDEX], open[top + A], node, NodeSink.NONE);
+                        } else {
+                            node = sink.ifStatement(open[top + LINE], open[top + INDEX], open[top + A], open[top + B], node);
+                        }
+                    }
+                } catch (SyntaxError e) {
+                    // El bloque abierto más interno es el que contiene la sentencia fallida
+                    while (openSize > base && open[openSize - FRAME + KIND] != BLOCK) {
+                        openSize -= FRAME;
+                    }
+                    if (openSize == base || !recover(e, open[openSize - FRAME + B])) {
+                        throw e;
+                    }
+                    synchronizeStatement();
+                    closing = nextInBlock();
+                }
+            }
+        } finally {
+            openSize = base;
+        }
+    }
+
+    // Consume '{' y abre el marco del bloque; sus sentencias se apilan desde aquí en 'pending'
+    private void openBlock() {
+        int line = tokens.getLine();
+        int index = tokens.getIndex();
         consume(TokenType.LBRACE);
-        
-        List<ASTNode> statements = new ArrayList<>();
-        while (!check(TokenType.RBRACE) && !check(TokenType.EOF)) {
-            statements.add(parseStatement());
+        openFrame(BLOCK, line, index, pendingSize);
+    }
+
+    /**
+     * Decide qué sigue en el bloque del tope: true si ya no quedan sentencias (toca cerrarlo),
+     * false si empieza otra, anotando en B dónde empiezan sus hijos pendientes.
+     */
+    private boolean nextInBlock() {
+        if (check(TokenType.RBRACE) || check(TokenType.EOF)) {
+            return true;
         }
-        
+        open[openSize - FRAME + B] = pendingSize;
+        return false;
+    }
+
+    // Consume '}' y crea el bloque del tope; el marco se quita antes porque un error aquí
+    // le corresponde al bloque que lo contiene
+    private int closeBlock() {
+        openSize -= FRAME;
+        int top = openSize;
         consume(TokenType.RBRACE);
-        return new BlockStatement(line, statements);
+        int mark = open[top + A];
+        int block = sink.block(open[top + LINE], open[top + INDEX], pending, mark, pendingSize - mark);
+        pendingSize = mark;
+        return block;
     }
 
-    private ASTNode parseStatement() {
-        
-        if (check(TokenType.LBRACE)) {
-            return parseBlock();
-        } 
-        
-        if (check(TokenType.INT, TokenType.BOOLEAN)) {
-            return parseDeclaration(); // Nuevo
-        }
-        
-        if (check(TokenType.IF)) {
-            return parseIfStatement();
-        }
-        
-        if (check(TokenType.WHILE)) {
-            return parseWhileStatement();
+    /**
+     * Empieza una sentencia. Las simples se reconocen completas y se devuelve su nodo; un
+     * bloque, if o while deja su marco abierto (junto con los encabezados if/while que lo
+     * preceden) y devuelve NONE.
+     */
+    private int beginStatement() {
+        while (true) {
+            if (check(TokenType.LBRACE)) {
+                openBlock();
+                return NodeSink.NONE;
+            }
+
+            if (check(TYPES)) {
+                return parseDeclaration(); // Nuevo
+            }
+
+            if (check(TokenType.IF) || check(TokenType.WHILE)) {
+                // IF/WHILE LPAREN <Expression> RPAREN, y la sentencia del cuerpo en la siguiente vuelta
+                TokenType keyword = tokens.getType();
+                int line = tokens.getLine();
+                int index = tokens.getIndex();
+                consume(keyword);
+
+                consume(TokenType.LPAREN);
+                int condition = parseExpressionNode();
+                consume(TokenType.RPAREN);
+
+                openFrame(keyword == TokenType.IF ? IF_THEN : WHILE, line, index, condition);
+                continue;
+            }
+
+            if (check(TokenType.RETURN)) {
+                return parseReturnStatement();
+            }
+
+            return parseAssignmentOrCall();
         }
-        
-        if (check(TokenType.RETURN)) {
-            return parseReturnStatement(); 
+    }
+
+    private void openFrame(int kind, int line, int index, int a) {
+        if (openSize + FRAME > open.length) {
+            open = Arrays.copyOf(open, open.length * 2);
         }
-        
-        return parseAssignmentOrCall(); 
+        open[openSize + KIND] = kind;
+        open[openSize + LINE] = line;
+        open[openSize + INDEX] = index;
+        open[openSize + A] = a;
+        openSize += FRAME;
     }
     
     // Nuevo: <Decl> -> <Type> ID (ASSIGN <Expression>)? SEMICOLON
-    private DeclarationStatement parseDeclaration() {
-        int line = currentToken.getLine();
+    private int parseDeclaration() {
+        int line = tokens.getLine();
+        int index = tokens.getIndex();
         String type = parseType();
-        Token idToken = currentToken;
+        String id = tokens.getLexeme();
         consume(TokenType.ID);
-        String id = idToken.getLexeme();
         
-        Expression initialValue = null;
+        int initialValue = NodeSink.NONE;
         if (check(TokenType.ASSIGN)) {
             consume(TokenType.ASSIGN);
-            initialValue = parseExpression();
+            initialValue = parseExpressionNode();
         }
         
         consume(TokenType.SEMICOLON);
-        return new DeclarationStatement(line, type, id, initialValue);
+        return sink.declaration(line, index, type, id, initialValue);
     }
 
     // Nuevo: <ReturnStmt> -> RETURN <Expression> SEMICOLON
-    private ReturnStatement parseReturnStatement() {
-        int line = currentToken.getLine();
+    private int parseReturnStatement() {
+        int line = tokens.getLine();
+        int index = tokens.getIndex();
         consume(TokenType.RETURN);
-        Expression value = parseExpression();
+        int value = parseExpressionNode();
         consume(TokenType.SEMICOLON);
-        return new ReturnStatement(line, value);
+        return sink.returnStatement(line, index, value);
     }
     
     // Nuevo: Maneja Asignación o Llamada a Función al inicio de una línea
-    private ASTNode parseAssignmentOrCall() {
-        int line = currentToken.getLine();
-        Token idToken = currentToken;
+    private int parseAssignmentOrCall() {
+        int line = tokens.getLine();
+        int index = tokens.getIndex();
         
         // Debe empezar con ID
         if (!check(TokenType.ID)) {
-             throw new RuntimeException("Error Sintáctico en línea " + line + ": Se esperaba ID, { o palabra clave de sentencia.");
+             throw error("SYN003", "Se esperaba ID, { o palabra clave de sentencia.");
         }
+        String id = tokens.getLexeme();
         consume(TokenType.ID);
         
         if (check(TokenType.LPAREN)) {
             // Es una Llamada a Función: ID LPAREN <ArgumentList> RPAREN SEMICOLON
-            FunctionCall call = parseFunctionCall(idToken.getLexeme(), line);
+            int call = parseFunctionCall(id, line, index);
             consume(TokenType.SEMICOLON);
             return call;
         } else if (check(TokenType.ASSIGN)) {
             // Es una Asignación: ID ASSIGN <Expression> SEMICOLON
             consume(TokenType.ASSIGN);
-            Expression value = parseExpression();
+            int value = parseExpressionNode();
             consume(TokenType.SEMICOLON);
-            return new AssignmentStatement(line, idToken.getLexeme(), value);
+            return sink.assignment(line, index, id, value);
         }
         
-        throw new RuntimeException("Error Sintáctico en línea " + line + ": Asignación o llamada a función mal formada.");
-    }
-
-    private IfStatement parseIfStatement() {
-        
-        int line = currentToken.getLine();
-        consume(TokenType.IF);
-        
-        consume(TokenType.LPAREN);
-        Expression condition = parseExpression();
-        consume(TokenType.RPAREN);
-
-        ASTNode thenBranch = parseStatement();
-        ASTNode elseBranch = null;
-
-        if (check(TokenType.ELSE)) {
-            consume(TokenType.ELSE);
-            elseBranch = parseStatement();
-        }
-
-        return new IfStatement(line, condition, thenBranch, elseBranch);
-    }
-    
-    private WhileStatement parseWhileStatement() {
-        
-        int line = currentToken.getLine();
-        consume(TokenType.WHILE);
-        
-        consume(TokenType.LPAREN);
-        Expression condition = parseExpression();
-        consume(TokenType.RPAREN);
-
-        ASTNode body = parseStatement();
-
-        return new WhileStatement(line, condition, body);
+        throw error("SYN004", line, index, "Asignación o llamada a función mal formada.");
     }
 
     // *** MÉTODOS DE EXPRESIONES (Jerarquía de Precedencia) ***
     
     public Expression parseExpression() {
-        return parseLogicOr();
-    }
-    
-    private Expression parseLogicOr() {
-        Expression expr = parseLogicAnd();
-        
-        while (check(TokenType.OR)) {
-            Token operator = currentToken;
-            consume(operator.getType());
-            Expression right = parseLogicAnd();
-            expr = new BinaryExpression(expr.getLine(), operator, expr, right);
-        }
-        return expr;
+        TreeBuilder builder = new TreeBuilder();
+        sink = builder;
+        return builder.get(parseExpressionNode());
     }
 
-    private Expression parseLogicAnd() {
-        Expression expr = parseEquality(); // Llama al siguiente nivel de precedencia
-        
-        while (check(TokenType.AND)) {
-            Token operator = currentToken;
-            consume(operator.getType());
-            Expression right = parseEquality();
-            expr = new BinaryExpression(expr.getLine(), operator, expr, right);
-        }
-        return expr;
-    }
-    
-    
-    private Expression parseEquality() {
-        Expression expr = parseRelational(); // Llama al siguiente nivel de precedencia
-
-        while (check(TokenType.EQ, TokenType.NEQ)) {
-            Token operator = currentToken;
-            consume(operator.getType());
-            Expression right = parseRelational();
-            expr = new BinaryExpression(expr.getLine(), operator, expr, right);
-        }
-        return expr;
+    // Escalada de precedencia: la tabla BINARY_PRECEDENCE reemplaza la cadena
+    // parseLogicOr -> parseLogicAnd -> ... -> parseMultiplicative, así un operando simple
+    // ya no atraviesa un nivel de llamadas por cada precedencia
+    private int parseExpressionNode() {
+        return parseBinary(1);
     }
 
-    
-    // <Relational> -> <Additive> ( (LT | GT | LTE | GTE) <Additive> )*
-    private Expression parseRelational() {
-        Expression expr = parseAdditive(); // Llama al siguiente nivel de precedencia
-
-        while (check(TokenType.LT, TokenType.GT, TokenType.LTE, TokenType.GTE)) {
-            Token operator = currentToken;
-            consume(operator.getType());
-            Expression right = parseAdditive();
-            expr = new BinaryExpression(expr.getLine(), operator, expr, right);
-        }
-        return expr;
-    }
-    
-    
-    // <Additive> -> <Multiplicative> ( (PLUS | MINUS) <Multiplicative> )*
-    private Expression parseAdditive() {
-        Expression expr = parseMultiplicative(); // Llama al siguiente nivel de precedencia
-
-        while (check(TokenType.PLUS, TokenType.MINUS)) {
-            Token operator = currentToken;
-            consume(operator.getType());
-            Expression right = parseMultiplicative();
-            expr = new BinaryExpression(expr.getLine(), operator, expr, right);
-        }
-        return expr;
-    }
+    // <Binary(p)> -> <Unary> ( op <Binary(prec(op) + 1)> )*   con prec(op) >= p
+    // Todos los operadores binarios son asociativos por la izquierda
+    private int parseBinary(int minPrecedence) {
+        int expr = parseUnary();
 
-    
-    // <Multiplicative> -> <Unary> ( (MULT | DIV) <Unary> )*
-    private Expression parseMultiplicative() {
-        Expression expr = parseUnary(); // Llama al siguiente nivel de precedencia
-
-        while (check(TokenType.MULT, TokenType.DIV)) {
-            Token operator = currentToken;
-            consume(operator.getType());
-            Expression right = parseUnary();
-            expr = new BinaryExpression(expr.getLine(), operator, expr, right);
+        while (true) {
+            TokenType operator = tokens.getType();
+            int precedence = BINARY_PRECEDENCE[operator.ordinal()];
+            if (precedence < minPrecedence) { // 0: no es operador binario
+                break;
+            }
+            int operatorLine = tokens.getLine();
+            int operatorIndex = tokens.getIndex();
+            consume(operator);
+            int right = parseBinary(precedence + 1);
+            expr = sink.binary(operator, operatorLine, operatorIndex, expr, right);
         }
         return expr;
     }
 
-    
     // <Unary> -> (NOT | MINUS) <Unary> | <Primary>
-    private Expression parseUnary() {
-        if (check(TokenType.NOT, TokenType.MINUS)) {
-            Token operator = currentToken;
-            consume(operator.getType());
+    private int parseUnary() {
+        if (check(UNARY_OPERATORS)) {
+            TokenType operator = tokens.getType();
+            int operatorLine = tokens.getLine();
+            int operatorIndex = tokens.getIndex();
+            consume(operator);
             // Llamada recursiva para manejar operadores unarios múltiples (ej. !!x)
-            Expression operand = parseUnary(); 
-            return new UnaryExpression(operator.getLine(), operator, operand);
+            int operand = parseUnary(); 
+            return sink.unary(operator, operatorLine, operatorIndex, operand);
         }
         
         return parsePrimary();
@@ -342,61 +579,62 @@ public class Parser {
     
     
     // <Primary> -> INTEGER_LITERAL | TRUE | FALSE | ID | <FunCall> | ( <Expression> )
-    private Expression parsePrimary() {
-        int line = currentToken.getLine();
+    private int parsePrimary() {
+        int line = tokens.getLine();
+        int index = tokens.getIndex();
         
         if (check(TokenType.INTEGER_LITERAL)) {
-            Token literalToken = currentToken;
+            int value = tokens.getIntValue();
             consume(TokenType.INTEGER_LITERAL);
-            return new LiteralExpression(line, literalToken.getLiteralValue());
+            return sink.intLiteral(line, index, value);
         }
         
-        if (check(TokenType.TRUE, TokenType.FALSE)) {
-            Token literalToken = currentToken;
-            consume(literalToken.getType());
-            boolean value = literalToken.getType() == TokenType.TRUE;
-            return new LiteralExpression(line, value);
+        if (check(BOOLEAN_LITERALS)) {
+            boolean value = tokens.getType() == TokenType.TRUE;
+            consume(tokens.getType());
+            return sink.booleanLiteral(line, index, value);
         }
         
         if (check(TokenType.LPAREN)) {
             consume(TokenType.LPAREN);
-            Expression expr = parseExpression(); // Recurrencia
+            int expr = parseExpressionNode(); // Recurrencia
             consume(TokenType.RPAREN);
             return expr;
         }
 
         if (check(TokenType.ID)) {
-            Token idToken = currentToken;
+            String id = tokens.getLexeme();
             consume(TokenType.ID);
             
             
             if (check(TokenType.LPAREN)) {
-                return parseFunctionCall(idToken.getLexeme(), line);
+                return parseFunctionCall(id, line, index);
             }
             
             // Es solo acceso a una variable
-            return new VariableAccess(line, idToken.getLexeme());
+            return sink.variable(line, index, id);
         }
         
-        throw new RuntimeException("Error Sintáctico en línea " + line 
-            + ": Se esperaba una expresión primaria, pero se encontró " + currentToken.getType());
+        throw error("SYN005", "Se esperaba una expresión primaria, pero se encontró " + tokens.getType());
     }
 
     
-    private FunctionCall parseFunctionCall(String id, int line) {
+    private int parseFunctionCall(String id, int line, int index) {
         // Asume que el token ID ya fue consumido en parsePrimary() o parseAssignmentOrCall()
         consume(TokenType.LPAREN);
         
-        List<Expression> arguments = new ArrayList<>();
+        int mark = pendingSize;
         if (!check(TokenType.RPAREN)) { 
-            arguments.add(parseExpression()); 
+            push(parseExpressionNode()); 
             while (check(TokenType.COMMA)) {
                 consume(TokenType.COMMA);
-                arguments.add(parseExpression());
+                push(parseExpressionNode());
             }
         }
         
         consume(TokenType.RPAREN);
-        return new FunctionCall(line, id, arguments);
+        int call = sink.call(line, index, id, pending, mark, pendingSize - mark);
+        pendingSize = mark;
+        return call;
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package compilador.parser;
+
+/**
+ * Error sintáctico con la posición del token donde se detectó.
+ * Sigue siendo una RuntimeException: sin colector de diagnósticos el Parser la lanza como antes;
+ * con colector se registra y el Parser se recupera en el siguiente punto de sincronización.
+ */
+public class SyntaxError extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String code;     // Ej. "SYN001"
+    private final int line;
+    private final int tokenIndex;  // Índice en TokenSpans (-1 si no se conoce)
+
+    // Evita registrar dos veces el mismo error al propagarse del nivel de sentencia al de función
+    boolean reported = false;
+
+    public SyntaxError(String code, String message, int line, int tokenIndex) {
+        super(message);
+        this.code = code;
+        this.line = line;
+        this.tokenIndex = tokenIndex;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getTokenIndex() {
+        return tokenIndex;
+    }
+}
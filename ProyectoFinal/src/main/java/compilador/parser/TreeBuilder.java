@@ -0,0 +1,166 @@
+package compilador.parser;
+
+import compilador.lexer.Token;
+import compilador.lexer.Token.TokenType;
+import compilador.parser.declarations.*;
+import compilador.parser.expressions.*;
+import compilador.parser.statements.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * NodeSink que construye el árbol de objetos clásico (Program, BinaryExpression, ...).
+ * Los handles son consecutivos desde 'base', en orden de creación. Solo se guardan los nodos
+ * que todavía no tienen padre (la frontera del análisis): al tomar un hijo para armar su
+ * padre se suelta, así la memoria extra es proporcional al anidamiento y no al programa.
+ * Por eso cada handle se puede pedir con get una sola vez.
+ */
+final class TreeBuilder implements NodeSink {
+
+    // Nodos sin padre y sus handles, en orden creciente; un hijo ya tomado queda en null
+    // hasta que todo lo que está encima también se tomó
+    private ASTNode[] nodes = new ASTNode[32];
+    private int[] handles = new int[32];
+    private int size = 0;
+    private int next;
+
+    TreeBuilder() {
+        this(0);
+    }
+
+    // base: primer handle que se va a recibir (para reconstruir solo una parte de un FlatAST)
+    TreeBuilder(int base) {
+        this.next = base;
+    }
+
+    /**
+     * Entrega el nodo y lo suelta: lo pide el padre al construirse o, para la raíz, quien
+     * llamó al Parser.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends ASTNode> T get(int handle) {
+        if (handle == NONE) {
+            return null;
+        }
+        int index = Arrays.binarySearch(handles, 0, size, handle);
+        if (index < 0 || nodes[index] == null) {
+            throw new IllegalStateException("Nodo inexistente o ya entregado: " + handle);
+        }
+        ASTNode node = nodes[index];
+        nodes[index] = null;
+        // Los hijos de un nodo son los últimos nodos sin padre: al tomarlos se libera el tope
+        while (size > 0 && nodes[size - 1] == null) {
+            size--;
+        }
+        return (T) node;
+    }
+
+    private int add(ASTNode node, int token) {
+        node.setTokenIndex(token);
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            handles = Arrays.copyOf(handles, size * 2);
+        }
+        nodes[size] = node;
+        handles[size] = next;
+        size++;
+        return next++;
+    }
+
+    // Nodos sin padre que se están guardando (para pruebas)
+    int retained() {
+        return size;
+    }
+
+    private <T extends ASTNode> List<T> list(int[] handles, int from, int size) {
+        List<T> list = new ArrayList<>(size);
+        for (int i = from; i < from + size; i++) {
+            list.add(get(handles[i]));
+        }
+        return list;
+    }
+
+    @Override
+    public int program(int line, int token, int[] functions, int from, int size) {
+        Program program = new Program(line);
+        for (int i = from; i < from + size; i++) {
+            program.addFunction(get(functions[i]));
+        }
+        return add(program, token);
+    }
+
+    @Override
+    public int function(int line, int token, String returnType, String id, int[] parameters, int from, int size, int body) {
+        return add(new FunctionDeclaration(line, returnType, id, list(parameters, from, size), get(body)), token);
+    }
+
+    @Override
+    public int parameter(int line, int token, String type, String id) {
+        return add(new Parameter(line, type, id), token);
+    }
+
+    @Override
+    public int block(int line, int token, int[] statements, int from, int size) {
+        return add(new BlockStatement(line, list(statements, from, size)), token);
+    }
+
+    @Override
+    public int declaration(int line, int token, String type, String id, int initialValue) {
+        return add(new DeclarationStatement(line, type, id, get(initialValue)), token);
+    }
+
+    @Override
+    public int assignment(int line, int token, String id, int value) {
+        return add(new AssignmentStatement(line, id, get(value)), token);
+    }
+
+    @Override
+    public int ifStatement(int line, int token, int condition, int thenBranch, int elseBranch) {
+        return add(new IfStatement(line, get(condition), get(thenBranch), get(elseBranch)), token);
+    }
+
+    @Override
+    public int whileStatement(int line, int token, int condition, int body) {
+        return add(new WhileStatement(line, get(condition), get(body)), token);
+    }
+
+    @Override
+    public int returnStatement(int line, int token, int value) {
+        return add(new ReturnStatement(line, get(value)), token);
+    }
+
+    @Override
+    public int binary(TokenType operator, int operatorLine, int operatorToken, int left, int right) {
+        Expression leftNode = get(left);
+        Token op = new Token(operator, operator.getLexeme(), null, operatorLine, operatorToken);
+        return add(new BinaryExpression(leftNode.getLine(), op, leftNode, get(right)), leftNode.getTokenIndex());
+    }
+
+    @Override
+    public int unary(TokenType operator, int operatorLine, int operatorToken, int operand) {
+        Token op = new Token(operator, operator.getLexeme(), null, operatorLine, operatorToken);
+        return add(new UnaryExpression(operatorLine, op, get(operand)), operatorToken);
+    }
+
+    @Override
+    public int call(int line, int token, String id, int[] arguments, int from, int size) {
+        return add(new FunctionCall(line, id, list(arguments, from, size)), token);
+    }
+
+    @Override
+    public int variable(int line, int token, String id) {
+        return add(new VariableAccess(line, id), token);
+    }
+
+    @Override
+    public int intLiteral(int line, int token, int value) {
+        return add(new LiteralExpression(line, value), token);
+    }
+
+    @Override
+    public int booleanLiteral(int line, int token, boolean value) {
+        return add(new LiteralExpression(line, value), token);
+    }
+}
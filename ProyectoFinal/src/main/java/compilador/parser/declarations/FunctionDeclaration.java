@@ -2,7 +2,9 @@ package compilador.parser.declarations;
 
 import compilador.parser.ASTNode;
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 import compilador.parser.statements.BlockStatement;
+import compilador.semantico.FunctionType;
 
 import java.util.List;
 
@@ -16,6 +18,12 @@ public class FunctionDeclaration extends ASTNode {
     public final List<Parameter> parameters;
     public final BlockStatement body;
 
+    // Casillas del marco (parámetros + locales), calculado por SemanticAnalyzer; -1 sin analizar
+    private int frameSize = -1;
+
+    // Firma interna, asignada al registrar las funciones (TablaSimbolos); null antes
+    private FunctionType type;
+
     public FunctionDeclaration(int line, String returnType, String id, List<Parameter> parameters, BlockStatement body) {
         super(line);
         this.returnType = returnType;
@@ -26,10 +34,46 @@ public class FunctionDeclaration extends ASTNode {
 
     // Implementación del Patrón Visitor
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return parameters.size() + 1;
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return index < parameters.size() ? parameters.get(index) : body;
+    }
     
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    public void setFrameSize(int frameSize) {
+        this.frameSize = frameSize;
+    }
+
+    public FunctionType getType() {
+        return type;
+    }
+
+    public void setType(FunctionType type) {
+        this.type = type;
+    }
+
     // Getters para acceder a los campos (opcional, pero buena práctica)
     public String getId() {
         return id;
@@ -2,6 +2,7 @@ package compilador.parser.declarations;
 
 import compilador.parser.ASTNode;
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 
 /**
  * Representa la declaración de un parámetro en la firma de una función.
@@ -11,18 +12,45 @@ public class Parameter extends ASTNode {
     public final String type;
     public final String id;
 
+    // Casilla del parámetro en el marco (ver VariableAccess); -1 sin resolver
+    private int depth = -1;
+    private int slot = -1;
+
     public Parameter(int line, String type, String id) {
         super(line);
         this.type = type;
         this.id = id;
     }
 
+    public void resolve(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
     // Implementación del Patrón Visitor
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         
         return visitor.visit(this); 
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
     
     // Getters
     public String getType() {
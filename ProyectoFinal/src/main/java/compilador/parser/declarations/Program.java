@@ -3,6 +3,7 @@ package compilador.parser.declarations;
 
 import compilador.parser.ASTNode;
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,15 +16,41 @@ public class Program extends ASTNode {
         this.functions = new ArrayList<>();
     }
 
+    // Usa la lista dada tal cual (p. ej. la vista perezosa de FlatAST.asProgram())
+    public Program(int line, List<FunctionDeclaration> functions) {
+        super(line);
+        this.functions = functions;
+    }
+
     public void addFunction(FunctionDeclaration func) {
         this.functions.add(func);
     }
     
     // Implementación del Patrón Visitor para que el compilador pueda recorrer el programa.
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return functions.size();
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return functions.get(index);
+    }
     
     // Método auxiliar (Getter, si es necesario)
     public List<FunctionDeclaration> getFunctions() {
@@ -1,6 +1,8 @@
 package compilador.parser.expressions;
 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTNode;
+import compilador.parser.ASTListener;
 import compilador.lexer.Token;
 
 public class BinaryExpression extends Expression {
@@ -17,7 +19,27 @@ public class BinaryExpression extends Expression {
     }
 
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return 2;
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return index == 0 ? left : right;
+    }
 }
\ No newline at end of file
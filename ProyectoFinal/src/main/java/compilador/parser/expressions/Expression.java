@@ -1,11 +1,23 @@
 package compilador.parser.expressions;
 
 import compilador.parser.ASTNode; // Importa el padre
+import compilador.semantico.Type;
 
 
 public abstract class Expression extends ASTNode { 
+
+    // Tipo calculado por SemanticAnalyzer (null mientras no se analice)
+    private Type type;
     
     public Expression(int line) {
         super(line); // Llama al constructor del padre
     }
-}
\ No newline at end of file
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+}
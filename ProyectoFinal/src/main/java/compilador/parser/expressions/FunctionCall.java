@@ -1,6 +1,8 @@
 package compilador.parser.expressions;
 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTNode;
+import compilador.parser.ASTListener;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -20,7 +22,27 @@ public class FunctionCall extends Expression {
     }
 
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return arguments.size();
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return arguments.get(index);
+    }
 }
\ No newline at end of file
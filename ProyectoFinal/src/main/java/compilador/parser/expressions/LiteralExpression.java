@@ -1,6 +1,7 @@
 package compilador.parser.expressions;
 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 
 public class LiteralExpression extends Expression {
 
@@ -12,7 +13,17 @@ public class LiteralExpression extends Expression {
     }
 
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package compilador.parser.expressions;
 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTNode;
+import compilador.parser.ASTListener;
 import compilador.lexer.Token;
 
 public class UnaryExpression extends Expression {
@@ -15,7 +17,27 @@ public class UnaryExpression extends Expression {
     }
 
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return 1;
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return operand;
+    }
 }
\ No newline at end of file
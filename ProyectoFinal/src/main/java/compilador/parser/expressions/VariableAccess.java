@@ -1,18 +1,47 @@
 package compilador.parser.expressions;
 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 
 public class VariableAccess extends Expression {
 
     public final String id;
 
+    // Posición resuelta por SemanticAnalyzer: ámbito donde se declaró la variable
+    // (0: parámetros de la función) y casilla en el marco. -1 mientras no se resuelva.
+    private int depth = -1;
+    private int slot = -1;
+
     public VariableAccess(int line, String id) {
         super(line);
         this.id = id;
     }
 
+    public void resolve(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package compilador.parser.statements;
 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTNode;
+import compilador.parser.ASTListener;
 import compilador.parser.expressions.Expression;
 
 public class AssignmentStatement extends Statement {
@@ -8,14 +10,51 @@ public class AssignmentStatement extends Statement {
     public final String id;
     public final Expression value;
 
+    // Casilla de la variable asignada (ver VariableAccess); -1 sin resolver
+    private int depth = -1;
+    private int slot = -1;
+
     public AssignmentStatement(int line, String id, Expression value) {
         super(line);
         this.id = id;
         this.value = value;
     }
 
+    public void resolve(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return 1;
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return value;
+    }
 }
\ No newline at end of file
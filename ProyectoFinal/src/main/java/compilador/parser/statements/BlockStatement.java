@@ -2,6 +2,7 @@ package compilador.parser.statements;
 
 import compilador.parser.ASTNode; 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -29,10 +30,29 @@ public class BlockStatement extends Statement {
 
     // Implementación del Patrón Visitor
     @Override
-    @SuppressWarnings("rawtypes") // Opcional: Silenciar advertencia de ASTVisitor
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this); 
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return statements.size();
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return statements.get(index);
+    }
     
     // Getter
     public List<ASTNode> getStatements() {
@@ -1,6 +1,8 @@
 package compilador.parser.statements;
 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTNode;
+import compilador.parser.ASTListener;
 import compilador.parser.expressions.Expression;
 
 public class DeclarationStatement extends Statement {
@@ -9,6 +11,10 @@ public class DeclarationStatement extends Statement {
     public final String id;
     public final Expression initialValue; // Puede ser null
 
+    // Casilla de la variable declarada (ver VariableAccess); -1 sin resolver
+    private int depth = -1;
+    private int slot = -1;
+
     public DeclarationStatement(int line, String type, String id, Expression initialValue) {
         super(line);
         this.type = type;
@@ -16,8 +22,41 @@ public class DeclarationStatement extends Statement {
         this.initialValue = initialValue;
     }
 
+    public void resolve(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return initialValue != null ? 1 : 0;
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return initialValue;
+    }
 }
\ No newline at end of file
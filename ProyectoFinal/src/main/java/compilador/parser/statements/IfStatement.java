@@ -2,6 +2,7 @@ package compilador.parser.statements;
 
 import compilador.parser.ASTNode; // Para thenBranch y elseBranch
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 import compilador.parser.expressions.Expression; // Para la condición
 
 public class IfStatement extends Statement {
@@ -18,7 +19,27 @@ public class IfStatement extends Statement {
     }
 
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return elseBranch != null ? 3 : 2;
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return index == 0 ? condition : index == 1 ? thenBranch : elseBranch;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package compilador.parser.statements;
 
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTNode;
+import compilador.parser.ASTListener;
 import compilador.parser.expressions.Expression;
 
 /**
@@ -19,8 +21,28 @@ public class ReturnStatement extends Statement {
 
     // Implementación del Patrón Visitor
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         // En la fase de generación de código, esto genera la instrucción RETURN.
         return visitor.visit(this); 
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return value != null ? 1 : 0;
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return value;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package compilador.parser.statements;
 
 import compilador.parser.ASTNode;
 import compilador.parser.ASTVisitor;
+import compilador.parser.ASTListener;
 import compilador.parser.expressions.Expression;
 
 public class WhileStatement extends Statement {
@@ -16,7 +17,27 @@ public class WhileStatement extends Statement {
     }
 
     @Override
-    public Object accept(ASTVisitor visitor) {
+    public <R> R accept(ASTVisitor<R> visitor) {
         return visitor.visit(this);
     }
+
+    @Override
+    public boolean enter(ASTListener listener) {
+        return listener.enter(this);
+    }
+
+    @Override
+    public void exit(ASTListener listener) {
+        listener.exit(this);
+    }
+
+    @Override
+    public int getChildCount() {
+        return 2;
+    }
+
+    @Override
+    public ASTNode getChild(int index) {
+        return index == 0 ? condition : body;
+    }
 }
\ No newline at end of file
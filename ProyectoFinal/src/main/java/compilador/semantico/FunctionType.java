@@ -0,0 +1,98 @@
+package compilador.semantico;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Firma de una función: tipo de retorno y tipos de los parámetros. Las instancias se internan,
+ * así dos funciones con la misma firma comparten el objeto y comparar firmas es un ==.
+ *
+ * El internado guarda referencias débiles: mientras algún AST (o el caché de
+ * IncrementalCompiler) use una firma, of() devuelve ese mismo objeto; cuando nadie la usa se
+ * libera, así un servidor que compila programas distintos no acumula todas las firmas que vio.
+ */
+public final class FunctionType extends Type {
+
+    // Firmas vivas, por {retorno, parámetros...}; compartido entre hilos (se protege con su monitor)
+    private static final Map<List<Type>, Interned> INTERNED = new HashMap<>();
+    // Firmas ya liberadas, cuyas entradas se quitan en la siguiente llamada a of()
+    private static final ReferenceQueue<FunctionType> RELEASED = new ReferenceQueue<>();
+
+    private static final class Interned extends WeakReference<FunctionType> {
+        final List<Type> key;
+
+        Interned(FunctionType type, List<Type> key) {
+            super(type, RELEASED);
+            this.key = key;
+        }
+    }
+
+    private final Type returnType;
+    private final List<Type> parameterTypes;
+
+    private FunctionType(Type returnType, List<Type> parameterTypes) {
+        super(name(returnType, parameterTypes));
+        this.returnType = returnType;
+        this.parameterTypes = parameterTypes;
+    }
+
+    public static FunctionType of(Type returnType, List<Type> parameterTypes) {
+        // Los tipos no redefinen equals: la clave compara sus componentes por identidad
+        List<Type> key = new ArrayList<>(parameterTypes.size() + 1);
+        key.add(returnType);
+        key.addAll(parameterTypes);
+        synchronized (INTERNED) {
+            purge();
+            Interned interned = INTERNED.get(key);
+            FunctionType type = interned != null ? interned.get() : null;
+            if (type == null) {
+                type = new FunctionType(returnType, Collections.unmodifiableList(new ArrayList<>(parameterTypes)));
+                INTERNED.put(key, new Interned(type, key));
+            }
+            return type;
+        }
+    }
+
+    // Quita las entradas de firmas liberadas (si no las reemplazó ya una firma nueva)
+    private static void purge() {
+        Reference<? extends FunctionType> released;
+        while ((released = RELEASED.poll()) != null) {
+            Interned interned = (Interned) released;
+            INTERNED.remove(interned.key, interned);
+        }
+    }
+
+    public Type getReturnType() {
+        return returnType;
+    }
+
+    public List<Type> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    public int getParameterCount() {
+        return parameterTypes.size();
+    }
+
+    public Type getParameterType(int index) {
+        return parameterTypes.get(index);
+    }
+
+    // Ej. "int(int, boolean)"
+    private static String name(Type returnType, List<Type> parameterTypes) {
+        StringBuilder sb = new StringBuilder(returnType.getName()).append('(');
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(parameterTypes.get(i).getName());
+        }
+        return sb.append(')').toString();
+    }
+}
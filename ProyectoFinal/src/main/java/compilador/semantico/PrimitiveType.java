@@ -0,0 +1,11 @@
+package compilador.semantico;
+
+/**
+ * int, boolean y void: las únicas instancias son las constantes de Type.
+ */
+public final class PrimitiveType extends Type {
+
+    PrimitiveType(String name) {
+        super(name);
+    }
+}
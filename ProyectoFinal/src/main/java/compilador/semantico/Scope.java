@@ -0,0 +1,142 @@
+package compilador.semantico;
+
+import compilador.semantico.TablaSimbolos.Simbolo;
+
+/**
+ * Ámbito persistente (inmutable) de variables: cada ámbito apunta a su padre y guarda sus
+ * variables en un HAMT pequeño. Declarar devuelve un ámbito nuevo que comparte el padre y
+ * casi todo el HAMT con el anterior; abrir un bloque es crear un objeto sin mapa, y cerrarlo,
+ * volver al padre. Como nada se modifica, un mismo ámbito (por ejemplo ROOT) se puede
+ * compartir entre analizadores que corren en hilos distintos.
+ */
+final class Scope {
+
+    // Ámbito global vacío, compartido por todas las tablas
+    static final Scope ROOT = new Scope(null, 0, Bindings.EMPTY);
+
+    final Scope parent;
+    final int depth;           // 0: ROOT
+    private final Bindings bindings;
+
+    private Scope(Scope parent, int depth, Bindings bindings) {
+        this.parent = parent;
+        this.depth = depth;
+        this.bindings = bindings;
+    }
+
+    // Ámbito hijo vacío (O(1))
+    Scope open() {
+        return new Scope(this, depth + 1, Bindings.EMPTY);
+    }
+
+    // Este ámbito con una variable más (o reemplazada); el original no cambia
+    Scope declare(String id, Simbolo symbol) {
+        return new Scope(parent, depth, bindings.put(id, id.hashCode(), symbol, 0));
+    }
+
+    // Variable declarada en este ámbito (sin mirar los padres), o null
+    Simbolo getLocal(String id) {
+        return bindings.get(id, id.hashCode(), 0);
+    }
+
+    // Variable visible desde este ámbito, del más interno al global; O(profundidad)
+    Simbolo lookup(String id) {
+        int hash = id.hashCode();
+        for (Scope s = this; s != null; s = s.parent) {
+            Simbolo symbol = s.bindings.get(id, hash, 0);
+            if (symbol != null) {
+                return symbol;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nodo del HAMT (hash array mapped trie). Cada nivel consume 5 bits del hash: 'bitmap'
+     * marca qué ramas existen y 'array' guarda, por rama y en orden, el par (id, símbolo) o
+     * (null, subnodo). Pasados los 32 bits (hashes iguales) el nodo es una lista de pares.
+     */
+    private static final class Bindings {
+
+        static final Bindings EMPTY = new Bindings(0, new Object[0]);
+
+        private static final int BITS = 5;
+        private static final int MASK = (1 << BITS) - 1;
+
+        private final int bitmap;
+        private final Object[] array;
+
+        private Bindings(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        Simbolo get(String id, int hash, int shift) {
+            if (shift >= Integer.SIZE) {
+                for (int i = 0; i < array.length; i += 2) {
+                    if (id.equals(array[i])) {
+                        return (Simbolo) array[i + 1];
+                    }
+                }
+                return null;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int i = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object key = array[i];
+            if (key == null) {
+                return ((Bindings) array[i + 1]).get(id, hash, shift + BITS);
+            }
+            return id.equals(key) ? (Simbolo) array[i + 1] : null;
+        }
+
+        Bindings put(String id, int hash, Simbolo symbol, int shift) {
+            if (shift >= Integer.SIZE) {
+                for (int i = 0; i < array.length; i += 2) {
+                    if (id.equals(array[i])) {
+                        return new Bindings(0, with(array, i + 1, symbol));
+                    }
+                }
+                return new Bindings(0, inserted(array, array.length, id, symbol));
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int i = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                return new Bindings(bitmap | bit, inserted(array, i, id, symbol));
+            }
+            Object key = array[i];
+            if (key == null) {
+                Bindings child = ((Bindings) array[i + 1]).put(id, hash, symbol, shift + BITS);
+                return new Bindings(bitmap, with(array, i + 1, child));
+            }
+            if (id.equals(key)) {
+                return new Bindings(bitmap, with(array, i + 1, symbol));
+            }
+            // Dos ids en la misma rama: bajan juntos a un subnodo
+            String other = (String) key;
+            Bindings child = EMPTY
+                    .put(other, other.hashCode(), (Simbolo) array[i + 1], shift + BITS)
+                    .put(id, hash, symbol, shift + BITS);
+            Object[] copy = with(array, i + 1, child);
+            copy[i] = null;
+            return new Bindings(bitmap, copy);
+        }
+
+        private static Object[] with(Object[] array, int index, Object value) {
+            Object[] copy = array.clone();
+            copy[index] = value;
+            return copy;
+        }
+
+        private static Object[] inserted(Object[] array, int index, String id, Simbolo symbol) {
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, index);
+            copy[index] = id;
+            copy[index + 1] = symbol;
+            System.arraycopy(array, index, copy, index + 2, array.length - index);
+            return copy;
+        }
+    }
+}
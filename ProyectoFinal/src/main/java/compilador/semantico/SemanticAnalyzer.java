@@ -1,9 +1,15 @@
 package compilador.semantico;
 
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
 
+import compilador.diagnostico.DiagnosticCollector;
+import compilador.lexer.Token.TokenType;
+import compilador.lexer.TokenSpans;
+import compilador.parser.ASTListener;
 import compilador.parser.ASTNode;
-import compilador.parser.ASTVisitor;
+import compilador.parser.ASTWalker;
 // Importar todos los nodos del AST (¡incluyendo Program!)
 import compilador.parser.declarations.*;
 import compilador.parser.expressions.*;
@@ -11,33 +17,84 @@ import compilador.parser.statements.*;
 
 /**
  * Fase 3: Analizador Semántico.
- * Implementa ASTVisitor para recorrer el AST y realizar:
+ * Implementa ASTListener para recorrer el AST con ASTWalker (sin recursión) y realizar:
  * 1. Chequeo de Tipos (Type Checking).
  * 2. Chequeo de Ámbitos/Declaraciones (Scope/Declaration Checking).
+ * Además resuelve cada variable a su casilla en el marco de la función (resolve(depth, slot)
+ * en Parameter, DeclarationStatement, AssignmentStatement y VariableAccess).
+ *
+ * Sin colector lanza el primer error. Con colector (setDiagnostics) registra cada error con
+ * su código y sigue: lo que no se pudo tipar queda como Type.ERROR, que no vuelve a generar
+ * errores en las expresiones y sentencias que lo contienen.
  */
-public class SemanticAnalyzer implements ASTVisitor {
+public class SemanticAnalyzer implements ASTListener {
 
     private final TablaSimbolos tablaSimbolos;
+
+    // Posiciones de los tokens para reportar la columna (null: solo la línea)
+    private final TokenSpans spans;
     
     // Almacena el tipo de retorno esperado de la función actual
-    private String currentFunctionReturnType = "void"; 
+    private Type currentFunctionReturnType = Type.VOID; 
+
+    // Tipos de las subexpresiones ya revisadas (lo que antes devolvía cada visit)
+    private final Deque<Type> types = new ArrayDeque<>();
+
+    // Si no es null, los errores se registran aquí y el análisis continúa
+    private DiagnosticCollector diagnostics;
 
     public SemanticAnalyzer() {
+        this(null);
+    }
+
+    public SemanticAnalyzer(TokenSpans spans) {
         this.tablaSimbolos = new TablaSimbolos();
+        this.spans = spans;
+    }
+
+    // Con una tabla de firmas compartida (TablaSimbolos.declareFunctions), para usar analyzeFunction
+    public SemanticAnalyzer(TokenSpans spans, Map<String, FunctionDeclaration> signatures) {
+        this.tablaSimbolos = new TablaSimbolos(signatures);
+        this.spans = spans;
     }
     
+    /**
+     * Registra todos los errores semánticos en el colector (hasta su límite) en lugar de
+     * lanzar el primero, como Parser.setDiagnostics.
+     */
+    public SemanticAnalyzer setDiagnostics(DiagnosticCollector diagnostics) {
+        this.diagnostics = diagnostics;
+        return this;
+    }
+
     // Método principal llamado desde Main.java
     // Este método ahora es válido porque "Program" está importado.
     public void analyze(Program ast) {
         System.out.println("-> Analizando Semánticamente...");
-        ast.accept(this);
+        ASTWalker.walk(ast, this);
     }
     
     // --- Utilidades de Reporte de Errores ---
 
-    private void reportError(int line, String message) {
-        // Lanza una excepción para detener la compilación ante un error lógico
-        throw new RuntimeException("[Error Semántico en línea " + line + "] " + message);
+    private void reportError(ASTNode node, String code, String message) {
+        int index = node.getTokenIndex();
+        boolean located = spans != null && index >= 0;
+        String position = "línea " + node.getLine();
+        if (located) {
+            position += ", columna " + spans.getColumn(index);
+        }
+        String text = "[Error Semántico en " + position + "] " + message;
+        if (diagnostics == null) {
+            // Lanza una excepción para detener la compilación ante un error lógico
+            throw new RuntimeException(text);
+        }
+        diagnostics.report(code, text, node.getLine(),
+                located ? spans.getColumn(index) : 0, located ? spans.getOffset(index) : -1);
+    }
+
+    // Verdadero si alguno de los tipos ya tiene un error reportado (no se reporta otro)
+    private static boolean isError(Type a, Type b) {
+        return a == Type.ERROR || b == Type.ERROR;
     }
     
     
@@ -47,45 +104,47 @@ public class SemanticAnalyzer implements ASTVisitor {
     // =================================================================
 
     @Override
-    public Object visit(Program node) {
+    public boolean enter(Program node) {
         // 1. Primera pasada: registrar todas las firmas de funciones
         for (FunctionDeclaration func : node.functions) {
             
             tablaSimbolos.declareFunction(func);
         }
-        
-        // 2. Segunda pasada: visitar el cuerpo de cada función
-        for (FunctionDeclaration func : node.functions) {
-            this.currentFunctionReturnType = func.returnType;
-            tablaSimbolos.openScope(func.id); // Abrir ámbito de función
-            
-            // Declarar parámetros en este nuevo ámbito
-            for (Parameter param : func.parameters) {
-                if (tablaSimbolos.isDeclaredInCurrentScope(param.id)) {
-                    reportError(param.getLine(), "El parámetro '" + param.id + "' ya está definido.");
-                }
-                tablaSimbolos.declareVariable(param.id, param.type);
-            }
-            
-            // Visitar el cuerpo
-            func.body.accept(this);
-            
-            tablaSimbolos.closeScope(); // Cerrar ámbito de función
-        }
-        this.currentFunctionReturnType = "void";
-        return null;
+        // 2. Segunda pasada: el recorrido visita el cuerpo de cada función
+        return true;
+    }
+
+    /**
+     * Revisa los parámetros y el cuerpo de una función. Las firmas de todas las funciones
+     * ya deben estar en la tabla; cada función es independiente de las demás.
+     */
+    public void analyzeFunction(FunctionDeclaration func) {
+        ASTWalker.walk(func, this);
     }
 
     @Override
-    public Object visit(FunctionDeclaration node) {
-        // La lógica principal se maneja en visit(Program)
-        return null; 
+    public boolean enter(FunctionDeclaration node) {
+        this.currentFunctionReturnType = TablaSimbolos.signature(node).getReturnType();
+        tablaSimbolos.openScope(node.id); // Abrir ámbito de función
+        return true;
     }
 
     @Override
-    public Object visit(Parameter node) {
-        // La lógica principal se maneja en visit(Program)
-        return null;
+    public void exit(FunctionDeclaration node) {
+        node.setFrameSize(tablaSimbolos.getFrameSize());
+        tablaSimbolos.closeScope(); // Cerrar ámbito de función
+        this.currentFunctionReturnType = Type.VOID;
+    }
+
+    @Override
+    public boolean enter(Parameter param) {
+        // Declarar parámetros en el ámbito de la función
+        if (tablaSimbolos.isDeclaredInCurrentScope(param.id)) {
+            reportError(param, "SEM001", "El parámetro '" + param.id + "' ya está definido.");
+        }
+        TablaSimbolos.Simbolo s = tablaSimbolos.declareVariable(param.id, Type.of(param.type));
+        param.resolve(s.depth, s.slot);
+        return false;
     }
     
     // =================================================================
@@ -93,198 +152,227 @@ public class SemanticAnalyzer implements ASTVisitor {
     // =================================================================
 
     @Override
-    public Object visit(BlockStatement node) {
+    public boolean enter(BlockStatement node) {
         tablaSimbolos.openScope(); // Abrir ámbito para { ... }
-        for (ASTNode statement : node.statements) {
-            statement.accept(this);
-        }
+        return true;
+    }
+
+    @Override
+    public void exit(BlockStatement node) {
         tablaSimbolos.closeScope(); // Cerrar ámbito
-        return null;
     }
 
     @Override
-    public Object visit(DeclarationStatement node) {
-        int line = node.getLine();
+    public boolean enter(DeclarationStatement node) {
         
         if (tablaSimbolos.isDeclaredInCurrentScope(node.id)) {
-            reportError(line, "La variable '" + node.id + "' ya está definida en este ámbito.");
+            reportError(node, "SEM002", "La variable '" + node.id + "' ya está definida en este ámbito.");
         }
-        
+        return true; // Visita la expresión de inicialización
+    }
+
+    @Override
+    public void exit(DeclarationStatement node) {
+        Type declaredType = Type.of(node.type);
         // Chequeo de tipo si hay inicialización
         if (node.initialValue != null) {
-            String exprType = (String) node.initialValue.accept(this); // Visita la expresión
-            if (!exprType.equals(node.type)) {
-                reportError(line, "Tipos incompatibles. No se puede inicializar '" + node.type + "' con un valor de tipo '" + exprType + "'.");
+            Type exprType = types.pop();
+            if (exprType != declaredType && exprType != Type.ERROR) {
+                reportError(node, "SEM004", "Tipos incompatibles. No se puede inicializar '" + node.type + "' con un valor de tipo '" + exprType + "'.");
             }
         }
         
-        tablaSimbolos.declareVariable(node.id, node.type); // Declarar la variable
-        return null;
+        TablaSimbolos.Simbolo s = tablaSimbolos.declareVariable(node.id, declaredType); // Declarar la variable
+        node.resolve(s.depth, s.slot);
     }
     
     @Override
-    public Object visit(AssignmentStatement node) {
-        int line = node.getLine();
+    public boolean enter(AssignmentStatement node) {
         
         // 1. Verificar que la variable exista
-        String varType = tablaSimbolos.lookupVariable(node.id);
-        if (varType == null) {
-            reportError(line, "La variable '" + node.id + "' no ha sido declarada.");
-        }
-        
-        // 2. Verificar el tipo de la expresión
-        String exprType = (String) node.value.accept(this);
-        
-        // 3. Verificar compatibilidad
-        if (!exprType.equals(varType)) {
-            reportError(line, "Tipos incompatibles. No se puede asignar '" + exprType + "' a la variable '" + node.id + "' de tipo '" + varType + "'.");
+        TablaSimbolos.Simbolo s = tablaSimbolos.resolveVariable(node.id);
+        if (s == null) {
+            reportError(node, "SEM003", "La variable '" + node.id + "' no ha sido declarada.");
+        } else {
+            node.resolve(s.depth, s.slot);
         }
-        return null;
+        // 2. Verificar el tipo de la expresión (se visita a continuación)
+        return true;
     }
 
     @Override
-    public Object visit(IfStatement node) {
-        String conditionType = (String) node.condition.accept(this);
-        if (!conditionType.equals("boolean")) {
-            reportError(node.getLine(), "La condición del IF debe ser de tipo boolean, pero se encontró '" + conditionType + "'.");
-        }
+    public void exit(AssignmentStatement node) {
+        Type varType = node.getSlot() >= 0 ? tablaSimbolos.getSlotType(node.getSlot()) : Type.ERROR;
+        Type exprType = types.pop();
         
-        node.thenBranch.accept(this);
-        if (node.elseBranch != null) {
-            node.elseBranch.accept(this);
+        // 3. Verificar compatibilidad
+        if (exprType != varType && !isError(exprType, varType)) {
+            reportError(node, "SEM004", "Tipos incompatibles. No se puede asignar '" + exprType + "' a la variable '" + node.id + "' de tipo '" + varType + "'.");
         }
-        return null;
     }
 
     @Override
-    public Object visit(WhileStatement node) {
-        String conditionType = (String) node.condition.accept(this);
-        if (!conditionType.equals("boolean")) {
-            reportError(node.getLine(), "La condición del WHILE debe ser de tipo boolean, pero se encontró '" + conditionType + "'.");
+    public void afterChild(ASTNode parent, int index, ASTNode child) {
+        // La condición se revisa antes de recorrer el cuerpo
+        if (index == 0 && parent instanceof IfStatement) {
+            Type conditionType = types.pop();
+            if (conditionType != Type.BOOLEAN && conditionType != Type.ERROR) {
+                reportError(parent, "SEM005", "La condición del IF debe ser de tipo boolean, pero se encontró '" + conditionType + "'.");
+            }
+        } else if (index == 0 && parent instanceof WhileStatement) {
+            Type conditionType = types.pop();
+            if (conditionType != Type.BOOLEAN && conditionType != Type.ERROR) {
+                reportError(parent, "SEM005", "La condición del WHILE debe ser de tipo boolean, pero se encontró '" + conditionType + "'.");
+            }
+        } else if (parent instanceof FunctionCall) {
+            // Cada argumento se compara con su parámetro apenas se conoce su tipo
+            FunctionCall call = (FunctionCall) parent;
+            Type argType = types.pop();
+            FunctionDeclaration funcDecl = tablaSimbolos.lookupFunction(call.id);
+            if (funcDecl == null || index >= funcDecl.getType().getParameterCount()) {
+                return; // Ya se reportó la función o la cantidad de argumentos
+            }
+            Type expectedType = funcDecl.getType().getParameterType(index);
+            if (argType != expectedType && argType != Type.ERROR) {
+                reportError(call, "SEM006", "Argumento #" + (index + 1) + " de '" + call.id + "': se esperaba '" + expectedType + "' pero se encontró '" + argType + "'.");
+            }
+        } else if (child instanceof Expression && ASTListener.isStatement(parent, index)) {
+            types.pop(); // Llamada usada como sentencia: su tipo no se usa
         }
-        
-        node.body.accept(this);
-        return null;
     }
     
+    // Tipos apilados que nadie consumió; entre funciones debe ser 0
+    int pendingTypes() {
+        return types.size();
+    }
+
     @Override
-    public Object visit(ReturnStatement node) {
-        String returnExprType = (String) node.value.accept(this);
+    public void exit(ReturnStatement node) {
+        Type returnExprType = types.pop();
         
-        if (!returnExprType.equals(this.currentFunctionReturnType)) {
-            reportError(node.getLine(), "Tipo de retorno incompatible. Se esperaba '" + this.currentFunctionReturnType + "' pero se encontró '" + returnExprType + "'.");
+        if (returnExprType != this.currentFunctionReturnType && returnExprType != Type.ERROR) {
+            reportError(node, "SEM007", "Tipo de retorno incompatible. Se esperaba '" + this.currentFunctionReturnType + "' pero se encontró '" + returnExprType + "'.");
         }
-        return null;
     }
 
     // =================================================================
-    // III. NODOS DE EXPRESIÓN (Devuelven el tipo como String)
+    // III. NODOS DE EXPRESIÓN (Anotan su tipo y lo apilan en 'types')
     // =================================================================
 
+    private void push(Expression node, Type type) {
+        node.setType(type);
+        types.push(type);
+    }
+
     @Override
-    public Object visit(BinaryExpression node) {
-        int line = node.getLine();
-        String leftType = (String) node.left.accept(this);
-        String rightType = (String) node.right.accept(this);
+    public void exit(BinaryExpression node) {
+        Type rightType = types.pop();
+        Type leftType = types.pop();
         String op = node.operator.getLexeme();
         
-        switch (op) {
-            case "+": case "-": case "*": case "/":
-                if (!leftType.equals("int") || !rightType.equals("int")) {
-                    reportError(line, "Los operandos de '" + op + "' deben ser de tipo int.");
+        switch (node.operator.getType()) {
+            case PLUS: case MINUS: case MULT: case DIV:
+                if ((leftType != Type.INT || rightType != Type.INT) && !isError(leftType, rightType)) {
+                    reportError(node, "SEM008", "Los operandos de '" + op + "' deben ser de tipo int.");
                 }
-                return "int";
+                push(node, Type.INT);
+                break;
             
-            case "&&": case "||":
-                if (!leftType.equals("boolean") || !rightType.equals("boolean")) {
-                    reportError(line, "Los operandos de '" + op + "' deben ser de tipo boolean.");
+            case AND: case OR:
+                if ((leftType != Type.BOOLEAN || rightType != Type.BOOLEAN) && !isError(leftType, rightType)) {
+                    reportError(node, "SEM008", "Los operandos de '" + op + "' deben ser de tipo boolean.");
                 }
-                return "boolean";
+                push(node, Type.BOOLEAN);
+                break;
             
-            case "==": case "!=":
-                if (!leftType.equals(rightType)) {
-                    reportError(line, "Los operandos de '" + op + "' deben ser del mismo tipo.");
+            case EQ: case NEQ:
+                if (leftType != rightType && !isError(leftType, rightType)) {
+                    reportError(node, "SEM008", "Los operandos de '" + op + "' deben ser del mismo tipo.");
                 }
-                return "boolean"; // El resultado de la comparación es siempre boolean
+                push(node, Type.BOOLEAN); // El resultado de la comparación es siempre boolean
+                break;
             
-            case "<": case ">": case "<=": case ">=":
-                if (!leftType.equals("int") || !rightType.equals("int")) {
-                    reportError(line, "Los operandos de '" + op + "' deben ser de tipo int.");
+            case LT: case GT: case LTE: case GTE:
+                if ((leftType != Type.INT || rightType != Type.INT) && !isError(leftType, rightType)) {
+                    reportError(node, "SEM008", "Los operandos de '" + op + "' deben ser de tipo int.");
                 }
-                return "boolean";
+                push(node, Type.BOOLEAN);
+                break;
             
             default:
-                reportError(line, "Operador binario desconocido: " + op);
-                return null;
+                reportError(node, "SEM011", "Operador binario desconocido: " + op);
+                push(node, Type.ERROR);
         }
     }
 
     @Override
-    public Object visit(UnaryExpression node) {
-        int line = node.getLine();
+    public void exit(UnaryExpression node) {
         String op = node.operator.getLexeme();
-        String operandType = (String) node.operand.accept(this);
+        Type operandType = types.pop();
         
-        if (op.equals("!")) {
-            if (!operandType.equals("boolean")) {
-                reportError(line, "El operador '!' solo se aplica a booleanos.");
+        if (node.operator.getType() == TokenType.NOT) {
+            if (operandType != Type.BOOLEAN && operandType != Type.ERROR) {
+                reportError(node, "SEM008", "El operador '!' solo se aplica a booleanos.");
             }
-            return "boolean";
+            push(node, Type.BOOLEAN);
+            return;
         }
         
-        if (op.equals("-")) {
-            if (!operandType.equals("int")) {
-                reportError(line, "El operador unario '-' solo se aplica a int.");
+        if (node.operator.getType() == TokenType.MINUS) {
+            if (operandType != Type.INT && operandType != Type.ERROR) {
+                reportError(node, "SEM008", "El operador unario '-' solo se aplica a int.");
             }
-            return "int";
+            push(node, Type.INT);
+            return;
         }
         
-        reportError(line, "Operador unario desconocido: " + op);
-        return null;
+        reportError(node, "SEM011", "Operador unario desconocido: " + op);
+        push(node, Type.ERROR);
     }
     
     @Override
-    public Object visit(FunctionCall node) {
-        int line = node.getLine();
+    public boolean enter(FunctionCall node) {
         FunctionDeclaration funcDecl = tablaSimbolos.lookupFunction(node.id);
         
         if (funcDecl == null) {
-            reportError(line, "La función '" + node.id + "' no ha sido declarada.");
+            reportError(node, "SEM009", "La función '" + node.id + "' no ha sido declarada.");
+        } else if (funcDecl.getType().getParameterCount() != node.arguments.size()) {
+            reportError(node, "SEM010", "Llamada a '" + node.id + "' requiere " + funcDecl.getType().getParameterCount() + " argumentos, pero se proveyeron " + node.arguments.size() + ".");
         }
-        
-        if (funcDecl.parameters.size() != node.arguments.size()) {
-            reportError(line, "Llamada a '" + node.id + "' requiere " + funcDecl.parameters.size() + " argumentos, pero se proveyeron " + node.arguments.size() + ".");
-        }
-        
-        for (int i = 0; i < node.arguments.size(); i++) {
-            String argType = (String) node.arguments.get(i).accept(this);
-            String expectedType = funcDecl.parameters.get(i).type;
-            if (!argType.equals(expectedType)) {
-                reportError(line, "Argumento #" + (i + 1) + " de '" + node.id + "': se esperaba '" + expectedType + "' pero se encontró '" + argType + "'.");
-            }
-        }
-        
-        return funcDecl.returnType; // El tipo de la llamada es el tipo de retorno de la función
+        // Los argumentos se revisan en afterChild
+        return true;
     }
 
     @Override
-    public Object visit(VariableAccess node) {
-        String varType = tablaSimbolos.lookupVariable(node.id);
-        if (varType == null) {
-            reportError(node.getLine(), "La variable '" + node.id + "' no ha sido declarada.");
+    public void exit(FunctionCall node) {
+        // El tipo de la llamada es el tipo de retorno de la función
+        FunctionDeclaration funcDecl = tablaSimbolos.lookupFunction(node.id);
+        push(node, funcDecl != null ? funcDecl.getType().getReturnType() : Type.ERROR);
+    }
+
+    @Override
+    public boolean enter(VariableAccess node) {
+        TablaSimbolos.Simbolo s = tablaSimbolos.resolveVariable(node.id);
+        if (s == null) {
+            reportError(node, "SEM003", "La variable '" + node.id + "' no ha sido declarada.");
+            push(node, Type.ERROR);
+            return false;
         }
-        return varType;
+        node.resolve(s.depth, s.slot);
+        push(node, s.type);
+        return false;
     }
 
     @Override
-    public Object visit(LiteralExpression node) {
+    public boolean enter(LiteralExpression node) {
         if (node.value instanceof Integer) {
-            return "int";
-        }
-        if (node.value instanceof Boolean) {
-            return "boolean";
+            push(node, Type.INT);
+        } else if (node.value instanceof Boolean) {
+            push(node, Type.BOOLEAN);
+        } else {
+            reportError(node, "SEM011", "Tipo de literal desconocido.");
+            push(node, Type.ERROR);
         }
-        reportError(node.getLine(), "Tipo de literal desconocido.");
-        return null;
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package compilador.semantico;
 
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
@@ -10,21 +12,52 @@ import compilador.parser.declarations.Parameter;
 
 /**
  * Estructura de datos para la Tabla de Símbolos.
- * Gestiona ámbitos (scopes) usando una pila de mapas para variables
- * y un mapa global para funciones.
+ * Gestiona ámbitos (scopes) con una cadena de ámbitos persistentes (Scope) para variables
+ * y un mapa global para funciones. Lo único mutable es el ámbito actual y el marco de la
+ * función: el ámbito global y la tabla de firmas se comparten entre analizadores.
+ *
+ * Cada variable recibe al declararse una casilla (slot) en el marco de su función: los
+ * parámetros primero y luego las locales en orden de declaración; una variable que oculta
+ * a otra recibe casilla propia. El analizador la anota en los nodos para que las fases
+ * siguientes no tengan que buscar por nombre.
  */
 public class TablaSimbolos {
 
-    // Pila de mapas para variables (maneja ámbitos locales y globales)
-    private final Stack<Map<String, Simbolo>> scopes;
-    
+    // Ámbito actual; sus padres llegan hasta el global (Scope.ROOT)
+    private Scope scope = Scope.ROOT;
+
     // Mapa global solo para firmas de funciones
     private final Map<String, FunctionDeclaration> functions;
 
+    // Tipo de cada casilla del marco de la función actual
+    private Type[] frame = new Type[16];
+    private int frameSize = 0;
+
+    // Profundidad del ámbito de la función actual (el de los parámetros)
+    private int functionDepth = 0;
+
     public TablaSimbolos() {
-        this.scopes = new Stack<>();
-        this.functions = new HashMap<>();
-        openScope(); // Inicia el ámbito global
+        this(new HashMap<>());
+    }
+
+    /**
+     * Usa una tabla de firmas ya construida (ver declareFunctions), compartida y de solo
+     * lectura: así varios analizadores pueden revisar funciones distintas en paralelo.
+     */
+    public TablaSimbolos(Map<String, FunctionDeclaration> functions) {
+        this.functions = functions; // El ámbito global es Scope.ROOT
+    }
+
+    /**
+     * Tabla inmutable de firmas con las mismas reglas que declareFunction (gana la primera).
+     */
+    public static Map<String, FunctionDeclaration> declareFunctions(List<FunctionDeclaration> functionList) {
+        Map<String, FunctionDeclaration> table = new HashMap<>();
+        for (FunctionDeclaration func : functionList) {
+            func.setType(createSignature(func));
+            table.putIfAbsent(func.id, func);
+        }
+        return Collections.unmodifiableMap(table);
     }
 
     // --- MÉTODOS DE MANEJO DE ÁMBITOS ---
@@ -34,7 +67,7 @@ public class TablaSimbolos {
      * (Requerido por SemanticAnalyzer)
      */
     public void openScope() {
-        scopes.push(new HashMap<>());
+        scope = scope.open();
     }
     
     /**
@@ -42,7 +75,9 @@ public class TablaSimbolos {
      * (Requerido por SemanticAnalyzer)
      */
     public void openScope(String scopeName) {
-        scopes.push(new HashMap<>());
+        scope = scope.open();
+        functionDepth = scope.depth;
+        frameSize = 0; // Marco nuevo
     }
 
     /**
@@ -50,21 +85,27 @@ public class TablaSimbolos {
      * (Requerido por SemanticAnalyzer)
      */
     public void closeScope() {
-        if (!scopes.isEmpty()) {
-            scopes.pop();
+        if (scope.parent != null) {
+            scope = scope.parent; // El ámbito cerrado queda intacto para quien lo conserve
         }
     }
 
     // --- MÉTODOS DE DECLARACIÓN (Requeridos por SemanticAnalyzer) ---
 
     /**
-     * Declara una variable en el ámbito actual.
+     * Declara una variable en el ámbito actual y le asigna la siguiente casilla del marco.
      * (Requerido por SemanticAnalyzer)
+     * @return El símbolo creado, con su profundidad y casilla.
      */
-    public void declareVariable(String id, String type) {
-        if (scopes.isEmpty()) return;
+    public Simbolo declareVariable(String id, Type type) {
+        if (frameSize == frame.length) {
+            frame = Arrays.copyOf(frame, frameSize * 2);
+        }
+        frame[frameSize] = type;
+        Simbolo s = new Simbolo(id, type, scope.depth - functionDepth, frameSize++);
         // Asume que SemanticAnalyzer ya verificó 'isDeclaredInCurrentScope'
-        scopes.peek().put(id, new Simbolo(id, type, "variable"));
+        scope = scope.declare(id, s);
+        return s;
     }
 
     /**
@@ -72,6 +113,7 @@ public class TablaSimbolos {
      * (Requerido por SemanticAnalyzer)
      */
     public void declareFunction(FunctionDeclaration funcNode) {
+        funcNode.setType(createSignature(funcNode));
         if (functions.containsKey(funcNode.id)) {
             // El error de "función ya declarada" lo maneja el SemanticAnalyzer
             return;
@@ -87,28 +129,37 @@ public class TablaSimbolos {
      * (Requerido por SemanticAnalyzer)
      */
     public boolean isDeclaredInCurrentScope(String id) {
-        if (scopes.isEmpty()) return false;
-        return scopes.peek().containsKey(id);
+        return scope.getLocal(id) != null;
     }
 
     /**
      * Busca una variable en todos los ámbitos, desde el actual hasta el global.
      * (Requerido por SemanticAnalyzer)
-     * @return El tipo (String) de la variable, o null si no se encuentra.
+     * @return El tipo de la variable, o null si no se encuentra.
      */
-    public String lookupVariable(String id) {
-        // Itera la pila de arriba a abajo (del ámbito actual al global)
-        for (int i = scopes.size() - 1; i >= 0; i--) {
-            Map<String, Simbolo> scope = scopes.get(i);
-            if (scope.containsKey(id)) {
-                Simbolo s = scope.get(id);
-                // Asegurarse de que es una variable y no otro tipo de símbolo
-                if (s.kind.equals("variable")) {
-                    return s.type;
-                }
-            }
-        }
-        return null; // No se encontró
+    public Type lookupVariable(String id) {
+        Simbolo s = resolveVariable(id);
+        return s != null ? s.type : null;
+    }
+
+    /**
+     * Como lookupVariable, pero devuelve el símbolo con su profundidad y casilla.
+     * Recorre los ámbitos del actual al global; null si no se encuentra.
+     */
+    public Simbolo resolveVariable(String id) {
+        return scope.lookup(id);
+    }
+
+    /**
+     * Tipo de una casilla del marco de la función actual (ya resuelta, sin buscar por nombre).
+     */
+    public Type getSlotType(int slot) {
+        return frame[slot];
+    }
+
+    // Casillas usadas hasta ahora por la función actual
+    public int getFrameSize() {
+        return frameSize;
     }
 
     /**
@@ -119,21 +170,44 @@ public class TablaSimbolos {
     public FunctionDeclaration lookupFunction(String id) {
         return functions.get(id);
     }
+
+    /**
+     * Firma interna de la función: la que se anotó al registrarla, o se calcula si la función
+     * todavía no pasó por declareFunction/declareFunctions.
+     */
+    public static FunctionType signature(FunctionDeclaration func) {
+        FunctionType type = func.getType();
+        if (type == null) {
+            type = createSignature(func);
+            func.setType(type);
+        }
+        return type;
+    }
+
+    private static FunctionType createSignature(FunctionDeclaration func) {
+        List<Type> params = new ArrayList<>(func.parameters.size());
+        for (Parameter param : func.parameters) {
+            params.add(Type.of(param.type));
+        }
+        return FunctionType.of(Type.of(func.returnType), params);
+    }
     
     // --- CLASE INTERNA SIMBOLO ---
     /**
      * Representa un símbolo (variable) en la tabla.
      * (Movido aquí para encapsulación)
      */
-    private class Simbolo {
+    public static final class Simbolo {
         public final String id;
-        public final String type; // "int", "boolean"
-        public final String kind; // "variable"
+        public final Type type; // Type.INT, Type.BOOLEAN
+        public final int depth; // Ámbito donde se declaró (0: parámetros de la función)
+        public final int slot;  // Casilla en el marco de la función
 
-        public Simbolo(String id, String type, String kind) {
+        public Simbolo(String id, Type type, int depth, int slot) {
             this.id = id;
             this.type = type;
-            this.kind = kind;
+            this.depth = depth;
+            this.slot = slot;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package compilador.semantico;
+
+/**
+ * Tipos de MiniJava. Cada tipo tiene una sola instancia (los primitivos son constantes y
+ * los de función se internan en FunctionType.of), así que dos tipos son iguales si y solo
+ * si son el mismo objeto: el analizador los compara con == en lugar de comparar cadenas.
+ * Un tipo nuevo (por ejemplo, arreglos) es otra subclase que se interna igual.
+ */
+public abstract class Type {
+
+    public static final PrimitiveType INT = new PrimitiveType("int");
+    public static final PrimitiveType BOOLEAN = new PrimitiveType("boolean");
+    public static final PrimitiveType VOID = new PrimitiveType("void");
+
+    // Tipo de lo que no se pudo tipar por un error ya reportado (no se escribe en el código)
+    public static final Type ERROR = new ErrorType();
+
+    private final String name;
+
+    Type(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Instancia del tipo escrito en el código fuente ("int" o "boolean").
+     */
+    public static PrimitiveType of(String name) {
+        switch (name) {
+            case "int": return INT;
+            case "boolean": return BOOLEAN;
+            case "void": return VOID;
+            default: throw new IllegalArgumentException("Tipo desconocido: " + name);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Los mensajes de error muestran el nombre, como cuando los tipos eran cadenas
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static final class ErrorType extends Type {
+        ErrorType() {
+            super("<error>");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package compilador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import compilador.generacion.DiagramGenerator;
+import compilador.lexer.Lexer;
+import compilador.parser.ASTSerializer;
+import compilador.parser.Parser;
+import compilador.parser.declarations.Program;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ASTCacheTest {
+
+    private static final String SOURCE = "int main() {\n    int x = 2;\n    return x * 3;\n}\n";
+    private static final String KEY = ASTCache.key(SOURCE);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storedProgramIsLoadedBack() {
+        ASTCache cache = new ASTCache(directory);
+        Parser parser = new Parser(new Lexer(SOURCE).tokenize());
+        Program program = parser.parseProgram();
+        cache.store(KEY, program, parser.getSpans());
+
+        ASTSerializer.Decoded loaded = cache.load(KEY);
+        assertNotNull(loaded);
+        assertEquals(new DiagramGenerator().generateDotString(program),
+                new DiagramGenerator().generateDotString(loaded.program));
+    }
+
+    @Test
+    void missingEntryIsNull() {
+        assertNull(new ASTCache(directory).load(KEY));
+    }
+
+    @Test
+    void corruptedEntryIsIgnored() throws IOException {
+        ASTCache cache = new ASTCache(directory);
+        // Cabecera válida y una cantidad de cadenas enorme
+        byte[] corrupted = { 'M', 'J', 'A', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+        Files.write(directory.resolve(KEY + ".ast"), corrupted);
+        assertNull(cache.load(KEY));
+    }
+
+    @Test
+    void serviceUsesTheCacheForRepeatedSource() throws IOException {
+        // La salida va al directorio temporal, no a output/ del proyecto
+        Path output = Files.createDirectory(directory.resolve("output"));
+        CompilerService service = new CompilerService(false, new ASTCache(directory.resolve("cache")), output.toFile());
+        CompilerResult first = service.compile(SOURCE);
+        assertNotNull(new ASTCache(directory.resolve("cache")).load(KEY));
+        CompilerResult second = service.compile(SOURCE);
+        assertEquals(first.getAsmCode(), second.getAsmCode());
+        assertEquals(first.getDotCode(), second.getDotCode());
+        assertEquals(second.getAsmCode(), Files.readString(output.resolve("program.asm")));
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() throws IOException {
+        ASTCache cache = new ASTCache(directory, 4);
+        String[] keys = new String[5];
+        for (int i = 0; i < keys.length; i++) {
+            String source = "int main() {\n    return " + i + ";\n}\n";
+            keys[i] = ASTCache.key(source);
+            Parser parser = new Parser(new Lexer(source).tokenize());
+            cache.store(keys[i], parser.parseProgram(), parser.getSpans());
+            // Usos bien separados en el tiempo: 0 es la más vieja
+            Files.setLastModifiedTime(directory.resolve(keys[i] + ".ast"), FileTime.fromMillis(1000L * (i + 1)));
+            if (i == 3) {
+                // Un acierto la vuelve la más reciente
+                assertNotNull(cache.load(keys[0]));
+            }
+        }
+        // Al pasar de 4 quedan 3: se fueron 1 y 2
+        assertNotNull(cache.load(keys[0]));
+        assertNull(cache.load(keys[1]));
+        assertNull(cache.load(keys[2]));
+        assertNotNull(cache.load(keys[3]));
+        assertNotNull(cache.load(keys[4]));
+    }
+}
@@ -0,0 +1,103 @@
+package compilador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import compilador.diagnostico.DiagnosticCollector;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Programas muy anidados: bloques, if y while no consumen pila del hilo en ninguna fase;
+ * las expresiones siguen siendo recursivas y, si no caben, se informan como error. Además,
+ * los errores que superan el límite de diagnósticos se informan como cantidad.
+ */
+class CompilerServiceTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    void nestedStatementsCompileOnASmallStack() throws InterruptedException {
+        StringBuilder source = new StringBuilder("int main() { int x = 1; ");
+        int depth = 2000;
+        for (int i = 0; i < depth; i++) {
+            source.append(i % 3 == 0 ? "{ " : i % 3 == 1 ? "if (x < 2) " : "while (x < 1) ");
+        }
+        source.append("x = x + 1;");
+        for (int i = 0; i < depth; i++) {
+            if (i % 3 == 0) {
+                source.append(" }");
+            }
+        }
+        source.append(" return x; }");
+
+        for (boolean parallel : new boolean[] { false, true }) {
+            CompilerResult[] result = new CompilerResult[1];
+            Throwable[] failure = new Throwable[1];
+            Thread thread = new Thread(null, () -> {
+                try {
+                    result[0] = new CompilerService(parallel, null, output.toFile()).compile(source.toString());
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            }, "pila-chica", 512 * 1024);
+            thread.start();
+            thread.join();
+
+            assertNull(failure[0]);
+            assertTrue(result[0].isSuccess(), String.valueOf(result[0].getError()));
+        }
+    }
+
+    @Test
+    void deeplyNestedExpressionIsReportedAsTooDeep() {
+        String source = "int main() { return " + "(".repeat(50_000) + "1" + ")".repeat(50_000) + "; }";
+        File directory = output.toFile();
+        for (boolean parallel : new boolean[] { false, true }) {
+            CompilerResult result = new CompilerService(parallel, null, directory).compile(source);
+            assertFalse(result.isSuccess());
+            assertEquals(CompilerService.tooDeep().getError(), result.getError());
+        }
+        CompilerResult incremental = new IncrementalCompiler(new CompilerService(false, null, directory)).compile(source);
+        assertEquals(CompilerService.tooDeep().getError(), incremental.getError());
+    }
+
+    @Test
+    void errorsPastTheLimitAreCounted() {
+        int errors = DiagnosticCollector.DEFAULT_LIMIT + 50;
+        StringBuilder lexical = new StringBuilder("int main() {\n");
+        StringBuilder semantic = new StringBuilder("int main() {\n");
+        for (int i = 0; i < errors; i++) {
+            lexical.append("    int x").append(i).append(" = 1 @ 2;\n");
+            semantic.append("    y").append(i).append(" = 1;\n");
+        }
+        lexical.append("    return 0;\n}\n");
+        semantic.append("    return 0;\n}\n");
+
+        File directory = output.toFile();
+        // El Parser abandona al llegar al límite, así que los errores sintácticos no se cuentan
+        for (String source : new String[] { lexical.toString(), semantic.toString() }) {
+            CompilerResult[] results = {
+                new CompilerService(false, null, directory).compile(source),
+                new CompilerService(true, null, directory).compile(source),
+                new IncrementalCompiler(new CompilerService(false, null, directory)).compile(source),
+            };
+            for (CompilerResult result : results) {
+                assertFalse(result.isSuccess());
+                assertEquals(DiagnosticCollector.DEFAULT_LIMIT, result.getDiagnostics().size());
+                assertEquals(errors - DiagnosticCollector.DEFAULT_LIMIT, result.getDroppedCount(), source);
+            }
+        }
+        // Leyendo por bloques se informan solo los errores léxicos, también con su cantidad
+        CompilerResult streamed = new CompilerService(false, null, directory).compile(new StringReader(lexical.toString()));
+        assertEquals(errors - DiagnosticCollector.DEFAULT_LIMIT, streamed.getDroppedCount());
+        assertEquals(0, new CompilerService(false, null, directory).compile("int main() { return 0; }").getDroppedCount());
+    }
+}
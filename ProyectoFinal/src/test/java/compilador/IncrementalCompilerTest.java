@@ -0,0 +1,139 @@
+package compilador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * IncrementalCompiler debe responder exactamente lo mismo que una compilación completa del
+ * mismo texto, reutilice lo que reutilice: código renumerado (tN/LN), funciones que se
+ * mueven de línea, firmas de funciones llamadas que cambian y errores de cualquier fase.
+ */
+class IncrementalCompilerTest {
+
+    private static final String PROGRAM = program(60);
+
+    // Cambia f10: más temporales, así las funciones siguientes se renumeran
+    private static final String EDITED = PROGRAM.replace(
+            "int f10(int a, boolean b) {\n    int x = a * 2 + 1;",
+            "int f10(int a, boolean b) {\n    int x = a * 2 + 1 * (a - 3);\n\n");
+
+    @TempDir
+    Path output;
+
+    private CompilerService full;
+    private IncrementalCompiler incremental;
+
+    @BeforeEach
+    void setUp() {
+        full = new CompilerService(false, null, output.toFile());
+        incremental = new IncrementalCompiler(new CompilerService(false, null, output.toFile()));
+    }
+
+    @Test
+    void unchangedProgramReusesEveryFunction() {
+        assertSameAsFullCompile(PROGRAM);
+        assertSameAsFullCompile(PROGRAM);
+        assertEquals(61, incremental.getReusedCount());
+        assertEquals(0, incremental.getRecompiledCount());
+    }
+
+    @Test
+    void editedFunctionRenumbersTheFollowingCode() {
+        assertSameAsFullCompile(PROGRAM);
+        assertSameAsFullCompile(EDITED);
+        assertEquals(1, incremental.getRecompiledCount());
+        // Líneas desplazadas sin cambiar ninguna función
+        assertSameAsFullCompile("// comentario\n\n" + EDITED);
+        assertEquals(0, incremental.getRecompiledCount());
+    }
+
+    @Test
+    void renumberedTemporariesAndLabelsMatch() {
+        String h = "int h(int p) { int q = p * 2 + 1; while (q > 0) { q = q - 1; } return q + p; }\n";
+        assertSameAsFullCompile("int g(int a) { return a + 1; }\n" + h);
+        assertSameAsFullCompile("int g(int a) { if (a > 0) { a = 0; } return a + 1 * (a - 2) + 3; }\n" + h);
+        assertEquals(1, incremental.getReusedCount());
+    }
+
+    @Test
+    void identifierShapedLikeATemporaryIsNotRenumbered() {
+        assertSameAsFullCompile(EDITED);
+        String withT3 = EDITED.replace("y = f44(y, b);", "y = f44(y, b);\n    int t3 = 7;\n    y = t3;");
+        assertSameAsFullCompile(withT3);
+        // f5 cambia: la función con 't3' debe generarse de nuevo, no renumerarse
+        assertSameAsFullCompile(withT3.replace(
+                "int f5(int a, boolean b) {\n    int x = a * 2 + 1;",
+                "int f5(int a, boolean b) {\n    int x = a * 2 + 1 + 1;"));
+    }
+
+    @Test
+    void calleeSignatureChangesRecheckTheCallers() {
+        assertSameAsFullCompile(EDITED);
+        // f31 usa el resultado de f30 como int y le pasa un boolean: ambas firmas la rompen
+        assertFailsLikeFullCompile(EDITED.replace("int f30(int a, boolean b)", "boolean f30(int a, boolean b)"));
+        assertSameAsFullCompile(EDITED);
+        assertFailsLikeFullCompile(EDITED.replace("int f30(int a, boolean b)", "int f30(int a, int b)"));
+        // Desaparece la función que llama main
+        assertFailsLikeFullCompile(EDITED.replace("int f59(", "int g59("));
+        assertSameAsFullCompile(EDITED);
+    }
+
+    @Test
+    void errorsMatchTheFullCompile() {
+        assertSameAsFullCompile(EDITED);
+        for (String broken : List.of(
+                EDITED.replace("int f20(int a", "int f20(int ,a"),                // sintáctico
+                "int f(){ return 1; }\nint g(){ return 1 + ; }",
+                "}",
+                "int main() { int x = 1 @ 2; return x; }")) {                     // léxico
+            assertFailsLikeFullCompile(broken);
+        }
+        // Una función repetida al final no es error, pero no debe confundirse con la original
+        assertSameAsFullCompile(EDITED + "\nint f10(int a, boolean b) { return 1; }\n");
+        assertSameAsFullCompile(EDITED);
+        assertEquals(61, incremental.getReusedCount());
+    }
+
+    private void assertSameAsFullCompile(String source) {
+        CompilerResult expected = full.compile(source);
+        CompilerResult actual = incremental.compile(source);
+        assertEquals(show(expected), show(actual));
+    }
+
+    private void assertFailsLikeFullCompile(String source) {
+        CompilerResult expected = full.compile(source);
+        assertFalse(expected.isSuccess());
+        assertEquals(show(expected), show(incremental.compile(source)));
+    }
+
+    private static String show(CompilerResult result) {
+        assertTrue(result.isSuccess() || result.getError() != null);
+        return result.isSuccess() + "\n" + result.getError() + "\n" + result.getAsmCode() + "\n"
+                + result.getDotCode() + "\n" + result.getDiagnostics();
+    }
+
+    // Funciones encadenadas: cada una llama a la anterior y usa if, while y temporales
+    private static String program(int functions) {
+        StringBuilder source = new StringBuilder();
+        for (int f = 0; f < functions; f++) {
+            source.append("int f").append(f).append("(int a, boolean b) {\n")
+                  .append("    int x = a * 2 + 1;\n    int y;\n    y = 0;\n")
+                  .append("    while (x > 0 && b) {\n")
+                  .append("        if (x == 3 || !b) { y = y + x; } else { y = y - 1; }\n")
+                  .append("        x = x - 1;\n    }\n");
+            if (f > 0) {
+                source.append("    y = f").append(f - 1).append("(y, b);\n");
+            }
+            source.append("    return y;\n}\n\n");
+        }
+        source.append("int main() {\n    int r;\n    r = f").append(functions - 1).append("(5, true);\n    return r;\n}\n");
+        return source.toString();
+    }
+}
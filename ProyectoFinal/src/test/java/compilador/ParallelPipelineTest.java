@@ -0,0 +1,149 @@
+package compilador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import compilador.diagnostico.DiagnosticCollector;
+import compilador.generacion.DiagramGenerator;
+import compilador.intermedio.Cuadrupla;
+import compilador.intermedio.InterCodeGenerator;
+import compilador.lexer.Lexer;
+import compilador.lexer.PackedTokenStream;
+import compilador.parser.Parser;
+import compilador.parser.declarations.FunctionDeclaration;
+import compilador.parser.declarations.Program;
+import compilador.parser.statements.DeclarationStatement;
+import compilador.semantico.SemanticAnalyzer;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Cada fase de ParallelPipeline debe dar lo mismo que su versión secuencial: el mismo AST,
+ * los mismos errores semánticos en el mismo orden y las mismas cuádruplas (con los
+ * temporales y etiquetas numerados igual), también cuando el programa se reparte en tramos.
+ */
+class ParallelPipelineTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @TempDir
+    Path output;
+
+    @Test
+    void stagesMatchTheSequentialPipeline() {
+        // Con 4 hilos y 16 funciones por tramo: 1, 2, 16 y 16 tramos
+        for (int functions : new int[] { 1, 17, 40, 300 }) {
+            String source = program(functions);
+            PackedTokenStream tokens = new Lexer(source).tokenize();
+
+            Program sequential = new Parser(tokens).parseProgram();
+            Program parallel = ParallelPipeline.parse(tokens, POOL);
+            assertNotNull(parallel);
+            assertEquals(new DiagramGenerator().generateDotString(sequential),
+                    new DiagramGenerator().generateDotString(parallel));
+
+            DiagnosticCollector sequentialErrors = new DiagnosticCollector();
+            DiagnosticCollector parallelErrors = new DiagnosticCollector();
+            new SemanticAnalyzer(tokens).setDiagnostics(sequentialErrors).analyze(sequential);
+            ParallelPipeline.analyze(parallel, tokens, parallelErrors, POOL);
+            assertEquals(0, sequentialErrors.getErrorCount());
+            assertEquals(0, parallelErrors.getErrorCount());
+
+            InterCodeGenerator generator = new InterCodeGenerator();
+            generator.generate(sequential);
+            assertEquals(show(generator.getCode()), show(ParallelPipeline.generate(parallel, POOL)));
+        }
+    }
+
+    @Test
+    void identifiersAreInternedAcrossChunks() {
+        Program program = ParallelPipeline.parse(new Lexer(program(300)).tokenize(), POOL);
+        List<FunctionDeclaration> functions = program.functions;
+        // La primera y la última función quedan en tramos distintos
+        assertSame(functions.get(0).parameters.get(0).id, functions.get(299).parameters.get(0).id);
+        assertSame(((DeclarationStatement) functions.get(0).body.statements.get(0)).id,
+                ((DeclarationStatement) functions.get(299).body.statements.get(0)).id);
+    }
+
+    @Test
+    void semanticErrorsKeepTheSequentialOrder() {
+        String source = program(100)
+                .replace("int f20(int a, boolean b) {\n    int x = a * 2 + 1;", "int f20(int a, boolean b) {\n    boolean x = 1;")
+                .replace("int f57(int a, boolean b) {\n    int x = a * 2 + 1;", "int f57(int a, boolean b) {\n    int x = a * 2 + true;")
+                .replace("int f80(int a, boolean b) {\n    int x = a * 2 + 1;", "int f80(int a, boolean b) {\n    int x = z;");
+        PackedTokenStream tokens = new Lexer(source).tokenize();
+
+        DiagnosticCollector sequentialErrors = new DiagnosticCollector();
+        DiagnosticCollector parallelErrors = new DiagnosticCollector();
+        new SemanticAnalyzer(tokens).setDiagnostics(sequentialErrors).analyze(new Parser(tokens).parseProgram());
+        ParallelPipeline.analyze(ParallelPipeline.parse(tokens, POOL), tokens, parallelErrors, POOL);
+
+        assertTrue(sequentialErrors.getErrorCount() >= 3);
+        assertEquals(sequentialErrors.getDiagnostics().toString(), parallelErrors.getDiagnostics().toString());
+    }
+
+    @Test
+    void syntaxErrorsAreLeftToTheSequentialParser() {
+        String source = program(100);
+        // Error dentro de una función, llave de más y llave de menos
+        for (String broken : new String[] { source.replace("int f57(int a", "int f57(int ,a"), source + "}", source.substring(0, source.length() - 2) }) {
+            assertNull(ParallelPipeline.parse(new Lexer(broken).tokenize(), POOL));
+        }
+    }
+
+    @Test
+    void serviceGivesTheSameResultInBothModes() {
+        String source = program(100);
+        List<String> variants = List.of(
+                source,
+                source.replace("int f57(int a, boolean b) {\n    int x = a * 2 + 1;", "int f57(int a, boolean b) {\n    int x = a * 2 + true;"),
+                source.replace("int f57(int a", "int f57(int ,a"),
+                source.replace("int f40(int a, boolean b) {", "int f3(int a, boolean b) {"),
+                source + "}");
+        File directory = output.toFile();
+        for (String variant : variants) {
+            CompilerResult sequential = new CompilerService(false, null, directory).compile(variant);
+            CompilerResult parallel = new CompilerService(true, null, directory).compile(variant);
+            assertEquals(sequential.isSuccess(), parallel.isSuccess());
+            assertEquals(sequential.getError(), parallel.getError());
+            assertEquals(sequential.getAsmCode(), parallel.getAsmCode());
+            assertEquals(sequential.getDotCode(), parallel.getDotCode());
+            assertEquals(String.valueOf(sequential.getDiagnostics()), String.valueOf(parallel.getDiagnostics()));
+        }
+    }
+
+    private static List<String> show(List<Cuadrupla> code) {
+        List<String> lines = new ArrayList<>(code.size());
+        for (Cuadrupla c : code) {
+            lines.add(c.operator + " " + c.operand1 + " " + c.operand2 + " " + c.result);
+        }
+        return lines;
+    }
+
+    // Funciones encadenadas: cada una llama a la anterior y usa if, while y temporales
+    private static String program(int functions) {
+        StringBuilder source = new StringBuilder();
+        for (int f = 0; f < functions; f++) {
+            source.append("int f").append(f).append("(int a, boolean b) {\n")
+                  .append("    int x = a * 2 + 1;\n    int y;\n    y = 0;\n")
+                  .append("    while (x > 0 && b) {\n")
+                  .append("        if (x == 3 || !b) { y = y + x; } else { y = y - 1; }\n")
+                  .append("        x = x - 1;\n    }\n");
+            if (f > 0) {
+                source.append("    y = f").append(f - 1).append("(y, b);\n");
+            }
+            source.append("    return y;\n}\n\n");
+        }
+        source.append("int main() {\n    int r;\n    r = f").append(functions - 1).append("(5, true);\n    return r;\n}\n");
+        return source.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package compilador.bench;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Medición de tiempos para los benchmarks: calienta el JIT repitiendo la operación y luego
+ * la mide en varias rondas de duración fija, mostrando la mediana. No reemplaza a JMH, pero
+ * no agrega dependencias y alcanza para comparar dos versiones en la misma máquina.
+ * Las duraciones se pueden cambiar con -Dbench.warmup y -Dbench.round (milisegundos).
+ */
+final class Bench {
+
+    private static final long WARMUP_NANOS = Long.getLong("bench.warmup", 2000) * 1_000_000;
+    private static final long ROUND_NANOS = Long.getLong("bench.round", 500) * 1_000_000;
+    private static final int ROUNDS = 7;
+
+    // El resultado de cada operación se publica aquí para que el JIT no la elimine
+    static volatile Object sink;
+
+    private Bench() {
+    }
+
+    /**
+     * Mide operation y muestra el tiempo por operación y cuántas unidades (caracteres,
+     * nodos, sentencias...) procesa por segundo.
+     */
+    static void measure(String name, long units, String unit, Supplier<?> operation) {
+        long end = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < end) {
+            sink = operation.get();
+        }
+
+        double[] nanosPerOp = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            long now;
+            int ops = 0;
+            do {
+                sink = operation.get();
+                ops++;
+                now = System.nanoTime();
+            } while (now - start < ROUND_NANOS);
+            nanosPerOp[round] = (double) (now - start) / ops;
+        }
+        Arrays.sort(nanosPerOp);
+        double median = nanosPerOp[ROUNDS / 2];
+        System.out.printf("%-32s %12.3f ms/op %12.2f M%s/s  (min %.3f, max %.3f)%n", name, median / 1e6,
+                units / median * 1e3, unit, nanosPerOp[0] / 1e6, nanosPerOp[ROUNDS - 1] / 1e6);
+    }
+}
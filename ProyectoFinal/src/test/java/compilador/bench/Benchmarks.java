@@ -0,0 +1,32 @@
+package compilador.bench;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Punto de entrada de los benchmarks (no son pruebas: surefire no los ejecuta).
+ * Con Maven: mvn -Pbench test-compile exec:java -Dbench=lexer
+ * Sin argumento (o con "all") se ejecutan todos, en el orden en que están registrados.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, Runnable> suites = new LinkedHashMap<>();
+        suites.put("lexer", LexerBenchmark::run);
+        suites.put("parser", ParserBenchmark::run);
+        suites.put("semantic", SemanticBenchmark::run);
+        suites.put("scopes", ScopeBenchmark::run);
+
+        String selected = args.length > 0 ? args[0] : "all";
+        if (selected.equals("all")) {
+            suites.values().forEach(Runnable::run);
+        } else if (suites.containsKey(selected)) {
+            suites.get(selected).run();
+        } else {
+            throw new IllegalArgumentException("Benchmark desconocido: " + selected + " (opciones: " + suites.keySet() + ", all)");
+        }
+    }
+}
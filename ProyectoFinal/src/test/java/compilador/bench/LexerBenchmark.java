@@ -0,0 +1,27 @@
+package compilador.bench;
+
+import compilador.lexer.Lexer;
+import compilador.lexer.Token;
+
+/**
+ * Analizador léxico sobre un programa de unos 4 MB: el recorrido token por token con
+ * nextToken() y tokenize(), que empaqueta todo el flujo.
+ */
+final class LexerBenchmark {
+
+    private LexerBenchmark() {
+    }
+
+    static void run() {
+        String source = SamplePrograms.functions(12_000);
+        Bench.measure("lexer.nextToken", source.length(), "chars", () -> {
+            Lexer lexer = new Lexer(source);
+            int count = 0;
+            while (lexer.nextToken().getType() != Token.TokenType.EOF) {
+                count++;
+            }
+            return count;
+        });
+        Bench.measure("lexer.tokenize", source.length(), "chars", () -> new Lexer(source).tokenize());
+    }
+}
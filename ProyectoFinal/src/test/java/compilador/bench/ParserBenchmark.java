@@ -0,0 +1,70 @@
+package compilador.bench;
+
+import compilador.lexer.Lexer;
+import compilador.lexer.PackedTokenStream;
+import compilador.parser.Parser;
+
+/**
+ * Parser de expresiones sobre tokens ya escaneados: muchas expresiones anchas y cortas
+ * (la mayoría de los operandos son simples), cadenas largas de un mismo operador y
+ * paréntesis anidados.
+ */
+final class ParserBenchmark {
+
+    private ParserBenchmark() {
+    }
+
+    static void run() {
+        measure("parser.wide", wide(40_000));
+        measure("parser.chain", chain(4_000, 100));
+        measure("parser.nested", nested(4_000, 200));
+        measure("parser.program", SamplePrograms.functions(12_000));
+    }
+
+    private static void measure(String name, String source) {
+        PackedTokenStream tokens = new Lexer(source).tokenize();
+        Bench.measure(name, tokens.size(), "tokens", () -> new Parser(tokens).parseProgram());
+    }
+
+    // Sentencias con todos los niveles de precedencia, literales y variables sueltas
+    private static String wide(int statements) {
+        StringBuilder source = new StringBuilder("int f(int a, int b, boolean c) {\n    int x;\n    boolean y;\n");
+        for (int i = 0; i < statements; i++) {
+            source.append(i % 2 == 0
+                    ? "    x = a + b * " + i + " - (a - b) / 2;\n"
+                    : "    y = a < b && !c || a + 1 == b * " + i + " && c != false;\n");
+        }
+        return source.append("    return x;\n}\n").toString();
+    }
+
+    // Cadenas largas a la izquierda de un mismo nivel de precedencia: a + a + ... y a * a * ...
+    private static String chain(int statements, int length) {
+        StringBuilder source = new StringBuilder("int f(int a) {\n    int x;\n");
+        for (int i = 0; i < statements; i++) {
+            source.append("    x = a");
+            String operator = i % 2 == 0 ? " + " : " * ";
+            for (int k = 0; k < length; k++) {
+                source.append(operator).append('a');
+            }
+            source.append(";\n");
+        }
+        return source.append("    return x;\n}\n").toString();
+    }
+
+    // Paréntesis anidados: cada nivel pasa por la expresión completa
+    private static String nested(int statements, int depth) {
+        StringBuilder source = new StringBuilder("int f(int a) {\n    int x;\n");
+        for (int i = 0; i < statements; i++) {
+            source.append("    x = ");
+            for (int k = 0; k < depth; k++) {
+                source.append("(a + ");
+            }
+            source.append('1');
+            for (int k = 0; k < depth; k++) {
+                source.append(')');
+            }
+            source.append(";\n");
+        }
+        return source.append("    return x;\n}\n").toString();
+    }
+}
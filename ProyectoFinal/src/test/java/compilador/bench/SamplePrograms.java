@@ -0,0 +1,30 @@
+package compilador.bench;
+
+/**
+ * Programas MiniJava generados para los benchmarks: válidos, sin errores semánticos y del
+ * tamaño que se pida.
+ */
+final class SamplePrograms {
+
+    private SamplePrograms() {
+    }
+
+    // Funciones encadenadas con declaraciones, if, while, llamadas y expresiones con todos los operadores
+    static String functions(int count) {
+        StringBuilder source = new StringBuilder();
+        for (int f = 0; f < count; f++) {
+            source.append("int f").append(f).append("(int a, boolean b) {\n")
+                  .append("    // cuerpo de f").append(f).append('\n')
+                  .append("    int total = a * 2 + 1;\n    int i;\n    i = 0;\n")
+                  .append("    while (i < a && b) {\n")
+                  .append("        if (i == 3 || !b) { total = total + i * (a - 1); } else { total = total - i / 2; }\n")
+                  .append("        i = i + 1;\n    }\n");
+            if (f > 0) {
+                source.append("    total = f").append(f - 1).append("(total, i >= 10 && b != false);\n");
+            }
+            source.append("    return total;\n}\n\n");
+        }
+        source.append("int main() {\n    int r;\n    r = f").append(count - 1).append("(5, true);\n    return r;\n}\n");
+        return source.toString();
+    }
+}
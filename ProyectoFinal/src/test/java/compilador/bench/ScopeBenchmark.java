@@ -0,0 +1,74 @@
+package compilador.bench;
+
+import compilador.generacion.CodeGenerator;
+import compilador.intermedio.Cuadrupla;
+import compilador.intermedio.InterCodeGenerator;
+import compilador.lexer.Lexer;
+import compilador.parser.Parser;
+import compilador.parser.declarations.Program;
+import compilador.semantico.SemanticAnalyzer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Muchos ámbitos anidados con muchas variables locales: cada acceso se resuelve en el
+ * semántico y las fases siguientes trabajan con las casillas del marco.
+ */
+final class ScopeBenchmark {
+
+    private static final int FUNCTIONS = 10;
+    private static final int DEPTH = 40;
+    private static final int LOCALS = 20;
+
+    private ScopeBenchmark() {
+    }
+
+    static void run() {
+        String source = nestedScopes();
+        SemanticBenchmark.measure("scopes.analyze", source);
+
+        Parser parser = new Parser(new Lexer(source).tokenize());
+        Program program = parser.parseProgram();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            new SemanticAnalyzer(parser.getSpans()).analyze(program);
+        } finally {
+            System.setOut(out);
+        }
+        InterCodeGenerator generator = new InterCodeGenerator();
+        generator.generate(program);
+        List<Cuadrupla> code = generator.getCode();
+
+        Bench.measure("scopes.intermediate", code.size(), "quads", () -> {
+            InterCodeGenerator g = new InterCodeGenerator();
+            g.generate(program);
+            return g.getCode();
+        });
+        Bench.measure("scopes.assembly", code.size(), "quads", () -> new CodeGenerator(code).generate());
+    }
+
+    // En cada nivel se declaran LOCALS variables que leen la del nivel anterior y la del parámetro
+    private static String nestedScopes() {
+        StringBuilder source = new StringBuilder();
+        for (int f = 0; f < FUNCTIONS; f++) {
+            source.append("int f").append(f).append("(int p) {\n    int v0x0 = p;\n");
+            for (int d = 1; d <= DEPTH; d++) {
+                source.append("{\n");
+                for (int l = 0; l < LOCALS; l++) {
+                    source.append("int v").append(d).append('x').append(l)
+                          .append(" = v").append(d - 1).append("x0 + p * ").append(l).append(";\n");
+                }
+                source.append("v0x0 = v0x0 + v").append(d).append("x").append(LOCALS - 1).append(";\n");
+            }
+            for (int d = 1; d <= DEPTH; d++) {
+                source.append("}\n");
+            }
+            source.append("    return v0x0;\n}\n\n");
+        }
+        source.append("int main() {\n    return f").append(FUNCTIONS - 1).append("(1);\n}\n");
+        return source.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package compilador.bench;
+
+import compilador.lexer.Lexer;
+import compilador.parser.ASTNode;
+import compilador.parser.Parser;
+import compilador.parser.declarations.Program;
+import compilador.semantico.SemanticAnalyzer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+
+/**
+ * Análisis semántico de un programa ya construido: verificación de tipos de todas las
+ * expresiones, llamadas con sus argumentos y resolución de variables. Además del programa
+ * de ejemplo, uno de 100.000 sentencias cortas donde casi todo es comparar tipos.
+ */
+final class SemanticBenchmark {
+
+    private SemanticBenchmark() {
+    }
+
+    static void run() {
+        measure("semantic.program", SamplePrograms.functions(12_000));
+        measure("semantic.statements", statements(100_000));
+    }
+
+    // 100 funciones de 1000 sentencias: declaraciones, asignaciones, if y llamadas, con int y boolean
+    private static String statements(int count) {
+        StringBuilder source = new StringBuilder();
+        int functions = count / 1000;
+        for (int f = 0; f < functions; f++) {
+            source.append("int f").append(f).append("(int a, boolean b) {\n    int x = a;\n    boolean c = b;\n");
+            for (int i = 2; i < 1000; i++) {
+                switch (i % 4) {
+                    case 0:
+                        source.append("    x = x * 2 + a - ").append(i).append(";\n");
+                        break;
+                    case 1:
+                        source.append("    c = x < a && !c || b == c;\n");
+                        break;
+                    case 2:
+                        source.append("    if (c != b) x = x / 3; else x = -x;\n");
+                        break;
+                    default:
+                        source.append(f > 0 ? "    x = f" + (f - 1) + "(x, c);\n" : "    x = x + 1;\n");
+                        break;
+                }
+            }
+            source.append("    return x;\n}\n\n");
+        }
+        return source.append("int main() {\n    return f").append(functions - 1).append("(1, true);\n}\n").toString();
+    }
+
+    static void measure(String name, String source) {
+        Parser parser = new Parser(new Lexer(source).tokenize());
+        Program program = parser.parseProgram();
+        int nodes = count(program);
+        PrintStream out = System.out;
+        PrintStream quiet = new PrintStream(OutputStream.nullOutputStream());
+        Bench.measure(name, nodes, "nodes", () -> {
+            // analyze anuncia cada ejecución por consola
+            System.setOut(quiet);
+            try {
+                new SemanticAnalyzer(parser.getSpans()).analyze(program);
+            } finally {
+                System.setOut(out);
+            }
+            return program;
+        });
+    }
+
+    // Nodos del árbol (los hijos opcionales ausentes no cuentan)
+    private static int count(ASTNode root) {
+        ArrayDeque<ASTNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        int count = 0;
+        while (!pending.isEmpty()) {
+            ASTNode node = pending.pop();
+            count++;
+            for (int i = 0; i < node.getChildCount(); i++) {
+                if (node.getChild(i) != null) {
+                    pending.push(node.getChild(i));
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,46 @@
+package compilador.intermedio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import compilador.lexer.Lexer;
+import compilador.parser.Parser;
+import compilador.parser.declarations.FunctionDeclaration;
+import compilador.parser.declarations.Program;
+import compilador.semantico.SemanticAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InterCodeGeneratorTest {
+
+    // Llamadas como cuerpo sin llaves de if, else y while, además de dentro de un bloque
+    private static final String UNBRACED_CALLS =
+            "int foo(int a) {\n    return a;\n}\n\n"
+          + "int main() {\n"
+          + "    int c;\n"
+          + "    c = 3;\n"
+          + "    if (c > 0) foo(c);\n"
+          + "    if (c > 1) foo(c); else foo(1);\n"
+          + "    while (c > 5) foo(c);\n"
+          + "    { foo(2); }\n"
+          + "    return c;\n"
+          + "}\n";
+
+    @Test
+    void callStatementsLeaveNoResultsOnTheStack() {
+        Program program = new Parser(new Lexer(UNBRACED_CALLS)).parseProgram();
+        new SemanticAnalyzer().analyze(program);
+
+        List<Integer> pending = new ArrayList<>();
+        InterCodeGenerator generator = new InterCodeGenerator() {
+            @Override
+            public void exit(FunctionDeclaration node) {
+                super.exit(node);
+                pending.add(pendingValues());
+            }
+        };
+        generator.generate(program);
+        assertEquals(List.of(0, 0), pending);
+    }
+}
@@ -0,0 +1,99 @@
+package compilador.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class AsyncTokenCursorTest {
+
+    // Más de un lote (256 tokens), así el constructor recibe el primero sin llegar al final
+    private static final String PREFIX = "int x; ".repeat(200);
+
+    @Test
+    void tokensMatchTheSequentialLexer() {
+        String source = PREFIX + "int main() { return 1 + 2; }";
+        PackedTokenStream expected = new Lexer(source).tokenize();
+        try (AsyncTokenCursor cursor = new AsyncTokenCursor(new Lexer(new StringReader(source)))) {
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.getType(i), cursor.getType());
+                assertEquals(expected.getLexeme(i), cursor.getLexeme());
+                assertEquals(expected.getColumn(i), cursor.getSpans().getColumn(i));
+                cursor.advance();
+            }
+            assertEquals(Token.TokenType.EOF, cursor.getType());
+        }
+    }
+
+    @Test
+    void errorInTheReaderThreadIsRethrown() {
+        Error failure = new Error("lectura simulada");
+        Reader reader = new Reader() {
+            private boolean first = true;
+
+            // La primera lectura puede ocurrir en el constructor del Lexer; la segunda ya es del hilo lector
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (first) {
+                    first = false;
+                    buffer[offset] = ' ';
+                    return 1;
+                }
+                throw failure;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        // Antes, un Error mataba al hilo lector y el Parser esperaba el primer lote para siempre
+        Error thrown = assertThrows(Error.class, () -> new AsyncTokenCursor(new Lexer(reader)).close());
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void closeDoesNotWaitForABlockedReader() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Reader reader = new Reader() {
+            private final Reader text = new StringReader(PREFIX);
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = text.read(buffer, offset, length);
+                if (read > 0) {
+                    return read;
+                }
+                // Fin de lo disponible: se bloquea sin responder a la interrupción
+                while (true) {
+                    try {
+                        release.await();
+                        return -1;
+                    } catch (InterruptedException ignored) {
+                        // Como un Reader de socket que no se puede interrumpir
+                    }
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try {
+            AsyncTokenCursor cursor = new AsyncTokenCursor(new Lexer(reader));
+            assertEquals(Token.TokenType.INT, cursor.getType());
+            long start = System.nanoTime();
+            cursor.close();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(millis < 5_000, "close() tardó " + millis + " ms");
+        } finally {
+            release.countDown();
+        }
+    }
+}
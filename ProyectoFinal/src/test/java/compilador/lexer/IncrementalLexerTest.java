@@ -0,0 +1,62 @@
+package compilador.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IncrementalLexer.relex debe dar exactamente el mismo flujo que escanear de nuevo todo el
+ * texto editado, incluidas las ediciones que parten, unen o crean tokens y saltos de línea.
+ */
+class IncrementalLexerTest {
+
+    @Test
+    void relexEqualsFullRelexAfterRandomEdits() {
+        Random random = new Random(3);
+        for (int sample = 0; sample < 3000; sample++) {
+            PackedTokenStream tokens = new Lexer(LexerSamples.randomText(random, random.nextInt(120))).tokenize();
+            // Ediciones encadenadas: cada una parte del resultado incremental anterior
+            for (int edit = 0; edit < 5; edit++) {
+                String source = tokens.getSource().toString();
+                int offset = random.nextInt(source.length() + 1);
+                int removed = random.nextInt(Math.min(4, source.length() - offset) + 1);
+                String inserted = LexerSamples.randomText(random, random.nextInt(5));
+
+                PackedTokenStream relexed = IncrementalLexer.relex(tokens, offset, removed, inserted);
+                String edited = source.substring(0, offset) + inserted + source.substring(offset + removed);
+                assertEquals(LexerSamples.dump(new Lexer(edited).tokenize()), LexerSamples.dump(relexed),
+                        "Edición en " + offset + " (-" + removed + " +'" + inserted + "') sobre '" + source + "'");
+                tokens = relexed;
+            }
+        }
+    }
+
+    @Test
+    void editsThatJoinAndSplitTokens() {
+        PackedTokenStream tokens = new Lexer("int a = b <\n= c; // x\nreturn a;").tokenize();
+        String[][] edits = {
+            // offset, borrados, insertados
+            { "10", "2", "" },       // '<' y '=' quedan juntos: '<='
+            { "4", "1", "ab9" },    // identificador más largo
+            { "0", "3", "in" },      // la palabra clave pasa a identificador
+            { "12", "0", "\n\n" },   // líneas nuevas: se desplazan las siguientes
+            { "16", "0", "/" },      // empieza un comentario
+        };
+        for (String[] edit : edits) {
+            int offset = Integer.parseInt(edit[0]);
+            int removed = Integer.parseInt(edit[1]);
+            String source = tokens.getSource().toString();
+            tokens = IncrementalLexer.relex(tokens, offset, removed, edit[2]);
+            String edited = source.substring(0, offset) + edit[2] + source.substring(offset + removed);
+            assertEquals(LexerSamples.dump(new Lexer(edited).tokenize()), LexerSamples.dump(tokens));
+        }
+    }
+
+    @Test
+    void editOutsideTheTextIsRejected() {
+        PackedTokenStream tokens = new Lexer("int a;").tokenize();
+        assertThrows(IllegalArgumentException.class, () -> IncrementalLexer.relex(tokens, 4, 5, "x"));
+    }
+}
@@ -0,0 +1,48 @@
+package compilador.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Textos aleatorios para comparar variantes del Lexer con el escaneo secuencial completo,
+ * y un volcado de todo lo que guarda un PackedTokenStream por token.
+ */
+final class LexerSamples {
+
+    // Solo texto que el Lexer acepta: con caracteres o números inválidos los errores se
+    // imprimirían por System.err. Por eso no hay '&' ni '|' sueltos ni literales largos
+    private static final String ALPHABET = "abcxyz019 \n\t+-*/=<>!;,(){}";
+
+    // Palabras clave, casi palabras clave, comentarios y operadores dobles
+    private static final String[] WORDS = {
+        "if", "else", "while", "int", "boolean", "true", "false", "return",
+        "iff", "retur", "returns", "//c\n", "==", "!=", "<=", ">="
+    };
+
+    private LexerSamples() {
+    }
+
+    static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (random.nextInt(5) == 0) {
+                text.append(WORDS[random.nextInt(WORDS.length)]);
+            } else {
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+        }
+        return text.toString();
+    }
+
+    // Una línea por token: tipo, posición, línea, columna, lexema y valor
+    static List<String> dump(PackedTokenStream tokens) {
+        List<String> lines = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            lines.add(tokens.getType(i) + " @" + tokens.getStart(i) + "+" + tokens.getLength(i)
+                    + " " + tokens.getLine(i) + ":" + tokens.getColumn(i)
+                    + " '" + tokens.getLexeme(i) + "' " + tokens.getLiteralValue(i));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,63 @@
+package compilador.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class NameTableTest {
+
+    @Test
+    void sameNameIsTheSameInstance() {
+        NameTable table = new NameTable();
+        String text = "abc abd abc";
+        String first = table.intern(text, 0, 3);
+        assertEquals("abc", first);
+        assertSame(first, table.intern(text, 8, 11));
+        assertEquals("abd", table.intern(text, 4, 7));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void localTablesShareInstancesAcrossThreads() throws Exception {
+        NameTable shared = new NameTable();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("id").append(i).append(' ');
+        }
+        String source = text.toString();
+
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(threads.submit(() -> {
+                    NameTable local = new NameTable(shared);
+                    String[] names = new String[5000];
+                    int start = 0;
+                    for (int i = 0; i < names.length; i++) {
+                        int end = source.indexOf(' ', start);
+                        names[i] = local.intern(source, start, end);
+                        start = end + 1;
+                    }
+                    return names;
+                }));
+            }
+            String[] expected = results.get(0).get();
+            for (Future<String[]> result : results) {
+                String[] names = result.get();
+                for (int i = 0; i < names.length; i++) {
+                    assertSame(expected[i], names[i]);
+                }
+            }
+            assertEquals(5000, shared.size());
+        } finally {
+            threads.shutdown();
+        }
+    }
+}
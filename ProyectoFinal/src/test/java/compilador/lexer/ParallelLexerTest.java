@@ -0,0 +1,85 @@
+package compilador.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import compilador.diagnostico.DiagnosticCollector;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ParallelLexer debe dar los mismos tokens y los mismos diagnósticos, en el mismo orden,
+ * que el Lexer secuencial, sin importar dónde caigan los cortes entre bloques.
+ */
+class ParallelLexerTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Test
+    void sameTokensAndDiagnosticsAsTheSequentialLexer() {
+        Random random = new Random(3);
+        for (int sample = 0; sample < 20; sample++) {
+            // Entre 150 KB y 600 KB: de 2 a 9 bloques con MIN_CHUNK = 64 KB
+            String source = withErrors(random, LexerSamples.randomText(random, 150_000 + random.nextInt(450_000)));
+            assertTrue(ParallelLexer.splitPoints(source, POOL.getParallelism()).length > 2);
+            assertSameAsSequential(source, DiagnosticCollector.DEFAULT_LIMIT);
+        }
+    }
+
+    @Test
+    void diagnosticLimitCountsAcrossChunks() {
+        Random random = new Random(5);
+        // Muchos errores repartidos en todos los bloques: los descartados también deben coincidir
+        String source = withErrors(random, LexerSamples.randomText(random, 500_000));
+        assertSameAsSequential(source, 10);
+    }
+
+    @Test
+    void nulCharacterEndsTheStreamInAnyChunk() {
+        Random random = new Random(7);
+        String text = LexerSamples.randomText(random, 400_000);
+        int nul = text.indexOf('\n', 300_000) + 1;
+        assertSameAsSequential(text.substring(0, nul) + "int x;\0 int y;" + text.substring(nul), DiagnosticCollector.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void splitPointsFollowANewline() {
+        String source = LexerSamples.randomText(new Random(9), 1_000_000);
+        int[] bounds = ParallelLexer.splitPoints(source, 4);
+        assertEquals(0, bounds[0]);
+        assertEquals(source.length(), bounds[bounds.length - 1]);
+        for (int i = 1; i < bounds.length - 1; i++) {
+            assertTrue(bounds[i] > bounds[i - 1]);
+            assertEquals('\n', source.charAt(bounds[i] - 1));
+        }
+    }
+
+    @Test
+    void sourceWithoutNewlinesIsASingleChunk() {
+        String source = "int a; ".repeat(50_000);
+        assertEquals(2, ParallelLexer.splitPoints(source, 4).length);
+        assertSameAsSequential(source, DiagnosticCollector.DEFAULT_LIMIT);
+    }
+
+    private static void assertSameAsSequential(String source, int limit) {
+        DiagnosticCollector sequential = new DiagnosticCollector(limit);
+        DiagnosticCollector parallel = new DiagnosticCollector(limit);
+        PackedTokenStream expected = new Lexer(source).setDiagnostics(sequential).tokenize();
+        PackedTokenStream actual = ParallelLexer.tokenize(source, parallel, POOL);
+
+        assertEquals(LexerSamples.dump(expected), LexerSamples.dump(actual));
+        assertEquals(sequential.getDiagnostics().toString(), parallel.getDiagnostics().toString());
+        assertEquals(sequential.getDroppedCount(), parallel.getDroppedCount());
+    }
+
+    // Caracteres inválidos sueltos: con colector los errores no se imprimen
+    private static String withErrors(Random random, String text) {
+        StringBuilder source = new StringBuilder(text);
+        for (int i = 0; i < 40; i++) {
+            source.setCharAt(random.nextInt(source.length()), '@');
+        }
+        return source.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package compilador.parser;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import compilador.generacion.DiagramGenerator;
+import compilador.intermedio.InterCodeGenerator;
+import compilador.lexer.Lexer;
+import compilador.lexer.TokenSpans;
+import compilador.parser.declarations.Program;
+import compilador.semantico.SemanticAnalyzer;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Ida y vuelta del formato de ASTCache: el AST leído debe ser equivalente al original
+ * (mismo diagrama, mismas cuádruplas tras el semántico, mismas columnas) y un archivo
+ * dañado debe rechazarse con IllegalArgumentException.
+ */
+class ASTSerializerTest {
+
+    private static final String PROGRAM =
+            "int factorial(int n) {\n"
+            + "    if (n <= 1) return 1;\n"
+            + "    return n * factorial(n - 1);\n"
+            + "}\n"
+            + "boolean par(int n) {\n"
+            + "    boolean r = true;\n"
+            + "    while (n > 0) { r = !r; n = n - 1; }\n"
+            + "    return r && -n == 0 || false;\n"
+            + "}\n"
+            + "int main() {\n"
+            + "    int x = factorial(5);\n"
+            + "    if (par(x)) { x = x / 2; } else { x = 0; }\n"
+            + "    return x;\n"
+            + "}\n";
+
+    @Test
+    void roundTripKeepsTheProgram() {
+        assertEquivalentAfterRoundTrip(PROGRAM);
+    }
+
+    @Test
+    void roundTripKeepsRandomPrograms() {
+        for (int seed = 0; seed < 200; seed++) {
+            assertEquivalentAfterRoundTrip(randomProgram(new Random(seed)));
+        }
+    }
+
+    @Test
+    void nodesWithManyChildrenUseAVarintCount() {
+        StringBuilder sb = new StringBuilder("int f(int a, int b) { return a; }\nint main() {\n");
+        for (int i = 0; i < 40; i++) {
+            sb.append("    int x").append(i).append(" = f(").append(i).append(", -").append(i).append(");\n");
+        }
+        sb.append("    return x0;\n}\n");
+        assertEquivalentAfterRoundTrip(sb.toString());
+    }
+
+    @Test
+    void truncatedDataIsRejected() {
+        byte[] data = serialize(PROGRAM);
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(IllegalArgumentException.class, () -> ASTSerializer.deserialize(truncated));
+        }
+    }
+
+    @Test
+    void trailingBytesAreRejected() {
+        byte[] data = serialize(PROGRAM);
+        byte[] longer = Arrays.copyOf(data, data.length + 1);
+        assertThrows(IllegalArgumentException.class, () -> ASTSerializer.deserialize(longer));
+    }
+
+    @Test
+    void hugeCountsAreRejectedBeforeAllocating() {
+        // "MJA", versión 1 y una cantidad de cadenas de 2^31 - 1
+        byte[] data = { 'M', 'J', 'A', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+        assertThrows(IllegalArgumentException.class, () -> ASTSerializer.deserialize(data));
+
+        // Sin cadenas y 2^28 nodos
+        byte[] nodes = { 'M', 'J', 'A', 1, 0, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01 };
+        assertThrows(IllegalArgumentException.class, () -> ASTSerializer.deserialize(nodes));
+    }
+
+    @Test
+    void corruptedBytesNeverEscapeAsOtherExceptions() {
+        byte[] data = serialize(PROGRAM);
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            byte[] corrupted = data.clone();
+            corrupted[random.nextInt(corrupted.length)] = (byte) random.nextInt(256);
+            try {
+                ASTSerializer.deserialize(corrupted);
+            } catch (IllegalArgumentException e) {
+                // Esperado: el caché lo trata como si no hubiera entrada
+            }
+        }
+    }
+
+    @Test
+    void otherVersionsAreRejected() {
+        byte[] data = serialize(PROGRAM);
+        data[3] = 2;
+        assertThrows(IllegalArgumentException.class, () -> ASTSerializer.deserialize(data));
+    }
+
+    // --- Utilidades ---
+
+    private static byte[] serialize(String source) {
+        Parser parser = new Parser(new Lexer(source).tokenize());
+        return ASTSerializer.serialize(parser.parseProgram(), parser.getSpans());
+    }
+
+    private static void assertEquivalentAfterRoundTrip(String source) {
+        Parser parser = new Parser(new Lexer(source).tokenize());
+        Program original = parser.parseProgram();
+        TokenSpans spans = parser.getSpans();
+        byte[] data = ASTSerializer.serialize(original, spans);
+
+        ASTSerializer.Decoded decoded = ASTSerializer.deserialize(data);
+
+        // Mismos nodos, líneas, índices de token y columnas: volver a escribirlo da los mismos bytes
+        assertArrayEquals(data, ASTSerializer.serialize(decoded.program, decoded.spans), source);
+        assertEquals(new DiagramGenerator().generateDotString(original),
+                new DiagramGenerator().generateDotString(decoded.program), source);
+        assertEquals(compile(original, spans), compile(decoded.program, decoded.spans), source);
+    }
+
+    // Errores semánticos (con columna) o cuádruplas del programa
+    private static String compile(Program program, TokenSpans spans) {
+        try {
+            new SemanticAnalyzer(spans).analyze(program);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+        InterCodeGenerator generator = new InterCodeGenerator();
+        generator.generate(program);
+        return generator.getCode().toString();
+    }
+
+    private static String randomProgram(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int functions = 1 + random.nextInt(3);
+        for (int f = 0; f < functions; f++) {
+            sb.append(random.nextBoolean() ? "int" : "boolean").append(" f").append(f).append("(int a, boolean b) {\n");
+            sb.append("    int x = ").append(expression(random, 3)).append(";\n");
+            statements(random, sb, 3);
+            sb.append("    return x;\n}\n");
+        }
+        return sb.toString();
+    }
+
+    private static void statements(Random random, StringBuilder sb, int depth) {
+        int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            switch (random.nextInt(depth > 0 ? 5 : 2)) {
+                case 0:
+                    sb.append("x = ").append(expression(random, 3)).append(";\n");
+                    break;
+                case 1:
+                    sb.append("x = f0(x, b);\n");
+                    break;
+                case 2:
+                    sb.append("if (b) {\n");
+                    statements(random, sb, depth - 1);
+                    sb.append("} else x = 1;\n");
+                    break;
+                case 3:
+                    sb.append("while (x < ").append(random.nextInt(100)).append(")\n");
+                    sb.append("x = x + 1;\n");
+                    break;
+                default:
+                    sb.append("{\nint y").append(depth).append(" = -x;\n");
+                    statements(random, sb, depth - 1);
+                    sb.append("}\n");
+                    break;
+            }
+        }
+    }
+
+    private static String expression(Random random, int depth) {
+        if (depth == 0 || random.nextInt(3) == 0) {
+            return random.nextBoolean() ? "a" : String.valueOf(random.nextInt(1000));
+        }
+        String[] operators = { "+", "-", "*", "/" };
+        return "(" + expression(random, depth - 1) + " " + operators[random.nextInt(4)] + " "
+                + expression(random, depth - 1) + ")";
+    }
+}
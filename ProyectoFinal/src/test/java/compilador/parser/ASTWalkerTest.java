@@ -0,0 +1,322 @@
+package compilador.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import compilador.lexer.Lexer;
+import compilador.parser.declarations.*;
+import compilador.parser.expressions.*;
+import compilador.parser.statements.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * El Parser (sin recursión para bloques, if y while) y ASTWalker deben dar lo mismo que la
+ * versión recursiva: el mismo árbol que describe un generador recursivo de programas y la
+ * misma forma que un ASTVisitor recursivo. Con anidamiento muy profundo y una pila chica
+ * ambos siguen funcionando.
+ */
+class ASTWalkerTest {
+
+    @Test
+    void parserBuildsTheTreeOfRandomNestedPrograms() {
+        for (int seed = 0; seed < 2000; seed++) {
+            Random random = new Random(seed);
+            StringBuilder source = new StringBuilder();
+            StringBuilder expected = new StringBuilder("program(");
+            int functions = 1 + random.nextInt(3);
+            for (int f = 0; f < functions; f++) {
+                source.append("int f").append(f).append("(int x) ");
+                expected.append(f > 0 ? "," : "").append("function f").append(f).append("(param x,");
+                block(random, 4, source, expected);
+                source.append('\n');
+                expected.append(')');
+            }
+            expected.append(')');
+
+            Program program = new Parser(new Lexer(source.toString())).parseProgram();
+            assertEquals(expected.toString(), program.accept(new RecursiveShape()), source.toString());
+        }
+    }
+
+    @Test
+    void walkerVisitsLikeTheRecursiveVisitor() {
+        for (int seed = 0; seed < 2000; seed++) {
+            Random random = new Random(seed);
+            StringBuilder source = new StringBuilder("int f(int x) ");
+            block(random, 5, source, new StringBuilder());
+            Program program = new Parser(new Lexer(source.toString())).parseProgram();
+
+            ShapeListener shape = new ShapeListener();
+            ASTWalker.walk(program, shape);
+            assertEquals(program.accept(new RecursiveShape()), shape.text.toString());
+        }
+    }
+
+    @Test
+    void deepNestingNeedsNoThreadStack() throws InterruptedException {
+        int depth = 20_000;
+        StringBuilder source = new StringBuilder("int f(int x) { ");
+        StringBuilder expected = new StringBuilder("program(function f(param x,block(");
+        for (int i = 0; i < depth; i++) {
+            switch (i % 3) {
+                case 0:
+                    source.append("{ ");
+                    expected.append("block(");
+                    break;
+                case 1:
+                    source.append("if (x < 2) ");
+                    expected.append("if(<(var x,2),");
+                    break;
+                default:
+                    source.append("while (x > 1) ");
+                    expected.append("while(>(var x,1),");
+                    break;
+            }
+        }
+        source.append("x = 1;");
+        expected.append("assign x(1)");
+        for (int i = depth - 1; i >= 0; i--) {
+            if (i % 3 == 0) {
+                source.append(" }");
+            }
+            expected.append(')');
+        }
+        source.append(" }");
+        expected.append(")))");
+
+        // Con 256 KB de pila, 20.000 niveles recursivos no alcanzarían
+        String[] shape = new String[1];
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                ShapeListener listener = new ShapeListener();
+                ASTWalker.walk(new Parser(new Lexer(source.toString())).parseProgram(), listener);
+                shape[0] = listener.text.toString();
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, "pila-chica", 256 * 1024);
+        thread.start();
+        thread.join();
+
+        assertNull(failure[0]);
+        assertEquals(expected.toString(), shape[0]);
+    }
+
+    // --- Generador recursivo: escribe el código y, a la vez, la forma que debe tener su árbol ---
+
+    private static void block(Random random, int depth, StringBuilder source, StringBuilder expected) {
+        source.append("{ ");
+        expected.append("block(");
+        int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                expected.append(',');
+            }
+            statement(random, depth, source, expected);
+            source.append(' ');
+        }
+        source.append('}');
+        expected.append(')');
+    }
+
+    // Devuelve true si el código termina en un if sin else: un else a continuación sería suyo
+    private static boolean statement(Random random, int depth, StringBuilder source, StringBuilder expected) {
+        int value = random.nextInt(9);
+        switch (random.nextInt(depth <= 0 ? 5 : 8)) {
+            case 0:
+                source.append("int y = ").append(value).append(';');
+                expected.append("decl y(").append(value).append(')');
+                return false;
+            case 1:
+                source.append("x = x + ").append(value).append(';');
+                expected.append("assign x(+(var x,").append(value).append("))");
+                return false;
+            case 2:
+                source.append("return x;");
+                expected.append("return(var x)");
+                return false;
+            case 3:
+                source.append("f(x, !true);");
+                expected.append("call f(var x,!(true))");
+                return false;
+            case 4:
+                source.append("int z;");
+                expected.append("decl z()");
+                return false;
+            case 5: {
+                source.append("if (x < ").append(value).append(") ");
+                expected.append("if(<(var x,").append(value).append("),");
+                boolean dangling = statement(random, depth - 1, source, expected);
+                boolean withElse = !dangling && random.nextBoolean();
+                if (withElse) {
+                    source.append(" else ");
+                    expected.append(',');
+                    dangling = statement(random, depth - 1, source, expected);
+                }
+                expected.append(')');
+                return withElse ? dangling : true;
+            }
+            case 6: {
+                source.append("while (x > 0) ");
+                expected.append("while(>(var x,0),");
+                boolean dangling = statement(random, depth - 1, source, expected);
+                expected.append(')');
+                return dangling;
+            }
+            default:
+                block(random, depth - 1, source, expected);
+                return false;
+        }
+    }
+
+    // --- La misma forma, recursiva (ASTVisitor) e iterativa (ASTListener) ---
+
+    private static String label(ASTNode node) {
+        if (node instanceof Program) return "program";
+        if (node instanceof FunctionDeclaration) return "function " + ((FunctionDeclaration) node).id;
+        if (node instanceof Parameter) return "param " + ((Parameter) node).id;
+        if (node instanceof BlockStatement) return "block";
+        if (node instanceof DeclarationStatement) return "decl " + ((DeclarationStatement) node).id;
+        if (node instanceof AssignmentStatement) return "assign " + ((AssignmentStatement) node).id;
+        if (node instanceof IfStatement) return "if";
+        if (node instanceof WhileStatement) return "while";
+        if (node instanceof ReturnStatement) return "return";
+        if (node instanceof BinaryExpression) return ((BinaryExpression) node).operator.getLexeme();
+        if (node instanceof UnaryExpression) return ((UnaryExpression) node).operator.getLexeme();
+        if (node instanceof FunctionCall) return "call " + ((FunctionCall) node).id;
+        if (node instanceof VariableAccess) return "var " + ((VariableAccess) node).id;
+        return String.valueOf(((LiteralExpression) node).value);
+    }
+
+    // Hojas sin paréntesis; los demás nodos llevan la lista de hijos (vacía si no tienen)
+    private static boolean isLeaf(ASTNode node) {
+        return node instanceof Parameter || node instanceof VariableAccess || node instanceof LiteralExpression;
+    }
+
+    // Recorre los campos de cada nodo, no getChild: es la referencia independiente
+    private static final class RecursiveShape implements ASTVisitor<String> {
+
+        private String node(ASTNode node, Iterable<? extends ASTNode> children) {
+            StringBuilder text = new StringBuilder(label(node)).append('(');
+            boolean first = true;
+            for (ASTNode child : children) {
+                if (child != null) {
+                    text.append(first ? "" : ",").append(child.accept(this));
+                    first = false;
+                }
+            }
+            return text.append(')').toString();
+        }
+
+        private String node(ASTNode node, ASTNode... children) {
+            return node(node, Arrays.asList(children));
+        }
+
+        @Override
+        public String visit(Program node) { return node(node, node.functions); }
+
+        @Override
+        public String visit(FunctionDeclaration node) {
+            List<ASTNode> children = new ArrayList<>(node.parameters);
+            children.add(node.body);
+            return node(node, children);
+        }
+
+        @Override
+        public String visit(Parameter node) { return label(node); }
+
+        @Override
+        public String visit(BlockStatement node) { return node(node, node.statements); }
+
+        @Override
+        public String visit(DeclarationStatement node) { return node(node, node.initialValue); }
+
+        @Override
+        public String visit(AssignmentStatement node) { return node(node, node.value); }
+
+        @Override
+        public String visit(IfStatement node) { return node(node, node.condition, node.thenBranch, node.elseBranch); }
+
+        @Override
+        public String visit(WhileStatement node) { return node(node, node.condition, node.body); }
+
+        @Override
+        public String visit(ReturnStatement node) { return node(node, node.value); }
+
+        @Override
+        public String visit(BinaryExpression node) { return node(node, node.left, node.right); }
+
+        @Override
+        public String visit(UnaryExpression node) { return node(node, node.operand); }
+
+        @Override
+        public String visit(FunctionCall node) { return node(node, node.arguments); }
+
+        @Override
+        public String visit(VariableAccess node) { return label(node); }
+
+        @Override
+        public String visit(LiteralExpression node) { return label(node); }
+    }
+
+    private static final class ShapeListener implements ASTListener {
+
+        final StringBuilder text = new StringBuilder();
+
+        private boolean open(ASTNode node) {
+            text.append(label(node));
+            if (!isLeaf(node)) {
+                text.append('(');
+            }
+            return true;
+        }
+
+        private void close(ASTNode node) {
+            if (!isLeaf(node)) {
+                text.append(')');
+            }
+        }
+
+        @Override
+        public void afterChild(ASTNode parent, int index, ASTNode child) {
+            if (index + 1 < parent.getChildCount()) {
+                text.append(',');
+            }
+        }
+
+        @Override public boolean enter(Program node) { return open(node); }
+        @Override public void exit(Program node) { close(node); }
+        @Override public boolean enter(FunctionDeclaration node) { return open(node); }
+        @Override public void exit(FunctionDeclaration node) { close(node); }
+        @Override public boolean enter(Parameter node) { return open(node); }
+        @Override public void exit(Parameter node) { close(node); }
+        @Override public boolean enter(BlockStatement node) { return open(node); }
+        @Override public void exit(BlockStatement node) { close(node); }
+        @Override public boolean enter(DeclarationStatement node) { return open(node); }
+        @Override public void exit(DeclarationStatement node) { close(node); }
+        @Override public boolean enter(AssignmentStatement node) { return open(node); }
+        @Override public void exit(AssignmentStatement node) { close(node); }
+        @Override public boolean enter(IfStatement node) { return open(node); }
+        @Override public void exit(IfStatement node) { close(node); }
+        @Override public boolean enter(WhileStatement node) { return open(node); }
+        @Override public void exit(WhileStatement node) { close(node); }
+        @Override public boolean enter(ReturnStatement node) { return open(node); }
+        @Override public void exit(ReturnStatement node) { close(node); }
+        @Override public boolean enter(BinaryExpression node) { return open(node); }
+        @Override public void exit(BinaryExpression node) { close(node); }
+        @Override public boolean enter(UnaryExpression node) { return open(node); }
+        @Override public void exit(UnaryExpression node) { close(node); }
+        @Override public boolean enter(FunctionCall node) { return open(node); }
+        @Override public void exit(FunctionCall node) { close(node); }
+        @Override public boolean enter(VariableAccess node) { return open(node); }
+        @Override public void exit(VariableAccess node) { close(node); }
+        @Override public boolean enter(LiteralExpression node) { return open(node); }
+        @Override public void exit(LiteralExpression node) { close(node); }
+    }
+}
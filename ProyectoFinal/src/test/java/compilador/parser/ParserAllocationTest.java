@@ -0,0 +1,56 @@
+package compilador.parser;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import compilador.lexer.Lexer;
+import compilador.lexer.PackedTokenStream;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+class ParserAllocationTest {
+
+    // Con check(TokenType...) se asignaban unos 121 bytes por token; sin el arreglo varargs
+    // ni Integers quedan unos 48, casi todos del almacenamiento del propio FlatAST
+    private static final double MAX_BYTES_PER_TOKEN = 64;
+
+    @Test
+    void lookaheadDoesNotAllocatePerToken() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "La JVM no mide bytes asignados por hilo");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        PackedTokenStream tokens = new Lexer(program(2000)).tokenize();
+        // Calentamiento: el JIT elimina asignaciones que el intérprete sí hace
+        for (int i = 0; i < 20; i++) {
+            new Parser(tokens).parseFlat();
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        new Parser(tokens).parseFlat();
+        long bytes = threads.getThreadAllocatedBytes(thread) - before;
+
+        double perToken = (double) bytes / tokens.size();
+        assertTrue(perToken < MAX_BYTES_PER_TOKEN,
+                "El Parser asignó " + perToken + " bytes por token (máximo " + MAX_BYTES_PER_TOKEN + ")");
+    }
+
+    // Programa grande con todas las construcciones: unos 80 tokens por función
+    private static String program(int functions) {
+        StringBuilder source = new StringBuilder();
+        for (int f = 0; f < functions; f++) {
+            source.append("int f").append(f).append("(int a, boolean b) {\n")
+                  .append("    int x = a * 2 + 1;\n    int y;\n    y = 0;\n")
+                  .append("    while (x > 0 && b) {\n")
+                  .append("        if (x == 3 || !b) { y = y + x; } else { y = y - 1; }\n")
+                  .append("        x = x - 1;\n    }\n");
+            if (f > 0) {
+                source.append("    y = f").append(f - 1).append("(y, b);\n");
+            }
+            source.append("    return y;\n}\n\n");
+        }
+        source.append("int main() {\n    int r;\n    r = f").append(functions - 1).append("(5, true);\n    return r;\n}\n");
+        return source.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package compilador.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import compilador.generacion.DiagramGenerator;
+import compilador.lexer.Lexer;
+import compilador.lexer.Token.TokenType;
+import compilador.parser.declarations.Program;
+
+import java.lang.reflect.Proxy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TreeBuilder solo guarda los nodos que todavía no tienen padre: al armar un padre suelta a
+ * sus hijos, así lo retenido depende de la frontera pendiente y no del tamaño del programa.
+ */
+class TreeBuilderTest {
+
+    @Test
+    void onlyThePendingFrontierIsRetained() {
+        int statements = 5000;
+        StringBuilder source = new StringBuilder("int f(int a) {\n");
+        for (int i = 0; i < statements; i++) {
+            source.append("    a = (a + ").append(i).append(") * f(a - 1);\n");
+        }
+        source.append("    return a;\n}\n");
+        FlatAST flat = new Parser(new Lexer(source.toString()).tokenize()).parseFlat();
+
+        TreeBuilder builder = new TreeBuilder();
+        int[] peak = new int[1];
+        // Mide lo retenido después de cada nodo, sin cambiar lo que recibe el TreeBuilder
+        NodeSink measured = (NodeSink) Proxy.newProxyInstance(NodeSink.class.getClassLoader(),
+                new Class<?>[] { NodeSink.class }, (proxy, method, args) -> {
+                    Object handle = method.invoke(builder, args);
+                    peak[0] = Math.max(peak[0], builder.retained());
+                    return handle;
+                });
+        flat.replay(measured, 0, flat.root());
+        Program program = builder.get(flat.root());
+
+        // Cada sentencia tiene 9 nodos; pendientes quedan las sentencias del bloque y poco más
+        assertTrue(flat.root() > 8 * statements);
+        assertTrue(peak[0] < statements + 16, "retenidos: " + peak[0]);
+        assertEquals(0, builder.retained());
+        assertEquals(new DiagramGenerator().generateDotString(flat.toProgram()),
+                new DiagramGenerator().generateDotString(program));
+    }
+
+    @Test
+    void eachNodeIsHandedOutOnce() {
+        TreeBuilder builder = new TreeBuilder();
+        int literal = builder.intLiteral(1, 0, 7);
+        builder.unary(TokenType.MINUS, 1, 0, literal);
+        assertThrows(IllegalStateException.class, () -> builder.get(literal));
+    }
+}
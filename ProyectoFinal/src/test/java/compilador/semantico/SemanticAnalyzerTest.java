@@ -0,0 +1,41 @@
+package compilador.semantico;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import compilador.lexer.Lexer;
+import compilador.parser.Parser;
+import compilador.parser.declarations.FunctionDeclaration;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SemanticAnalyzerTest {
+
+    // Llamadas como cuerpo sin llaves de if, else y while, además de dentro de un bloque
+    private static final String UNBRACED_CALLS =
+            "int foo(int a) {\n    return a;\n}\n\n"
+          + "int main() {\n"
+          + "    int c;\n"
+          + "    c = 3;\n"
+          + "    if (c > 0) foo(c);\n"
+          + "    if (c > 1) foo(c); else foo(1);\n"
+          + "    while (c > 5) foo(c);\n"
+          + "    { foo(2); }\n"
+          + "    return c;\n"
+          + "}\n";
+
+    @Test
+    void callStatementsLeaveNoTypesOnTheStack() {
+        List<Integer> pending = new ArrayList<>();
+        SemanticAnalyzer analyzer = new SemanticAnalyzer() {
+            @Override
+            public void exit(FunctionDeclaration node) {
+                super.exit(node);
+                pending.add(pendingTypes());
+            }
+        };
+        analyzer.analyze(new Parser(new Lexer(UNBRACED_CALLS)).parseProgram());
+        assertEquals(List.of(0, 0), pending);
+    }
+}